@@ -0,0 +1,12 @@
+package com.example.ai;
+
+import java.util.List;
+
+public record AnalysisResult(
+    String bestMove,
+    int score,
+    int depth,
+    long nodes,
+    List<String> principalVariation
+) {
+}
@@ -4,5 +4,11 @@ import com.github.bhlangonijr.chesslib.Board;
 
 public interface ChessAiService {
 
-    String chooseMove(Board board, int searchDepth);
+    String chooseMove(Board board, SearchLimits limits);
+
+    AnalysisResult analyze(Board board, SearchLimits limits);
+
+    default String chooseMove(Board board, int searchDepth) {
+        return chooseMove(board, SearchLimits.fixedDepth(searchDepth));
+    }
 }
@@ -1,54 +1,258 @@
 package com.example.ai;
 
+import com.github.bhlangonijr.chesslib.Bitboard;
 import com.github.bhlangonijr.chesslib.Board;
 import com.github.bhlangonijr.chesslib.Piece;
 import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.Square;
 import com.github.bhlangonijr.chesslib.move.Move;
 import com.github.bhlangonijr.chesslib.move.MoveGenerator;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 public class HybridChessAiService implements ChessAiService {
 
     private static final int MATE_SCORE = 100_000;
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final int DOUBLED_PAWN_PENALTY = 12;
+    private static final int ISOLATED_PAWN_PENALTY = 15;
+    private static final int[] PASSED_PAWN_BONUS = {0, 5, 10, 20, 35, 60, 100, 0};
+    private static final int SHIELD_PAWN_BONUS = 10;
+    private static final int KING_ZONE_ATTACK_PENALTY = 8;
+    private static final int MAX_QUIESCENCE_DEPTH = 8;
+    private static final int WINNING_CAPTURE_BASE = 1_000_000;
+    private static final int LOSING_CAPTURE_BASE = -1_000_000;
+    private static final int PROMOTION_BONUS = 500_000;
+    private static final int BLUNDER_CANDIDATES = 3;
+    private static final int MAX_PLY = 64;
+    private static final long TIME_CHECK_MASK = 1023L;
+
     private final Random random = new Random();
+    private final PawnHashTable pawnHashTable;
+    private final StaticExchangeEvaluator see = new StaticExchangeEvaluator();
+    private final PositionCache positionCache;
+    private final Move[][] pvTable = new Move[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    private long nodes;
+    private long nodeBudget = Long.MAX_VALUE;
+    private long deadlineNanos = Long.MAX_VALUE;
+    private boolean aborted;
+
+    public HybridChessAiService() {
+        this(PawnHashTable.DEFAULT_ENTRIES, null);
+    }
+
+    public HybridChessAiService(PositionCache positionCache) {
+        this(PawnHashTable.DEFAULT_ENTRIES, positionCache);
+    }
+
+    public HybridChessAiService(int pawnHashEntries, PositionCache positionCache) {
+        this.pawnHashTable = new PawnHashTable(pawnHashEntries);
+        this.positionCache = positionCache;
+    }
+
+    public PawnHashTable pawnHashTable() {
+        return pawnHashTable;
+    }
+
+    public long lastSearchNodes() {
+        return nodes;
+    }
 
     @Override
-    public String chooseMove(Board board, int searchDepth) {
+    public String chooseMove(Board board, SearchLimits limits) {
         List<Move> legalMoves = legalMoves(board);
         if (legalMoves.isEmpty()) {
             return null;
         }
+        if (legalMoves.size() == 1) {
+            return toUci(legalMoves.get(0));
+        }
 
-        if (searchDepth <= 1) {
-            Move randomMove = legalMoves.get(random.nextInt(legalMoves.size()));
-            return toUci(randomMove);
+        boolean cacheable = positionCache != null && limits.evalNoise() == 0 && limits.blunderRate() == 0.0;
+        long positionKey = cacheable ? board.getZobristKey() : 0L;
+        if (cacheable) {
+            PositionCache.Entry cached = positionCache.lookup(positionKey);
+            if (cached != null && isCachedResultSufficient(cached, limits) && isLegal(legalMoves, cached.uciMove())) {
+                return cached.uciMove();
+            }
         }
 
+        boolean exactScores = limits.evalNoise() > 0 || limits.blunderRate() > 0.0;
+        RootSearch search = search(board, legalMoves, limits, exactScores);
+        if (search.completedMoves() == 0) {
+            return toUci(search.moves()[0]);
+        }
+        if (cacheable && search.completedDepth() > 0) {
+            // Only a search stopped by its node budget tells us how deep that budget reaches here.
+            long boundBudget = aborted && nodes > limits.nodeBudget() ? limits.nodeBudget() : 0L;
+            positionCache.store(positionKey, toUci(search.moves()[0]), search.scores()[0], search.completedDepth(), boundBudget);
+        }
+        return toUci(pickMove(search.moves(), search.scores(), search.completedMoves(), limits));
+    }
+
+    @Override
+    public AnalysisResult analyze(Board board, SearchLimits limits) {
+        List<Move> legalMoves = legalMoves(board);
+        if (legalMoves.isEmpty()) {
+            nodes = 0L;
+            return new AnalysisResult(null, evaluate(board, board.getSideToMove()), 0, 0L, List.of());
+        }
+
+        RootSearch search = search(board, legalMoves, limits, false);
+        if (search.completedMoves() == 0) {
+            String move = toUci(search.moves()[0]);
+            return new AnalysisResult(move, 0, 0, nodes, List.of(move));
+        }
+        return new AnalysisResult(
+            toUci(search.moves()[0]),
+            search.scores()[0],
+            search.completedDepth(),
+            nodes,
+            search.principalVariation()
+        );
+    }
+
+    private RootSearch search(Board board, List<Move> legalMoves, SearchLimits limits, boolean exactScores) {
+        nodes = 0L;
+        nodeBudget = limits.nodeBudget();
+        deadlineNanos = limits.timeLimitMillis() > 0
+            ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limits.timeLimitMillis())
+            : Long.MAX_VALUE;
+        aborted = false;
+
         Side rootSide = board.getSideToMove();
-        Move bestMove = null;
-        int bestScore = Integer.MIN_VALUE;
+        Move[] rootMoves = orderMoves(board, legalMoves).toArray(new Move[0]);
+        int[] rootScores = new int[rootMoves.length];
+        int[] iterationScores = new int[rootMoves.length];
+        int completedMoves = 0;
+        int completedDepth = 0;
+        List<String> principalVariation = List.of();
+        int maxDepth = Math.min(MAX_PLY - MAX_QUIESCENCE_DEPTH - 1, Math.max(1, limits.maxDepth()));
 
-        for (Move move : legalMoves) {
-            board.doMove(move);
-            int score = -negamax(board, searchDepth - 1, Integer.MIN_VALUE + 1, Integer.MAX_VALUE - 1, rootSide.flip());
-            board.undoMove();
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            int searched = 0;
+            int alpha = Integer.MIN_VALUE + 1;
+            List<String> iterationPv = List.of();
+            for (Move move : rootMoves) {
+                board.doMove(move);
+                int beta = exactScores ? Integer.MAX_VALUE - 1 : -alpha;
+                int score = -negamax(board, depth - 1, Integer.MIN_VALUE + 1, beta, rootSide.flip(), 1);
+                board.undoMove();
+                if (aborted) {
+                    break;
+                }
+                iterationScores[searched++] = score;
+                if (searched == 1 || score > alpha) {
+                    iterationPv = collectPrincipalVariation(move);
+                }
+                alpha = Math.max(alpha, score);
+            }
 
-            if (bestMove == null || score > bestScore) {
-                bestMove = move;
-                bestScore = score;
+            if (searched == rootMoves.length || completedMoves == 0) {
+                System.arraycopy(iterationScores, 0, rootScores, 0, searched);
+                completedMoves = searched;
+                sortByScore(rootMoves, rootScores, completedMoves);
+                principalVariation = iterationPv;
             }
+            if (searched == rootMoves.length) {
+                completedDepth = depth;
+            }
+            if (aborted) {
+                break;
+            }
+        }
+        return new RootSearch(rootMoves, rootScores, completedMoves, completedDepth, principalVariation);
+    }
+
+    private List<String> collectPrincipalVariation(Move rootMove) {
+        List<String> line = new ArrayList<>(pvLength[1] + 1);
+        line.add(toUci(rootMove));
+        for (int i = 1; i < pvLength[1]; i++) {
+            line.add(toUci(pvTable[1][i]));
+        }
+        return List.copyOf(line);
+    }
+
+    private void updatePrincipalVariation(int ply, Move move) {
+        pvTable[ply][ply] = move;
+        int childLength = pvLength[ply + 1];
+        if (childLength > ply + 1) {
+            System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, childLength - ply - 1);
+        }
+        pvLength[ply] = Math.max(ply + 1, childLength);
+    }
+
+    private boolean outOfBudget() {
+        if (++nodes > nodeBudget || ((nodes & TIME_CHECK_MASK) == 0 && System.nanoTime() >= deadlineNanos)) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    private boolean isCachedResultSufficient(PositionCache.Entry cached, SearchLimits limits) {
+        if (cached.depth() >= limits.maxDepth()) {
+            return true;
         }
+        return cached.budgetClass() > 0 && cached.budgetClass() >= PositionCache.budgetClass(limits.nodeBudget());
+    }
 
-        return bestMove != null ? toUci(bestMove) : null;
+    private boolean isLegal(List<Move> legalMoves, String uciMove) {
+        for (Move move : legalMoves) {
+            if (toUci(move).equals(uciMove)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private int negamax(Board board, int depth, int alpha, int beta, Side perspectiveSide) {
-        if (depth == 0 || board.isMated() || board.isDraw()) {
+    private Move pickMove(Move[] moves, int[] scores, int count, SearchLimits limits) {
+        int[] noisy = new int[count];
+        for (int i = 0; i < count; i++) {
+            int noise = limits.evalNoise() > 0 ? random.nextInt(limits.evalNoise() * 2 + 1) - limits.evalNoise() : 0;
+            noisy[i] = scores[i] + noise;
+        }
+        Move[] candidates = Arrays.copyOf(moves, count);
+        sortByScore(candidates, noisy, count);
+
+        if (count > 1 && limits.blunderRate() > 0.0 && random.nextDouble() < limits.blunderRate()) {
+            int pool = Math.min(BLUNDER_CANDIDATES, count - 1);
+            return candidates[1 + random.nextInt(pool)];
+        }
+        return candidates[0];
+    }
+
+    private void sortByScore(Move[] moves, int[] scores, int count) {
+        for (int i = 1; i < count; i++) {
+            Move move = moves[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+
+    private int negamax(Board board, int depth, int alpha, int beta, Side perspectiveSide, int ply) {
+        pvLength[ply] = ply;
+        if (outOfBudget()) {
+            return 0;
+        }
+        if (board.isMated() || board.isDraw()) {
             return evaluate(board, perspectiveSide);
         }
+        if (depth == 0) {
+            return quiescence(board, alpha, beta, perspectiveSide, MAX_QUIESCENCE_DEPTH);
+        }
 
         List<Move> legalMoves = legalMoves(board);
         if (legalMoves.isEmpty()) {
@@ -56,10 +260,48 @@ public class HybridChessAiService implements ChessAiService {
         }
 
         int bestScore = Integer.MIN_VALUE;
-        for (Move move : legalMoves) {
+        for (Move move : orderMoves(board, legalMoves)) {
+            board.doMove(move);
+            int score = -negamax(board, depth - 1, -beta, -alpha, perspectiveSide.flip(), ply + 1);
+            board.undoMove();
+            if (aborted) {
+                return 0;
+            }
+
+            bestScore = Math.max(bestScore, score);
+            if (score > alpha) {
+                alpha = score;
+                updatePrincipalVariation(ply, move);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    private int quiescence(Board board, int alpha, int beta, Side perspectiveSide, int depthLeft) {
+        if (outOfBudget()) {
+            return 0;
+        }
+        int standPat = evaluate(board, perspectiveSide);
+        if (depthLeft == 0 || standPat >= beta) {
+            return standPat;
+        }
+        alpha = Math.max(alpha, standPat);
+
+        List<Move> legalMoves = legalMoves(board);
+        int bestScore = standPat;
+        for (Move move : orderMoves(board, legalMoves)) {
+            if (!see.isCapture(board, move) || see.evaluate(board, move) < 0) {
+                continue;
+            }
             board.doMove(move);
-            int score = -negamax(board, depth - 1, -beta, -alpha, perspectiveSide.flip());
+            int score = -quiescence(board, -beta, -alpha, perspectiveSide.flip(), depthLeft - 1);
             board.undoMove();
+            if (aborted) {
+                return 0;
+            }
 
             bestScore = Math.max(bestScore, score);
             alpha = Math.max(alpha, score);
@@ -70,6 +312,38 @@ public class HybridChessAiService implements ChessAiService {
         return bestScore;
     }
 
+    private List<Move> orderMoves(Board board, List<Move> moves) {
+        int size = moves.size();
+        Move[] ordered = moves.toArray(new Move[0]);
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = orderingKey(board, ordered[i]);
+        }
+
+        for (int i = 1; i < size; i++) {
+            Move move = ordered[i];
+            int key = keys[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] < key) {
+                ordered[j + 1] = ordered[j];
+                keys[j + 1] = keys[j];
+                j--;
+            }
+            ordered[j + 1] = move;
+            keys[j + 1] = key;
+        }
+        return Arrays.asList(ordered);
+    }
+
+    private int orderingKey(Board board, Move move) {
+        int key = move.getPromotion() != Piece.NONE ? PROMOTION_BONUS : 0;
+        if (!see.isCapture(board, move)) {
+            return key;
+        }
+        int exchange = see.evaluate(board, move);
+        return key + (exchange >= 0 ? WINNING_CAPTURE_BASE : LOSING_CAPTURE_BASE) + exchange;
+    }
+
     private int evaluate(Board board, Side perspectiveSide) {
         if (board.isMated()) {
             return board.getSideToMove() == perspectiveSide ? -MATE_SCORE : MATE_SCORE;
@@ -83,7 +357,113 @@ public class HybridChessAiService implements ChessAiService {
         int mobility = legalMoves(board).size();
         int signedMobility = board.getSideToMove() == Side.WHITE ? mobility : -mobility;
 
-        return perspectiveSide == Side.WHITE ? material + signedMobility * 3 : -material - signedMobility * 3;
+        int whiteScore = material + signedMobility * 3 + pawnStructure(board) + kingSafety(board);
+        return perspectiveSide == Side.WHITE ? whiteScore : -whiteScore;
+    }
+
+    private int pawnStructure(Board board) {
+        long whitePawns = board.getBitboard(Piece.WHITE_PAWN);
+        long blackPawns = board.getBitboard(Piece.BLACK_PAWN);
+        long key = PawnHashTable.pawnKey(whitePawns, blackPawns);
+        if (pawnHashTable.probe(key)) {
+            return pawnHashTable.score(key);
+        }
+
+        int score = pawnTerms(whitePawns, blackPawns, true) - pawnTerms(blackPawns, whitePawns, false);
+        pawnHashTable.store(key, score);
+        return score;
+    }
+
+    private int pawnTerms(long ownPawns, long enemyPawns, boolean white) {
+        int score = 0;
+        for (int file = 0; file < 8; file++) {
+            int count = Long.bitCount(ownPawns & (FILE_A << file));
+            if (count > 1) {
+                score -= DOUBLED_PAWN_PENALTY * (count - 1);
+            }
+        }
+
+        long pawns = ownPawns;
+        while (pawns != 0L) {
+            int index = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            int file = index & 7;
+            int rank = index >>> 3;
+
+            if ((ownPawns & adjacentFiles(file)) == 0L) {
+                score -= ISOLATED_PAWN_PENALTY;
+            }
+            if ((enemyPawns & passedPawnSpan(file, rank, white)) == 0L) {
+                score += PASSED_PAWN_BONUS[white ? rank : 7 - rank];
+            }
+        }
+        return score;
+    }
+
+    private int kingSafety(Board board) {
+        return kingSafety(board, Side.WHITE) - kingSafety(board, Side.BLACK);
+    }
+
+    private int kingSafety(Board board, Side side) {
+        long king = board.getBitboard(side == Side.WHITE ? Piece.WHITE_KING : Piece.BLACK_KING);
+        if (king == 0L) {
+            return 0;
+        }
+        int kingIndex = Long.numberOfTrailingZeros(king);
+        Square kingSquare = Square.squareAt(kingIndex);
+        long zone = Bitboard.getKingAttacks(kingSquare, -1L) | king;
+
+        int score = 0;
+        int relativeRank = side == Side.WHITE ? kingIndex >>> 3 : 7 - (kingIndex >>> 3);
+        if (relativeRank <= 1) {
+            long ownPawns = board.getBitboard(side == Side.WHITE ? Piece.WHITE_PAWN : Piece.BLACK_PAWN);
+            int file = kingIndex & 7;
+            int rank = kingIndex >>> 3;
+            long files = adjacentFiles(file) | FILE_A << file;
+            long ranks = side == Side.WHITE ? 0xFFFFL << ((rank + 1) * 8) : 0xFFFFL << (Math.max(0, rank - 2) * 8);
+            score += SHIELD_PAWN_BONUS * Long.bitCount(ownPawns & files & ranks);
+        }
+
+        Side enemy = side.flip();
+        long occupancy = board.getBitboard();
+        int attacks = 0;
+        long knights = board.getBitboard(enemy == Side.WHITE ? Piece.WHITE_KNIGHT : Piece.BLACK_KNIGHT);
+        while (knights != 0L) {
+            attacks += Long.bitCount(Bitboard.getKnightAttacks(Square.squareAt(Long.numberOfTrailingZeros(knights)), zone));
+            knights &= knights - 1;
+        }
+        long diagonals = board.getBitboard(enemy == Side.WHITE ? Piece.WHITE_BISHOP : Piece.BLACK_BISHOP)
+            | board.getBitboard(enemy == Side.WHITE ? Piece.WHITE_QUEEN : Piece.BLACK_QUEEN);
+        while (diagonals != 0L) {
+            attacks += Long.bitCount(Bitboard.getBishopAttacks(occupancy, Square.squareAt(Long.numberOfTrailingZeros(diagonals))) & zone);
+            diagonals &= diagonals - 1;
+        }
+        long lines = board.getBitboard(enemy == Side.WHITE ? Piece.WHITE_ROOK : Piece.BLACK_ROOK)
+            | board.getBitboard(enemy == Side.WHITE ? Piece.WHITE_QUEEN : Piece.BLACK_QUEEN);
+        while (lines != 0L) {
+            attacks += Long.bitCount(Bitboard.getRookAttacks(occupancy, Square.squareAt(Long.numberOfTrailingZeros(lines))) & zone);
+            lines &= lines - 1;
+        }
+        return score - KING_ZONE_ATTACK_PENALTY * attacks;
+    }
+
+    private static long adjacentFiles(int file) {
+        long mask = 0L;
+        if (file > 0) {
+            mask |= FILE_A << (file - 1);
+        }
+        if (file < 7) {
+            mask |= FILE_A << (file + 1);
+        }
+        return mask;
+    }
+
+    private static long passedPawnSpan(int file, int rank, boolean white) {
+        long files = adjacentFiles(file) | FILE_A << file;
+        if (white) {
+            return rank >= 7 ? 0L : files & (-1L << ((rank + 1) * 8));
+        }
+        return rank <= 0 ? 0L : files & (-1L >>> ((8 - rank) * 8));
     }
 
     private int pieceValue(Piece piece) {
@@ -118,11 +498,24 @@ public class HybridChessAiService implements ChessAiService {
         builder.append(move.getTo().value().toLowerCase());
 
         Piece promotion = move.getPromotion();
-        if (promotion != Piece.NONE) {
-            String symbol = promotion.value().toLowerCase();
-            builder.append(symbol.charAt(symbol.length() - 1));
+        if (promotion != null && promotion != Piece.NONE) {
+            switch (promotion.getPieceType()) {
+                case KNIGHT -> builder.append('n');
+                case BISHOP -> builder.append('b');
+                case ROOK -> builder.append('r');
+                default -> builder.append('q');
+            }
         }
 
         return builder.toString();
     }
+
+    private record RootSearch(
+        Move[] moves,
+        int[] scores,
+        int completedMoves,
+        int completedDepth,
+        List<String> principalVariation
+    ) {
+    }
 }
@@ -0,0 +1,102 @@
+package com.example.ai;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class PawnHashTable {
+
+    public static final int DEFAULT_ENTRIES = 1 << 14;
+
+    private static final long[] WHITE_PAWN_KEYS = new long[64];
+    private static final long[] BLACK_PAWN_KEYS = new long[64];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5DEECE66DL);
+        for (int i = 0; i < 64; i++) {
+            WHITE_PAWN_KEYS[i] = random.nextLong();
+            BLACK_PAWN_KEYS[i] = random.nextLong();
+        }
+    }
+
+    private final long[] keys;
+    private final int[] scores;
+    private final boolean[] occupied;
+    private final int mask;
+    private long probes;
+    private long hits;
+
+    public PawnHashTable() {
+        this(DEFAULT_ENTRIES);
+    }
+
+    public PawnHashTable(int entries) {
+        if (entries <= 0) {
+            throw new IllegalArgumentException("entries must be positive");
+        }
+        int capacity = Integer.highestOneBit(entries);
+        this.keys = new long[capacity];
+        this.scores = new int[capacity];
+        this.occupied = new boolean[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public static long pawnKey(long whitePawns, long blackPawns) {
+        long key = 0L;
+        while (whitePawns != 0L) {
+            key ^= WHITE_PAWN_KEYS[Long.numberOfTrailingZeros(whitePawns)];
+            whitePawns &= whitePawns - 1;
+        }
+        while (blackPawns != 0L) {
+            key ^= BLACK_PAWN_KEYS[Long.numberOfTrailingZeros(blackPawns)];
+            blackPawns &= blackPawns - 1;
+        }
+        return key;
+    }
+
+    public boolean probe(long key) {
+        probes++;
+        int index = index(key);
+        if (occupied[index] && keys[index] == key) {
+            hits++;
+            return true;
+        }
+        return false;
+    }
+
+    public int score(long key) {
+        return scores[index(key)];
+    }
+
+    public void store(long key, int score) {
+        int index = index(key);
+        keys[index] = key;
+        scores[index] = score;
+        occupied[index] = true;
+    }
+
+    public void clear() {
+        Arrays.fill(occupied, false);
+        probes = 0L;
+        hits = 0L;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    public long probes() {
+        return probes;
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public double hitRate() {
+        return probes == 0L ? 0.0 : (double) hits / probes;
+    }
+
+    private int index(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.ai;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class PositionCache implements Closeable {
+
+    public static final int DEFAULT_ENTRIES = 1 << 16;
+
+    private static final int MAGIC = 0x43504331;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 16;
+    private static final int SLOT_BYTES = 32;
+    private static final int BUCKET_SLOTS = 4;
+
+    private static final int KEY_OFFSET = 0;
+    private static final int SCORE_OFFSET = 8;
+    private static final int MOVE_OFFSET = 12;
+    private static final int DEPTH_OFFSET = 14;
+    private static final int BUDGET_OFFSET = 15;
+    private static final int CHECK_OFFSET = 16;
+    private static final int REF_OFFSET = 24;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int bucketMask;
+    private long lookups;
+    private long hits;
+
+    private PositionCache(FileChannel channel, MappedByteBuffer buffer, int buckets) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.bucketMask = buckets - 1;
+    }
+
+    public static Path defaultPath() {
+        return Paths.get(System.getProperty("user.home"), ".chess-studio", "ai-cache.bin");
+    }
+
+    public static PositionCache open(Path file) throws IOException {
+        return open(file, DEFAULT_ENTRIES);
+    }
+
+    public static PositionCache open(Path file, int entries) throws IOException {
+        int buckets = Integer.highestOneBit(Math.max(BUCKET_SLOTS, entries) / BUCKET_SLOTS);
+        long size = HEADER_BYTES + (long) buckets * BUCKET_SLOTS * SLOT_BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Position cache too large: " + entries + " entries");
+        }
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean compatible = channel.size() == size;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (!compatible || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != buckets) {
+                for (long i = 0; i < size; i += 8) {
+                    buffer.putLong((int) i, 0L);
+                }
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, buckets);
+                buffer.force();
+            }
+            return new PositionCache(channel, buffer, buckets);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public synchronized Entry lookup(long key) {
+        lookups++;
+        int base = bucketOffset(key);
+        for (int i = 0; i < BUCKET_SLOTS; i++) {
+            int slot = base + i * SLOT_BYTES;
+            if (isValid(slot) && buffer.getLong(slot + KEY_OFFSET) == key) {
+                hits++;
+                buffer.put(slot + REF_OFFSET, (byte) 1);
+                return new Entry(
+                    decodeMove(buffer.getShort(slot + MOVE_OFFSET)),
+                    buffer.getInt(slot + SCORE_OFFSET),
+                    buffer.get(slot + DEPTH_OFFSET),
+                    buffer.get(slot + BUDGET_OFFSET)
+                );
+            }
+        }
+        return null;
+    }
+
+    public synchronized void store(long key, String uciMove, int score, int depth, long nodeBudget) {
+        short move = encodeMove(uciMove);
+        if (move == 0) {
+            return;
+        }
+        byte depthByte = (byte) Math.min(Byte.MAX_VALUE, depth);
+        byte budgetByte = budgetClass(nodeBudget);
+
+        int base = bucketOffset(key);
+        int target = -1;
+        for (int i = 0; i < BUCKET_SLOTS; i++) {
+            int slot = base + i * SLOT_BYTES;
+            if (!isValid(slot)) {
+                if (target < 0) {
+                    target = slot;
+                }
+                continue;
+            }
+            if (buffer.getLong(slot + KEY_OFFSET) == key) {
+                if (buffer.get(slot + DEPTH_OFFSET) > depthByte
+                    || (buffer.get(slot + DEPTH_OFFSET) == depthByte && buffer.get(slot + BUDGET_OFFSET) > budgetByte)) {
+                    return;
+                }
+                target = slot;
+                break;
+            }
+        }
+        if (target < 0) {
+            target = clockVictim(base);
+        }
+
+        buffer.putLong(target + CHECK_OFFSET, 0L);
+        buffer.putLong(target + KEY_OFFSET, key);
+        buffer.putInt(target + SCORE_OFFSET, score);
+        buffer.putShort(target + MOVE_OFFSET, move);
+        buffer.put(target + DEPTH_OFFSET, depthByte);
+        buffer.put(target + BUDGET_OFFSET, budgetByte);
+        buffer.put(target + REF_OFFSET, (byte) 1);
+        buffer.putLong(target + CHECK_OFFSET, checksum(key, score, move, depthByte, budgetByte));
+    }
+
+    public synchronized void flush() {
+        buffer.force();
+    }
+
+    public synchronized long lookups() {
+        return lookups;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    public static byte budgetClass(long nodeBudget) {
+        if (nodeBudget <= 0L) {
+            return 0;
+        }
+        if (nodeBudget == Long.MAX_VALUE) {
+            return Byte.MAX_VALUE;
+        }
+        return (byte) (64 - Long.numberOfLeadingZeros(Math.max(1L, nodeBudget)));
+    }
+
+    private int clockVictim(int base) {
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < BUCKET_SLOTS; i++) {
+                int slot = base + i * SLOT_BYTES;
+                if (buffer.get(slot + REF_OFFSET) == 0) {
+                    return slot;
+                }
+                buffer.put(slot + REF_OFFSET, (byte) 0);
+            }
+        }
+        return base;
+    }
+
+    private boolean isValid(int slot) {
+        long check = buffer.getLong(slot + CHECK_OFFSET);
+        if (check == 0L) {
+            return false;
+        }
+        return check == checksum(
+            buffer.getLong(slot + KEY_OFFSET),
+            buffer.getInt(slot + SCORE_OFFSET),
+            buffer.getShort(slot + MOVE_OFFSET),
+            buffer.get(slot + DEPTH_OFFSET),
+            buffer.get(slot + BUDGET_OFFSET)
+        );
+    }
+
+    private int bucketOffset(long key) {
+        int bucket = (int) (key ^ (key >>> 32)) & bucketMask;
+        return HEADER_BYTES + bucket * BUCKET_SLOTS * SLOT_BYTES;
+    }
+
+    private static long checksum(long key, int score, short move, byte depth, byte budget) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= ((long) score << 32) | ((move & 0xFFFFL) << 16) | ((depth & 0xFFL) << 8) | (budget & 0xFFL);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h == 0L ? 1L : h;
+    }
+
+    static short encodeMove(String uci) {
+        if (uci == null || uci.length() < 4) {
+            return 0;
+        }
+        int from = squareIndex(uci.charAt(0), uci.charAt(1));
+        int to = squareIndex(uci.charAt(2), uci.charAt(3));
+        if (from < 0 || to < 0 || from == to) {
+            return 0;
+        }
+        int promotion = uci.length() > 4 ? "nbrq".indexOf(Character.toLowerCase(uci.charAt(4))) + 1 : 0;
+        return (short) (from | to << 6 | promotion << 12);
+    }
+
+    static String decodeMove(short move) {
+        int from = move & 0x3F;
+        int to = (move >>> 6) & 0x3F;
+        int promotion = (move >>> 12) & 0x7;
+        StringBuilder builder = new StringBuilder(5);
+        builder.append((char) ('a' + (from & 7))).append((char) ('1' + (from >>> 3)));
+        builder.append((char) ('a' + (to & 7))).append((char) ('1' + (to >>> 3)));
+        if (promotion > 0) {
+            builder.append("nbrq".charAt(promotion - 1));
+        }
+        return builder.toString();
+    }
+
+    private static int squareIndex(char file, char rank) {
+        int f = Character.toLowerCase(file) - 'a';
+        int r = rank - '1';
+        if (f < 0 || f > 7 || r < 0 || r > 7) {
+            return -1;
+        }
+        return r * 8 + f;
+    }
+
+    public record Entry(String uciMove, int score, int depth, int budgetClass) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ai;
+
+import com.example.config.Difficulty;
+
+public record SearchLimits(
+    int maxDepth,
+    long nodeBudget,
+    long timeLimitMillis,
+    int evalNoise,
+    double blunderRate
+) {
+
+    private static final long MIN_CLOCK_RESERVE_MILLIS = 50L;
+    private static final long MIN_MOVE_MILLIS = 10L;
+
+    public static SearchLimits of(Difficulty difficulty) {
+        return new SearchLimits(
+            difficulty.searchDepth(),
+            difficulty.nodeBudget(),
+            0L,
+            difficulty.evalNoise(),
+            difficulty.blunderRate()
+        );
+    }
+
+    public SearchLimits withClock(long remainingMillis, long incrementMillis, int movesToGo) {
+        long reserve = Math.max(MIN_CLOCK_RESERVE_MILLIS, remainingMillis / 10);
+        long usable = Math.max(0L, remainingMillis - reserve);
+        long allocation = usable / Math.max(1, movesToGo) + incrementMillis * 3 / 4;
+        allocation = Math.max(MIN_MOVE_MILLIS, Math.min(allocation, usable));
+        return withTimeLimit(allocation);
+    }
+
+    public SearchLimits withTimeLimit(long millis) {
+        long limit = timeLimitMillis > 0 ? Math.min(timeLimitMillis, millis) : millis;
+        return new SearchLimits(maxDepth, nodeBudget, limit, evalNoise, blunderRate);
+    }
+
+    public static SearchLimits fixedDepth(int depth) {
+        return new SearchLimits(depth, Long.MAX_VALUE, 0L, 0, 0.0);
+    }
+
+    public static SearchLimits analysis(int maxDepth, long nodeBudget, long timeLimitMillis) {
+        return new SearchLimits(maxDepth, nodeBudget, timeLimitMillis, 0, 0.0);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.ai;
+
+import com.github.bhlangonijr.chesslib.Bitboard;
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+public class StaticExchangeEvaluator {
+
+    private static final int[] VALUES = {100, 320, 330, 500, 900, 20_000};
+    private static final int MAX_EXCHANGES = 32;
+
+    private final int[] gain = new int[MAX_EXCHANGES];
+
+    public boolean isCapture(Board board, Move move) {
+        return board.getPiece(move.getTo()) != Piece.NONE || isEnPassant(board, move);
+    }
+
+    public int evaluate(Board board, Move move) {
+        Square from = move.getFrom();
+        Square to = move.getTo();
+        Piece mover = board.getPiece(from);
+        if (mover == Piece.NONE) {
+            return 0;
+        }
+
+        long occupancy = board.getBitboard();
+        long pawns = board.getBitboard(Piece.WHITE_PAWN) | board.getBitboard(Piece.BLACK_PAWN);
+        long knights = board.getBitboard(Piece.WHITE_KNIGHT) | board.getBitboard(Piece.BLACK_KNIGHT);
+        long bishops = board.getBitboard(Piece.WHITE_BISHOP) | board.getBitboard(Piece.BLACK_BISHOP);
+        long rooks = board.getBitboard(Piece.WHITE_ROOK) | board.getBitboard(Piece.BLACK_ROOK);
+        long queens = board.getBitboard(Piece.WHITE_QUEEN) | board.getBitboard(Piece.BLACK_QUEEN);
+        long kings = board.getBitboard(Piece.WHITE_KING) | board.getBitboard(Piece.BLACK_KING);
+        long whitePieces = board.getBitboard(Side.WHITE);
+        long blackPieces = board.getBitboard(Side.BLACK);
+        long diagonalSliders = bishops | queens;
+        long lineSliders = rooks | queens;
+
+        int depth = 0;
+        Piece captured = board.getPiece(to);
+        if (captured != Piece.NONE) {
+            gain[0] = value(captured.getPieceType());
+        } else if (isEnPassant(board, move)) {
+            gain[0] = VALUES[0];
+            occupancy ^= board.getEnPassantTarget().getBitboard();
+        } else {
+            gain[0] = 0;
+        }
+
+        int attackerValue = value(mover.getPieceType());
+        Piece promotion = move.getPromotion();
+        if (promotion != null && promotion != Piece.NONE) {
+            int promotedValue = value(promotion.getPieceType());
+            gain[0] += promotedValue - VALUES[0];
+            attackerValue = promotedValue;
+        }
+
+        Side side = mover.getPieceSide();
+        occupancy ^= from.getBitboard();
+        long attackers = attackersTo(to, occupancy, pawns, knights, diagonalSliders, lineSliders, kings,
+            whitePieces, blackPieces) & occupancy;
+
+        while (depth + 1 < MAX_EXCHANGES) {
+            side = side.flip();
+            long sideAttackers = attackers & (side == Side.WHITE ? whitePieces : blackPieces);
+            if (sideAttackers == 0L) {
+                break;
+            }
+
+            depth++;
+            gain[depth] = attackerValue - gain[depth - 1];
+            if (Math.max(-gain[depth - 1], gain[depth]) < 0) {
+                break;
+            }
+
+            long attackerBit;
+            if ((attackerBit = sideAttackers & pawns) != 0L) {
+                attackerValue = VALUES[0];
+            } else if ((attackerBit = sideAttackers & knights) != 0L) {
+                attackerValue = VALUES[1];
+            } else if ((attackerBit = sideAttackers & bishops) != 0L) {
+                attackerValue = VALUES[2];
+            } else if ((attackerBit = sideAttackers & rooks) != 0L) {
+                attackerValue = VALUES[3];
+            } else if ((attackerBit = sideAttackers & queens) != 0L) {
+                attackerValue = VALUES[4];
+            } else {
+                attackerBit = sideAttackers & kings;
+                attackerValue = VALUES[5];
+            }
+
+            occupancy ^= Long.lowestOneBit(attackerBit);
+            attackers = attackersTo(to, occupancy, pawns, knights, diagonalSliders, lineSliders, kings,
+                whitePieces, blackPieces) & occupancy;
+        }
+
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    private long attackersTo(
+        Square square,
+        long occupancy,
+        long pawns,
+        long knights,
+        long diagonalSliders,
+        long lineSliders,
+        long kings,
+        long whitePieces,
+        long blackPieces
+    ) {
+        return (Bitboard.getPawnAttacks(Side.BLACK, square) & pawns & whitePieces)
+            | (Bitboard.getPawnAttacks(Side.WHITE, square) & pawns & blackPieces)
+            | Bitboard.getKnightAttacks(square, knights)
+            | Bitboard.getKingAttacks(square, kings)
+            | (Bitboard.getBishopAttacks(occupancy, square) & diagonalSliders)
+            | (Bitboard.getRookAttacks(occupancy, square) & lineSliders);
+    }
+
+    private boolean isEnPassant(Board board, Move move) {
+        Piece mover = board.getPiece(move.getFrom());
+        return mover.getPieceType() == PieceType.PAWN
+            && move.getTo() == board.getEnPassant()
+            && board.getEnPassant() != Square.NONE;
+    }
+
+    private int value(PieceType type) {
+        if (type == null) {
+            return 0;
+        }
+        return switch (type) {
+            case PAWN -> VALUES[0];
+            case KNIGHT -> VALUES[1];
+            case BISHOP -> VALUES[2];
+            case ROOK -> VALUES[3];
+            case QUEEN -> VALUES[4];
+            case KING -> VALUES[5];
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.analysis;
+
+import com.example.ai.HybridChessAiService;
+import com.example.ai.SearchLimits;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BatchAnalysisCli {
+
+    private static final String USAGE = """
+        Usage: BatchAnalysisCli [--threads N] [--depth N] [--nodes N] [--time MS] [FEN_FILE]
+        Reads one FEN per line from FEN_FILE (or stdin) and prints one tab-separated result per position:
+        index, best move, score (cp, side to move), depth, nodes, elapsed ms, principal variation.
+        """;
+
+    private BatchAnalysisCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int depth = 6;
+        long nodes = 200_000L;
+        long timeMillis = 0L;
+        Path input = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(requireValue(args, ++i));
+                case "--depth" -> depth = Integer.parseInt(requireValue(args, ++i));
+                case "--nodes" -> nodes = Long.parseLong(requireValue(args, ++i));
+                case "--time" -> timeMillis = Long.parseLong(requireValue(args, ++i));
+                case "--help", "-h" -> {
+                    System.out.print(USAGE);
+                    return;
+                }
+                default -> input = Path.of(args[i]);
+            }
+        }
+
+        List<String> fens = readFens(input);
+        SearchLimits limits = SearchLimits.analysis(depth, nodes <= 0 ? Long.MAX_VALUE : nodes, timeMillis);
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+
+        try (BatchAnalysisService service = new BatchAnalysisService(threads, HybridChessAiService::new)) {
+            BatchAnalysisService.BatchSummary summary = service.submit(fens, limits, result -> {
+                synchronized (out) {
+                    out.println(format(result));
+                }
+            }).join();
+            out.flush();
+            System.err.printf(
+                "Analyzed %d positions on %d threads in %.2f s (%.1f positions/s, %.0f nodes/s)%n",
+                summary.positions(),
+                service.workers(),
+                summary.elapsedNanos() / 1_000_000_000.0,
+                summary.positionsPerSecond(),
+                summary.nodesPerSecond()
+            );
+        }
+    }
+
+    private static String format(PositionAnalysis result) {
+        if (!result.successful()) {
+            return result.index() + "\terror\t" + result.error();
+        }
+        return result.index()
+            + "\t" + (result.bestMove() == null ? "-" : result.bestMove())
+            + "\t" + result.score()
+            + "\t" + result.depth()
+            + "\t" + result.nodes()
+            + "\t" + result.elapsedNanos() / 1_000_000L
+            + "\t" + String.join(" ", result.principalVariation());
+    }
+
+    private static List<String> readFens(Path input) throws IOException {
+        try (BufferedReader reader = input == null
+            ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+            : Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            List<String> fens = new ArrayList<>();
+            reader.lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .forEach(fens::add);
+            return fens;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1] + "\n" + USAGE);
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.analysis;
+
+import com.example.ai.AnalysisResult;
+import com.example.ai.ChessAiService;
+import com.example.ai.SearchLimits;
+import com.github.bhlangonijr.chesslib.Board;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public class BatchAnalysisService implements AutoCloseable {
+
+    private final int workers;
+    private final ExecutorService executor;
+    private final ThreadLocal<ChessAiService> engines;
+
+    public BatchAnalysisService(int workers, Supplier<ChessAiService> engineFactory) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        this.workers = workers;
+        this.engines = ThreadLocal.withInitial(engineFactory);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "chess-analysis-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int workers() {
+        return workers;
+    }
+
+    public Batch submit(List<String> fens, SearchLimits limits, Consumer<PositionAnalysis> onResult) {
+        List<String> positions = List.copyOf(fens);
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicInteger remainingWorkers = new AtomicInteger(Math.min(workers, Math.max(1, positions.size())));
+        AtomicInteger analyzed = new AtomicInteger();
+        AtomicLong totalNodes = new AtomicLong();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CompletableFuture<BatchSummary> completion = new CompletableFuture<>();
+        long startedAt = System.nanoTime();
+
+        Runnable worker = () -> {
+            try {
+                ChessAiService engine = engines.get();
+                Board board = new Board();
+                int index;
+                while (!cancelled.get() && (index = nextIndex.getAndIncrement()) < positions.size()) {
+                    PositionAnalysis result = analyzeOne(engine, board, index, positions.get(index), limits);
+                    totalNodes.addAndGet(result.nodes());
+                    analyzed.incrementAndGet();
+                    onResult.accept(result);
+                }
+            } catch (RuntimeException e) {
+                cancelled.set(true);
+                completion.completeExceptionally(e);
+            } finally {
+                if (remainingWorkers.decrementAndGet() == 0) {
+                    completion.complete(new BatchSummary(analyzed.get(), totalNodes.get(), System.nanoTime() - startedAt, cancelled.get()));
+                }
+            }
+        };
+
+        int started = remainingWorkers.get();
+        for (int i = 0; i < started; i++) {
+            executor.execute(worker);
+        }
+        return new Batch(completion, cancelled);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private PositionAnalysis analyzeOne(ChessAiService engine, Board board, int index, String fen, SearchLimits limits) {
+        long startedAt = System.nanoTime();
+        try {
+            board.loadFromFen(fen);
+            AnalysisResult result = engine.analyze(board, limits);
+            return new PositionAnalysis(
+                index,
+                fen,
+                result.bestMove(),
+                result.score(),
+                result.depth(),
+                result.nodes(),
+                result.principalVariation(),
+                System.nanoTime() - startedAt,
+                null
+            );
+        } catch (RuntimeException e) {
+            String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            return PositionAnalysis.failed(index, fen, message, System.nanoTime() - startedAt);
+        }
+    }
+
+    public record Batch(CompletableFuture<BatchSummary> completion, AtomicBoolean cancelFlag) {
+
+        public void cancel() {
+            cancelFlag.set(true);
+        }
+
+        public BatchSummary join() {
+            return completion.join();
+        }
+    }
+
+    public record BatchSummary(int positions, long nodes, long elapsedNanos, boolean cancelled) {
+
+        public double positionsPerSecond() {
+            return elapsedNanos == 0L ? 0.0 : positions * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        public double nodesPerSecond() {
+            return elapsedNanos == 0L ? 0.0 : nodes * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.analysis;
+
+import java.util.List;
+
+public record PositionAnalysis(
+    int index,
+    String fen,
+    String bestMove,
+    int score,
+    int depth,
+    long nodes,
+    List<String> principalVariation,
+    long elapsedNanos,
+    String error
+) {
+
+    public static PositionAnalysis failed(int index, String fen, String error, long elapsedNanos) {
+        return new PositionAnalysis(index, fen, null, 0, 0, 0L, List.of(), elapsedNanos, error);
+    }
+
+    public boolean successful() {
+        return error == null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.audio;
+
+public class SilentAudioService implements AudioService {
+
+    @Override
+    public void play(SoundEffect soundEffect) {
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+    }
+
+    @Override
+    public void setSfxVolume(double volume) {
+    }
+
+    @Override
+    public void setMenuMusicVolume(double volume) {
+    }
+
+    @Override
+    public void playMenuMusic() {
+    }
+
+    @Override
+    public void stopMusic() {
+    }
+}
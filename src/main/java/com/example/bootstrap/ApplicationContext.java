@@ -2,16 +2,19 @@ package com.example.bootstrap;
 
 import com.example.ai.ChessAiService;
 import com.example.ai.HybridChessAiService;
+import com.example.ai.PositionCache;
 import com.example.audio.AudioService;
 import com.example.audio.JavaFxAudioService;
 import com.example.config.AppSettings;
 import com.example.controller.MainController;
+import com.example.explorer.PositionIndexer;
 import com.example.game.ChessGameService;
 import com.example.persistence.GamePersistenceService;
 import com.example.persistence.SettingsPersistenceService;
 import com.example.ui.ThemeService;
 import javafx.scene.Scene;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Path;
 import java.util.concurrent.ExecutorService;
@@ -22,33 +25,42 @@ public class ApplicationContext {
     private final AppSettings settings;
     private final AudioService audioService;
     private final ChessAiService aiService;
+    private final PositionCache positionCache;
     private final ChessGameService gameService;
     private final ThemeService themeService;
     private final GamePersistenceService persistenceService;
+    private final PositionIndexer positionIndexer;
     private final SettingsPersistenceService settingsPersistenceService;
     private final ExecutorService aiExecutor;
     private final ExecutorService ioExecutor;
+    private final ExecutorService explorerExecutor;
 
     private ApplicationContext(
         AppSettings settings,
         AudioService audioService,
         ChessAiService aiService,
+        PositionCache positionCache,
         ChessGameService gameService,
         ThemeService themeService,
         GamePersistenceService persistenceService,
+        PositionIndexer positionIndexer,
         SettingsPersistenceService settingsPersistenceService,
         ExecutorService aiExecutor,
-        ExecutorService ioExecutor
+        ExecutorService ioExecutor,
+        ExecutorService explorerExecutor
     ) {
         this.settings = settings;
         this.audioService = audioService;
         this.aiService = aiService;
+        this.positionCache = positionCache;
         this.gameService = gameService;
         this.themeService = themeService;
         this.persistenceService = persistenceService;
+        this.positionIndexer = positionIndexer;
         this.settingsPersistenceService = settingsPersistenceService;
         this.aiExecutor = aiExecutor;
         this.ioExecutor = ioExecutor;
+        this.explorerExecutor = explorerExecutor;
     }
 
     public static ApplicationContext bootstrap() {
@@ -58,10 +70,12 @@ public class ApplicationContext {
 
         AudioService audioService = new JavaFxAudioService(settings);
         audioService.playMenuMusic();
-        ChessAiService aiService = new HybridChessAiService();
+        PositionCache positionCache = openPositionCache();
+        ChessAiService aiService = new HybridChessAiService(positionCache);
         ChessGameService gameService = new ChessGameService(settings, audioService);
         ThemeService themeService = new ThemeService();
         GamePersistenceService persistenceService = new GamePersistenceService(resolveSaveDirectory(settings));
+        PositionIndexer positionIndexer = new PositionIndexer(persistenceService);
         ExecutorService aiExecutor = Executors.newSingleThreadExecutor(r -> {
             Thread thread = new Thread(r, "chess-ai-worker");
             thread.setDaemon(true);
@@ -73,17 +87,25 @@ public class ApplicationContext {
             thread.setDaemon(true);
             return thread;
         });
+        ExecutorService explorerExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "chess-explorer-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
 
         ApplicationContext context = new ApplicationContext(
             settings,
             audioService,
             aiService,
+            positionCache,
             gameService,
             themeService,
             persistenceService,
+            positionIndexer,
             settingsPersistenceService,
             aiExecutor,
-            ioExecutor
+            ioExecutor,
+            explorerExecutor
         );
         context.registerSettingsAutoSave();
         return context;
@@ -91,7 +113,7 @@ public class ApplicationContext {
 
     public Object createController(Class<?> controllerClass) {
         if (controllerClass == MainController.class) {
-            return new MainController(settings, gameService, aiService, audioService, themeService, persistenceService, aiExecutor, ioExecutor);
+            return new MainController(settings, gameService, aiService, audioService, themeService, persistenceService, positionIndexer, aiExecutor, ioExecutor, explorerExecutor);
         }
 
         try {
@@ -109,6 +131,15 @@ public class ApplicationContext {
         settingsPersistenceService.save(settings);
         aiExecutor.shutdownNow();
         ioExecutor.shutdownNow();
+        explorerExecutor.shutdownNow();
+        positionIndexer.close();
+        persistenceService.close();
+        if (positionCache != null) {
+            try {
+                positionCache.close();
+            } catch (IOException ignored) {
+            }
+        }
     }
 
     public AppSettings settings() {
@@ -120,19 +151,28 @@ public class ApplicationContext {
     }
 
     private void registerSettingsAutoSave() {
-        settings.gameModeProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.save(settings));
-        settings.difficultyProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.save(settings));
-        settings.themeProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.save(settings));
-        settings.pieceStyleProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.save(settings));
-        settings.timeControlProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.save(settings));
+        settings.gameModeProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.saveLater(settings));
+        settings.difficultyProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.saveLater(settings));
+        settings.themeProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.saveLater(settings));
+        settings.pieceStyleProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.saveLater(settings));
+        settings.timeControlProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.saveLater(settings));
         settings.saveDirectoryProperty().addListener((obs, oldValue, newValue) -> {
-            persistenceService.setSaveDir(resolveSaveDirectory(settings));
-            settingsPersistenceService.save(settings);
+            Path saveDir = resolveSaveDirectory(settings);
+            ioExecutor.execute(() -> persistenceService.setSaveDir(saveDir));
+            settingsPersistenceService.saveLater(settings);
         });
-        settings.touchMoveRuleProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.save(settings));
-        settings.soundEnabledProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.save(settings));
-        settings.sfxVolumeProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.save(settings));
-        settings.menuMusicVolumeProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.save(settings));
+        settings.touchMoveRuleProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.saveLater(settings));
+        settings.soundEnabledProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.saveLater(settings));
+        settings.sfxVolumeProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.saveLater(settings));
+        settings.menuMusicVolumeProperty().addListener((obs, oldValue, newValue) -> settingsPersistenceService.saveLater(settings));
+    }
+
+    private static PositionCache openPositionCache() {
+        try {
+            return PositionCache.open(PositionCache.defaultPath());
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
     }
 
     private static Path resolveSaveDirectory(AppSettings settings) {
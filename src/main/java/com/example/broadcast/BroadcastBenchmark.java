@@ -0,0 +1,230 @@
+package com.example.broadcast;
+
+import com.example.audio.SilentAudioService;
+import com.example.config.AppSettings;
+import com.example.game.ChessGameService;
+import com.example.game.GameState;
+import com.example.game.LegalMoveTable;
+import com.example.game.MoveOutcome;
+import com.github.bhlangonijr.chesslib.Side;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public final class BroadcastBenchmark {
+
+    private static final String USAGE = """
+        Usage: BroadcastBenchmark [--spectators N] [--seconds N] [--rate MOVES_PER_SECOND] [--capacity N]
+                                  [--slow-fraction F] [--slow-millis N] [--drop-after N]
+        Plays random moves on one game and publishes every move and clock update once to a ring buffer
+        read by N in-process spectators on virtual threads. A fraction of spectators sleeps per frame to
+        force resyncs and drops. Reports publish cost, delivered frames/s, delivery latency and resyncs.
+        """;
+
+    private static final int LATENCY_BUCKETS = 64;
+
+    private BroadcastBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int spectatorCount = 10_000;
+        int seconds = 20;
+        int rate = 200;
+        int capacity = GameBroadcaster.DEFAULT_CAPACITY;
+        double slowFraction = 0.01;
+        long slowMillis = 20L;
+        int dropAfter = GameBroadcaster.DEFAULT_DROP_AFTER_RESYNCS;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--spectators" -> spectatorCount = Integer.parseInt(requireValue(args, ++i));
+                case "--seconds" -> seconds = Integer.parseInt(requireValue(args, ++i));
+                case "--rate" -> rate = Integer.parseInt(requireValue(args, ++i));
+                case "--capacity" -> capacity = Integer.parseInt(requireValue(args, ++i));
+                case "--slow-fraction" -> slowFraction = Double.parseDouble(requireValue(args, ++i));
+                case "--slow-millis" -> slowMillis = Long.parseLong(requireValue(args, ++i));
+                case "--drop-after" -> dropAfter = Integer.parseInt(requireValue(args, ++i));
+                case "--help", "-h" -> {
+                    System.out.print(USAGE);
+                    return;
+                }
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i] + "\n" + USAGE);
+            }
+        }
+
+        ChessGameService game = new ChessGameService(AppSettings.defaultSettings(), new SilentAudioService());
+        GameBroadcaster broadcaster = new GameBroadcaster(game.currentFen(), capacity, dropAfter);
+        long[] publishedAt = new long[broadcaster.capacity()];
+        int mask = publishedAt.length - 1;
+
+        List<Spectator> spectators = new ArrayList<>(spectatorCount);
+        List<Thread> threads = new ArrayList<>(spectatorCount);
+        int slowEvery = slowFraction <= 0.0 ? Integer.MAX_VALUE : (int) Math.max(1L, Math.round(1.0 / slowFraction));
+        int slowCount = 0;
+        for (int i = 0; i < spectatorCount; i++) {
+            boolean slow = i % slowEvery == 0;
+            if (slow) {
+                slowCount++;
+            }
+            Spectator spectator = new Spectator(broadcaster.subscribe(), publishedAt, mask, slow ? slowMillis : 0L);
+            spectators.add(spectator);
+            threads.add(Thread.ofVirtual().name("spectator-" + i).start(spectator));
+        }
+
+        SplittableRandom random = new SplittableRandom(7L);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rate);
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + TimeUnit.SECONDS.toNanos(seconds);
+        long nextAt = startedAt;
+        long publishes = 0L;
+        long publishNanos = 0L;
+        long maxPublishNanos = 0L;
+        long whiteMillis = 300_000L;
+        long blackMillis = 300_000L;
+        while (System.nanoTime() < deadline) {
+            GameState state = game.snapshot();
+            if (state.gameOver()) {
+                game.resetGame();
+                state = game.snapshot();
+                long begin = System.nanoTime();
+                publishedAt[(int) ((broadcaster.cursor() + 1) & mask)] = begin;
+                broadcaster.publishSync(state.fen());
+                long cost = System.nanoTime() - begin;
+                publishes++;
+                publishNanos += cost;
+                maxPublishNanos = Math.max(maxPublishNanos, cost);
+            }
+            LegalMoveTable legalMoves = state.legalMoves();
+            MoveOutcome outcome = game.playMove(legalMoves.move(random.nextInt(legalMoves.size())), true);
+            if (state.turn() == Side.WHITE) {
+                whiteMillis -= random.nextInt(1_000);
+            } else {
+                blackMillis -= random.nextInt(1_000);
+            }
+            GameState after = game.snapshot();
+
+            long begin = System.nanoTime();
+            publishedAt[(int) ((broadcaster.cursor() + 1) & mask)] = begin;
+            broadcaster.publishMove(outcome, after);
+            publishedAt[(int) ((broadcaster.cursor() + 1) & mask)] = System.nanoTime();
+            broadcaster.publishClock(whiteMillis, blackMillis, after.turn());
+            long cost = System.nanoTime() - begin;
+            publishes += 2;
+            publishNanos += cost;
+            maxPublishNanos = Math.max(maxPublishNanos, cost);
+
+            nextAt += intervalNanos;
+            long pause = nextAt - System.nanoTime();
+            if (pause > 0L) {
+                LockSupport.parkNanos(pause);
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        broadcaster.close();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        long delivered = 0L;
+        long resyncs = 0L;
+        long dropped = 0L;
+        long[] histogram = new long[LATENCY_BUCKETS];
+        for (Spectator spectator : spectators) {
+            delivered += spectator.subscription.delivered();
+            resyncs += spectator.subscription.resyncs();
+            if (spectator.subscription.isDropped()) {
+                dropped++;
+            }
+            for (int b = 0; b < LATENCY_BUCKETS; b++) {
+                histogram[b] += spectator.latencies[b];
+            }
+        }
+
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("Spectators: %,d (%d slow), ring capacity %,d%n",
+            spectatorCount, slowCount, broadcaster.capacity());
+        System.out.printf("  published frames: %,d (%.1f/s)%n", publishes, publishes / elapsedSeconds);
+        System.out.printf("  publish cost on the game thread: avg %.2f us, max %.2f us%n",
+            publishes == 0 ? 0.0 : publishNanos / 1_000.0 / publishes, maxPublishNanos / 1_000.0);
+        System.out.printf("  delivered frames: %,d (%.1f/s)%n", delivered, delivered / elapsedSeconds);
+        System.out.printf("  delivery latency p50 <= %.3f ms, p99 <= %.3f ms, p99.9 <= %.3f ms%n",
+            bucketPercentile(histogram, 0.50), bucketPercentile(histogram, 0.99), bucketPercentile(histogram, 0.999));
+        System.out.printf("  resyncs: %,d, dropped spectators: %,d%n", resyncs, dropped);
+    }
+
+    private static double bucketPercentile(long[] histogram, double fraction) {
+        long total = 0L;
+        for (long count : histogram) {
+            total += count;
+        }
+        if (total == 0L) {
+            return 0.0;
+        }
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0L;
+        for (int b = 0; b < histogram.length; b++) {
+            seen += histogram[b];
+            if (seen >= rank) {
+                return (1L << b) / 1_000_000.0;
+            }
+        }
+        return Long.MAX_VALUE / 1_000_000.0;
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1] + "\n" + USAGE);
+        }
+        return args[index];
+    }
+
+    private static final class Spectator implements Runnable, FrameSink {
+
+        private final GameBroadcaster.Subscription subscription;
+        private final long[] publishedAt;
+        private final int mask;
+        private final long slowMillis;
+        private final long[] latencies = new long[LATENCY_BUCKETS];
+
+        Spectator(GameBroadcaster.Subscription subscription, long[] publishedAt, int mask, long slowMillis) {
+            this.subscription = subscription;
+            this.publishedAt = publishedAt;
+            this.mask = mask;
+            this.slowMillis = slowMillis;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!subscription.isDropped()) {
+                    if (!subscription.await(1, TimeUnit.SECONDS)) {
+                        if (subscription.isClosed()) {
+                            return;
+                        }
+                        continue;
+                    }
+                    subscription.poll(this, 64);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void accept(long sequence, byte[] frame) {
+            if (frame[0] != 'S') {
+                long latency = Math.max(1L, System.nanoTime() - publishedAt[(int) (sequence & mask)]);
+                latencies[Math.min(LATENCY_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(latency))]++;
+            }
+            if (slowMillis > 0L) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(slowMillis));
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.broadcast;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface FrameSink {
+
+    void accept(long sequence, byte[] frame) throws IOException;
+}
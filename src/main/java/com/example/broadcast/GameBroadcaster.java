@@ -0,0 +1,232 @@
+package com.example.broadcast;
+
+import com.example.game.GameState;
+import com.example.game.MoveOutcome;
+import com.example.game.Moves;
+import com.github.bhlangonijr.chesslib.Side;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class GameBroadcaster implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1_024;
+    public static final int DEFAULT_DROP_AFTER_RESYNCS = 3;
+
+    private static final ConcurrentLinkedQueue<GameBroadcaster> WAKEUPS = new ConcurrentLinkedQueue<>();
+    private static final Thread NOTIFIER = Thread.ofPlatform().daemon().name("broadcast-notifier").start(GameBroadcaster::notifyLoop);
+
+    private final byte[][] frames;
+    private final int mask;
+    private final int dropAfterResyncs;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private volatile long cursor = -1L;
+    private volatile Snapshot snapshot;
+    private volatile boolean closed;
+
+    public GameBroadcaster(String initialFen) {
+        this(initialFen, DEFAULT_CAPACITY, DEFAULT_DROP_AFTER_RESYNCS);
+    }
+
+    public GameBroadcaster(String initialFen, int capacity, int dropAfterResyncs) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2");
+        }
+        int size = Integer.highestOneBit(capacity);
+        this.frames = new byte[size][];
+        this.mask = size - 1;
+        this.dropAfterResyncs = dropAfterResyncs;
+        this.snapshot = new Snapshot(-1L, encode("SYNC seq=-1 fen=" + initialFen));
+    }
+
+    public int capacity() {
+        return frames.length;
+    }
+
+    public long cursor() {
+        return cursor;
+    }
+
+    public long publishMove(MoveOutcome outcome, GameState state) {
+        long sequence = publish(encode("MOVE seq=" + (cursor + 1)
+            + " ply=" + state.ply()
+            + " uci=" + Moves.toUci(outcome.move())
+            + " san=" + outcome.message()
+            + " result=" + state.result().name()));
+        snapshot = new Snapshot(sequence, encode("SYNC seq=" + sequence + " fen=" + state.fen()));
+        return sequence;
+    }
+
+    public long publishClock(long whiteMillis, long blackMillis, Side toMove) {
+        return publish(encode("CLOCK seq=" + (cursor + 1)
+            + " white=" + whiteMillis
+            + " black=" + blackMillis
+            + " toMove=" + toMove.name()));
+    }
+
+    public long publishSync(String fen) {
+        byte[] frame = encode("SYNC seq=" + (cursor + 1) + " fen=" + fen);
+        long sequence = publish(frame);
+        snapshot = new Snapshot(sequence, frame);
+        return sequence;
+    }
+
+    public long publish(byte[] frame) {
+        long sequence = cursor + 1;
+        frames[(int) (sequence & mask)] = frame;
+        cursor = sequence;
+        if (wakeupPending.compareAndSet(false, true)) {
+            WAKEUPS.add(this);
+            LockSupport.unpark(NOTIFIER);
+        }
+        return sequence;
+    }
+
+    public Subscription subscribe() {
+        return new Subscription();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        signalAll();
+    }
+
+    private static void notifyLoop() {
+        while (true) {
+            GameBroadcaster broadcaster;
+            while ((broadcaster = WAKEUPS.poll()) != null) {
+                if (broadcaster.wakeupPending.getAndSet(false)) {
+                    broadcaster.signalAll();
+                }
+            }
+            LockSupport.park(WAKEUPS);
+        }
+    }
+
+    private void signalAll() {
+        lock.lock();
+        try {
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte[] encode(String line) {
+        return (line + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Snapshot(long sequence, byte[] frame) {
+    }
+
+    public final class Subscription {
+
+        private long next = Long.MAX_VALUE;
+        private boolean synced;
+        private int consecutiveResyncs;
+        private long resyncs;
+        private long delivered;
+        private boolean dropped;
+
+        private Subscription() {
+        }
+
+        public int poll(FrameSink sink, int maxFrames) throws IOException {
+            if (dropped) {
+                return 0;
+            }
+            if (!synced) {
+                synced = true;
+                sync(sink);
+                return 1;
+            }
+            int count = 0;
+            while (count < maxFrames) {
+                long available = cursor;
+                if (next > available) {
+                    break;
+                }
+                if (available - next >= frames.length - 1) {
+                    resync(sink);
+                    return count + 1;
+                }
+                byte[] frame = frames[(int) (next & mask)];
+                if (cursor - next >= frames.length - 1) {
+                    resync(sink);
+                    return count + 1;
+                }
+                sink.accept(next, frame);
+                next++;
+                delivered++;
+                count++;
+            }
+            if (next > cursor) {
+                consecutiveResyncs = 0;
+            }
+            return count;
+        }
+
+        public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            long remaining = unit.toNanos(timeout);
+            if (!synced) {
+                return true;
+            }
+            if (next <= cursor || dropped || closed) {
+                return next <= cursor && !dropped;
+            }
+            lock.lock();
+            try {
+                while (next > cursor && !closed && remaining > 0L) {
+                    remaining = published.awaitNanos(remaining);
+                }
+            } finally {
+                lock.unlock();
+            }
+            return next <= cursor;
+        }
+
+        public boolean isDropped() {
+            return dropped;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        public long lag() {
+            return synced ? Math.max(0L, cursor + 1 - next) : 0L;
+        }
+
+        public long resyncs() {
+            return resyncs;
+        }
+
+        public long delivered() {
+            return delivered;
+        }
+
+        private void resync(FrameSink sink) throws IOException {
+            resyncs++;
+            if (dropAfterResyncs > 0 && ++consecutiveResyncs > dropAfterResyncs) {
+                dropped = true;
+                return;
+            }
+            sync(sink);
+        }
+
+        private void sync(FrameSink sink) throws IOException {
+            Snapshot current = snapshot;
+            next = Math.max(current.sequence() + 1, cursor - frames.length + 2);
+            sink.accept(current.sequence(), current.frame());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.config;
+
+public enum ClockMode {
+    PER_TURN,
+    FISCHER,
+    BRONSTEIN
+}
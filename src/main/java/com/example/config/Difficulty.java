@@ -1,22 +1,40 @@
 package com.example.config;
 
 public enum Difficulty {
-    EASY("Easy", 1),
-    MEDIUM("Medium", 2),
-    HARD("Hard", 4);
+    EASY("Easy", 2, 600, 90, 0.20),
+    MEDIUM("Medium", 4, 6_000, 25, 0.05),
+    HARD("Hard", 8, 60_000, 0, 0.0);
 
     private final String label;
     private final int searchDepth;
+    private final long nodeBudget;
+    private final int evalNoise;
+    private final double blunderRate;
 
-    Difficulty(String label, int searchDepth) {
+    Difficulty(String label, int searchDepth, long nodeBudget, int evalNoise, double blunderRate) {
         this.label = label;
         this.searchDepth = searchDepth;
+        this.nodeBudget = nodeBudget;
+        this.evalNoise = evalNoise;
+        this.blunderRate = blunderRate;
     }
 
     public int searchDepth() {
         return searchDepth;
     }
 
+    public long nodeBudget() {
+        return nodeBudget;
+    }
+
+    public int evalNoise() {
+        return evalNoise;
+    }
+
+    public double blunderRate() {
+        return blunderRate;
+    }
+
     @Override
     public String toString() {
         return label;
@@ -1,26 +1,47 @@
 package com.example.config;
 
 public enum TimeControl {
-    NONE("No Limit", 0),
-    SEC_30("30 sec", 30),
-    SEC_60("60 sec", 60),
-    SEC_120("120 sec", 120),
-    SEC_300("300 sec", 300);
+    NONE("No Limit", ClockMode.PER_TURN, 0, 0),
+    SEC_30("30 sec", ClockMode.PER_TURN, 30, 0),
+    SEC_60("60 sec", ClockMode.PER_TURN, 60, 0),
+    SEC_120("120 sec", ClockMode.PER_TURN, 120, 0),
+    SEC_300("300 sec", ClockMode.PER_TURN, 300, 0),
+    BLITZ_3_2("3 min + 2 sec", ClockMode.FISCHER, 180, 2),
+    BLITZ_5_0("5 min", ClockMode.FISCHER, 300, 0),
+    RAPID_10_5("10 min + 5 sec", ClockMode.FISCHER, 600, 5),
+    RAPID_15_10_DELAY("15 min + 10 sec delay", ClockMode.BRONSTEIN, 900, 10),
+    CLASSICAL_30_0("30 min", ClockMode.FISCHER, 1800, 0);
 
     private final String label;
-    private final int secondsPerTurn;
+    private final ClockMode mode;
+    private final int baseSeconds;
+    private final int incrementSeconds;
 
-    TimeControl(String label, int secondsPerTurn) {
+    TimeControl(String label, ClockMode mode, int baseSeconds, int incrementSeconds) {
         this.label = label;
-        this.secondsPerTurn = secondsPerTurn;
+        this.mode = mode;
+        this.baseSeconds = baseSeconds;
+        this.incrementSeconds = incrementSeconds;
     }
 
-    public int secondsPerTurn() {
-        return secondsPerTurn;
+    public ClockMode mode() {
+        return mode;
+    }
+
+    public long baseMillis() {
+        return baseSeconds * 1000L;
+    }
+
+    public long incrementMillis() {
+        return incrementSeconds * 1000L;
+    }
+
+    public boolean isPerTurn() {
+        return mode == ClockMode.PER_TURN;
     }
 
     public boolean isEnabled() {
-        return secondsPerTurn > 0;
+        return baseSeconds > 0;
     }
 
     @Override
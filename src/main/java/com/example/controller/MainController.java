@@ -1,6 +1,7 @@
 package com.example.controller;
 
 import com.example.ai.ChessAiService;
+import com.example.ai.SearchLimits;
 import com.example.audio.AudioService;
 import com.example.audio.SoundEffect;
 import com.example.config.AppSettings;
@@ -9,24 +10,37 @@ import com.example.config.GameMode;
 import com.example.config.PieceStyle;
 import com.example.config.Theme;
 import com.example.config.TimeControl;
+import com.example.explorer.ExplorerStats;
+import com.example.explorer.PositionIndexer;
+import com.example.game.BoardSnapshot;
 import com.example.game.ChessGameService;
+import com.example.game.GameClock;
+import com.example.game.GameState;
 import com.example.game.MoveOutcome;
+import com.example.game.Moves;
+import com.example.game.Squares;
+import com.example.persistence.BulkProgress;
+import com.example.persistence.BulkResult;
 import com.example.persistence.GamePersistenceService;
+import com.example.persistence.GameSaveHeader;
 import com.example.persistence.GameSaveRecord;
+import com.example.persistence.SaveCatalogChange;
+import com.example.persistence.SaveDelta;
+import com.example.persistence.SaveQuery;
+import com.example.persistence.SaveSort;
 import com.example.ui.ChessBoardView;
+import com.example.ui.SavePageList;
 import com.example.ui.ThemeService;
 import com.github.bhlangonijr.chesslib.Board;
 import com.github.bhlangonijr.chesslib.Piece;
 import com.github.bhlangonijr.chesslib.Side;
 import javafx.animation.FadeTransition;
 import javafx.animation.Interpolator;
-import javafx.animation.KeyFrame;
 import javafx.animation.ParallelTransition;
 import javafx.animation.PauseTransition;
 import javafx.animation.ScaleTransition;
 import javafx.animation.SequentialTransition;
 import javafx.animation.TranslateTransition;
-import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
@@ -58,10 +72,9 @@ import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.HashSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Collections;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
@@ -69,6 +82,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 public class MainController {
 
@@ -82,6 +96,11 @@ public class MainController {
     private static final DateTimeFormatter SAVE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
         .withZone(ZoneId.systemDefault());
     private static final long MIN_AI_MOVE_DELAY_MILLIS = 2_000L;
+    private static final int MAX_PREMOVES = 4;
+    private static final int EXPLORER_MOVES = 8;
+    private static final int EXPLORER_GAMES = 5;
+    private static final long TENTHS_THRESHOLD_MILLIS = 10_000L;
+    private static final int CLOCK_MOVES_TO_GO = 30;
 
     private final AppSettings settings;
     private final ChessGameService gameService;
@@ -89,8 +108,10 @@ public class MainController {
     private final AudioService audioService;
     private final ThemeService themeService;
     private final GamePersistenceService persistenceService;
+    private final PositionIndexer positionIndexer;
     private final ExecutorService aiExecutor;
     private final ExecutorService ioExecutor;
+    private final ExecutorService explorerExecutor;
     private final AppSettings defaults = AppSettings.defaultSettings();
 
     @FXML
@@ -131,7 +152,11 @@ public class MainController {
     private Label settingsInfoLabel;
 
     @FXML
-    private ListView<GameSaveRecord> loadGamesListView;
+    private TextField loadSearchField;
+    @FXML
+    private ComboBox<SaveSort> loadSortCombo;
+    @FXML
+    private ListView<GameSaveHeader> loadGamesListView;
     @FXML
     private Label loadStatusLabel;
 
@@ -152,6 +177,10 @@ public class MainController {
     @FXML
     private ListView<String> movesListView;
     @FXML
+    private Label explorerSummaryLabel;
+    @FXML
+    private ListView<String> explorerListView;
+    @FXML
     private Label capturedByWhiteLabel;
     @FXML
     private Label capturedByBlackLabel;
@@ -169,8 +198,9 @@ public class MainController {
 
     private ChessBoardView boardView;
 
-    private String selectedSquare;
-    private Set<String> legalTargets = new HashSet<>();
+    private int selectedSquare = Squares.NONE;
+    private long legalTargets;
+    private final ArrayDeque<Integer> premoves = new ArrayDeque<>();
     private boolean aiThinking;
     private boolean paused;
     private boolean animatingMove;
@@ -182,8 +212,12 @@ public class MainController {
     private final AtomicLong saveRefreshToken = new AtomicLong();
     private final AtomicBoolean saveWriteInProgress = new AtomicBoolean(false);
     private final AtomicReference<GameSaveRecord> pendingSaveSnapshot = new AtomicReference<>();
-    private boolean savesDirty = true;
-    private Map<String, Piece> boardSnapshot = Collections.emptyMap();
+    private Path catalogDir;
+    private long explorerKey;
+    private final AtomicLong explorerToken = new AtomicLong();
+    private SavePageList savePages;
+    private PauseTransition loadSearchDelay;
+    private BoardSnapshot boardSnapshot = BoardSnapshot.empty();
     private final AtomicLong aiRequestToken = new AtomicLong();
     private PauseTransition aiMoveDelayTransition;
 
@@ -191,9 +225,10 @@ public class MainController {
 
     private Runnable confirmAction;
 
-    private Timeline turnClock;
-    private int whiteSecondsRemaining;
-    private int blackSecondsRemaining;
+    private final GameClock gameClock = new GameClock(side -> Platform.runLater(() -> onFlagFall(side)));
+    private PauseTransition clockTick;
+    private long renderedWhiteClock = -1L;
+    private long renderedBlackClock = -1L;
     private boolean timeOutEnded;
 
     public MainController(
@@ -203,8 +238,10 @@ public class MainController {
         AudioService audioService,
         ThemeService themeService,
         GamePersistenceService persistenceService,
+        PositionIndexer positionIndexer,
         ExecutorService aiExecutor,
-        ExecutorService ioExecutor
+        ExecutorService ioExecutor,
+        ExecutorService explorerExecutor
     ) {
         this.settings = settings;
         this.gameService = gameService;
@@ -212,8 +249,10 @@ public class MainController {
         this.audioService = audioService;
         this.themeService = themeService;
         this.persistenceService = persistenceService;
+        this.positionIndexer = positionIndexer;
         this.aiExecutor = aiExecutor;
         this.ioExecutor = ioExecutor;
+        this.explorerExecutor = explorerExecutor;
     }
 
     @FXML
@@ -223,6 +262,7 @@ public class MainController {
 
         setupSettingsControls();
         setupLoadList();
+        persistenceService.addCatalogListener(change -> Platform.runLater(() -> applySaveDeltas(change)));
 
         gameService.resetGame();
         currentGameSave = null;
@@ -261,6 +301,13 @@ public class MainController {
             return;
         }
 
+        if (event.isControlDown() && currentPage == Page.GAME
+            && (event.getCode() == KeyCode.Z || event.getCode() == KeyCode.Y)) {
+            navigateHistory(event.getCode() == KeyCode.Z);
+            event.consume();
+            return;
+        }
+
         if (event.getCode() == KeyCode.DELETE && currentPage == Page.LOAD) {
             onDeleteSelectedSave();
             event.consume();
@@ -320,7 +367,7 @@ public class MainController {
 
     @FXML
     private void onOpenLoadGame() {
-        refreshSaves(true);
+        refreshSaves(false);
         showPage(Page.LOAD, true);
     }
 
@@ -422,14 +469,49 @@ public class MainController {
 
     @FXML
     private void onLoadSelectedGame() {
-        GameSaveRecord selected = loadGamesListView.getSelectionModel().getSelectedItem();
-        if (selected == null) {
+        int selectedIndex = loadGamesListView.getSelectionModel().getSelectedIndex();
+        if (selectedIndex < 0) {
             showToast("Select a save first", "toast-error");
             return;
         }
 
+        Supplier<List<GameSaveHeader>> resolver = savePages.resolver(List.of(selectedIndex));
+        loadStatusLabel.setText("Opening save...");
+        ioExecutor.execute(() -> {
+            GameSaveRecord record;
+            try {
+                List<GameSaveHeader> resolved = resolver.get();
+                record = resolved.isEmpty() ? null : persistenceService.load(resolved.getFirst().file());
+            } catch (IllegalStateException e) {
+                Platform.runLater(() -> {
+                    updateLoadStatus();
+                    showToast(e.getMessage(), "toast-error");
+                });
+                return;
+            }
+            Platform.runLater(() -> {
+                if (record == null) {
+                    loadStatusLabel.setText("Unable to open save.");
+                    showToast("Save file is damaged", "toast-error");
+                    return;
+                }
+                openSavedGame(record);
+            });
+        });
+    }
+
+    private void openSavedGame(GameSaveRecord selected) {
         cancelPendingAiMove();
-        gameService.restore(selected.fen(), selected.moveHistory());
+        if (selected.hasMoveList()) {
+            try {
+                gameService.load(selected.startFen(), selected.moveHistory(), selected.moves());
+            } catch (IllegalArgumentException e) {
+                showToast("Save file is damaged", "toast-error");
+                return;
+            }
+        } else {
+            gameService.restore(selected.fen(), selected.moveHistory());
+        }
         reloadBoardSnapshot();
         currentGameSave = selected;
         currentGameName = selected.name();
@@ -438,7 +520,7 @@ public class MainController {
         paused = false;
         timeOutEnded = false;
         gameOverDialogShown = false;
-        resetTimersForCurrentTurn();
+        resetTimersForNewGame();
 
         showPage(Page.GAME, false);
         refreshBoard();
@@ -450,25 +532,51 @@ public class MainController {
 
     @FXML
     private void onDeleteSelectedSave() {
-        List<GameSaveRecord> selectedItems = List.copyOf(loadGamesListView.getSelectionModel().getSelectedItems());
-        if (selectedItems.isEmpty()) {
+        List<Integer> selectedIndices = List.copyOf(loadGamesListView.getSelectionModel().getSelectedIndices());
+        if (selectedIndices.isEmpty()) {
             showToast("Select at least one save to delete", "toast-error");
             return;
         }
 
-        String msg = selectedItems.size() == 1
+        String msg = selectedIndices.size() == 1
             ? "Delete selected save?"
-            : "Delete " + selectedItems.size() + " selected saves?";
+            : "Delete " + selectedIndices.size() + " selected saves?";
         showConfirm("Delete Save", msg, () -> {
             loadStatusLabel.setText("Deleting...");
             String activeSaveId = currentGameSaveId;
+            Supplier<List<GameSaveHeader>> resolver = savePages.resolver(selectedIndices);
             ioExecutor.execute(() -> {
+                List<GameSaveHeader> selectedItems;
+                try {
+                    selectedItems = resolver.get();
+                } catch (IllegalStateException e) {
+                    Platform.runLater(() -> {
+                        updateLoadStatus();
+                        showToast(e.getMessage(), "toast-error");
+                    });
+                    return;
+                }
+                AtomicReference<BulkProgress> latest = new AtomicReference<>();
+                List<BulkResult<GameSaveHeader>> results = persistenceService.deleteAll(
+                    selectedItems,
+                    GamePersistenceService.DEFAULT_BULK_CONCURRENCY,
+                    progress -> {
+                        if (latest.getAndSet(progress) == null) {
+                            Platform.runLater(() -> {
+                                BulkProgress current = latest.getAndSet(null);
+                                if (current != null) {
+                                    loadStatusLabel.setText("Deleting " + current.done() + "/" + current.total() + "...");
+                                }
+                            });
+                        }
+                    }
+                );
                 int deletedCount = 0;
                 boolean deletedActiveGame = false;
-                for (GameSaveRecord item : selectedItems) {
-                    if (persistenceService.delete(item)) {
+                for (BulkResult<GameSaveHeader> result : results) {
+                    if (result.succeeded()) {
                         deletedCount++;
-                        if (activeSaveId != null && Objects.equals(activeSaveId, item.id())) {
+                        if (activeSaveId != null && Objects.equals(activeSaveId, result.value().id())) {
                             deletedActiveGame = true;
                         }
                     }
@@ -482,13 +590,12 @@ public class MainController {
                         currentGameSaveId = null;
                     }
 
+                    updateLoadStatus();
                     boolean ok = finalDeletedCount == selectedItems.size();
                     String text = ok
                         ? "Deleted " + finalDeletedCount + " save(s)"
                         : "Deleted " + finalDeletedCount + "/" + selectedItems.size() + " save(s)";
                     showToast(text, ok ? "toast-success" : "toast-error");
-                    savesDirty = true;
-                    refreshSaves(true);
                 });
             });
         });
@@ -557,6 +664,24 @@ public class MainController {
     }
 
     private void setupLoadList() {
+        savePages = new SavePageList(persistenceService::page, ioExecutor);
+        savePages.setOnPageLoaded(pages -> {
+            loadGamesListView.refresh();
+            updateLoadStatus();
+        });
+        savePages.setOnError(error -> {
+            loadStatusLabel.setText("Unable to load save files.");
+            showToast("Unable to load save files.", "toast-error");
+        });
+        loadGamesListView.setItems(savePages);
+
+        loadSortCombo.getItems().setAll(SaveSort.values());
+        loadSortCombo.setValue(SaveSort.NEWEST);
+        loadSortCombo.valueProperty().addListener((obs, oldValue, newValue) -> applySaveQuery());
+        loadSearchDelay = new PauseTransition(Duration.millis(200));
+        loadSearchDelay.setOnFinished(event -> applySaveQuery());
+        loadSearchField.textProperty().addListener((obs, oldValue, newValue) -> loadSearchDelay.playFromStart());
+
         loadGamesListView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         loadGamesListView.setCellFactory(list -> new ListCell<>() {
             {
@@ -594,10 +719,12 @@ public class MainController {
             }
 
             @Override
-            protected void updateItem(GameSaveRecord item, boolean empty) {
+            protected void updateItem(GameSaveHeader item, boolean empty) {
                 super.updateItem(item, empty);
-                if (empty || item == null) {
+                if (empty) {
                     setText(null);
+                } else if (item == null) {
+                    setText("Loading...");
                 } else {
                     setText(item.name() + " | " + SAVE_TIME_FORMAT.format(item.savedAt()) + " | " + item.gameMode());
                 }
@@ -605,22 +732,37 @@ public class MainController {
         });
     }
 
+    private void applySaveQuery() {
+        SaveSort sort = loadSortCombo.getValue() == null ? SaveSort.NEWEST : loadSortCombo.getValue();
+        String prefix = loadSearchField.getText();
+        SaveQuery query = savePages.query();
+        if (sort == query.sort() && query.namePrefix().equals(prefix == null ? "" : prefix.strip())) {
+            return;
+        }
+        saveSelectionAnchor = -1;
+        loadStatusLabel.setText("Loading saves...");
+        savePages.setQuery(sort, prefix);
+    }
+
     private void refreshSaves(boolean force) {
-        if (!force && !savesDirty) {
+        Path dir = persistenceService.getSaveDir();
+        if (!force && dir.equals(catalogDir) && savePages.isLoaded()) {
             return;
         }
-        long token = saveRefreshToken.incrementAndGet();
+        catalogDir = dir;
         loadStatusLabel.setText("Loading saves...");
+        if (!force) {
+            savePages.reload();
+            return;
+        }
+        long token = saveRefreshToken.incrementAndGet();
         ioExecutor.execute(() -> {
-            List<GameSaveRecord> saves;
             String error = null;
             try {
-                saves = persistenceService.list();
+                persistenceService.listHeaders();
             } catch (RuntimeException e) {
-                saves = List.of();
                 error = "Unable to load save files.";
             }
-            final List<GameSaveRecord> finalSaves = saves;
             final String finalError = error;
             Platform.runLater(() -> {
                 if (token != saveRefreshToken.get()) {
@@ -631,49 +773,73 @@ public class MainController {
                     showToast(finalError, "toast-error");
                     return;
                 }
-
-                loadGamesListView.getItems().setAll(finalSaves);
-                savesDirty = false;
-                if (loadGamesListView.getItems().isEmpty()) {
-                    saveSelectionAnchor = -1;
-                } else if (saveSelectionAnchor >= loadGamesListView.getItems().size()) {
-                    saveSelectionAnchor = loadGamesListView.getItems().size() - 1;
-                }
-                loadStatusLabel.setText(loadGamesListView.getItems().isEmpty()
-                    ? "No saved games available."
-                    : "Enter=Load, Shift+Click=Range, Ctrl+A=Select all, Delete=Delete selected.");
+                savePages.reload();
             });
         });
     }
 
-    private void onSquareClicked(String square) {
-        if (!gamePane.isVisible() || paused || aiThinking || animatingMove || gameService.isGameOver() || timeOutEnded) {
+    private void applySaveDeltas(SaveCatalogChange change) {
+        if (catalogDir == null) {
             return;
         }
-        if (gameService.isAiTurn()) {
-            showToast("AI is playing", "toast-info");
+        boolean affected = false;
+        for (SaveDelta delta : change.deltas()) {
+            Path file = delta.header().file();
+            affected |= file != null && catalogDir.equals(file.getParent());
+        }
+        if (!affected) {
             return;
         }
+        if (currentPage == Page.LOAD) {
+            savePages.apply(change);
+        } else {
+            catalogDir = null;
+        }
+    }
+
+    private void updateLoadStatus() {
+        if (loadGamesListView.getItems().isEmpty()) {
+            saveSelectionAnchor = -1;
+        } else if (saveSelectionAnchor >= loadGamesListView.getItems().size()) {
+            saveSelectionAnchor = loadGamesListView.getItems().size() - 1;
+        }
+        loadStatusLabel.setText(loadGamesListView.getItems().isEmpty()
+            ? "No saved games available."
+            : "Enter=Load, Shift+Click=Range, Ctrl+A=Select all, Delete=Delete selected.");
+    }
 
-        if (selectedSquare == null) {
-            Piece clickedPiece = gameService.pieceAt(square);
-            if (clickedPiece == Piece.NONE || !belongsToTurn(clickedPiece, gameService.getTurn())) {
+    private void onSquareClicked(int square) {
+        GameState state = gameService.snapshot();
+        if (!gamePane.isVisible() || paused || state.gameOver() || timeOutEnded) {
+            return;
+        }
+        if (gameService.isAiTurn(state)) {
+            onPremoveSquareClicked(square, state);
+            return;
+        }
+        if (aiThinking || animatingMove) {
+            return;
+        }
+
+        if (selectedSquare == Squares.NONE) {
+            Piece clickedPiece = state.pieceAt(square);
+            if (clickedPiece == Piece.NONE || !belongsToTurn(clickedPiece, state.turn())) {
                 return;
             }
-            List<String> targets = gameService.legalTargets(square);
-            if (settings.touchMoveRuleProperty().get() && targets.isEmpty()) {
+            long targets = state.legalTargets(square);
+            if (settings.touchMoveRuleProperty().get() && targets == 0L) {
                 showToast("Selected piece has no legal moves", "toast-info");
                 return;
             }
             selectedSquare = square;
-            legalTargets = new HashSet<>(targets);
+            legalTargets = targets;
             audioService.play(SoundEffect.PREMOVE);
             refreshBoard();
             return;
         }
 
-        if (selectedSquare.equals(square)) {
-            if (settings.touchMoveRuleProperty().get() && !legalTargets.isEmpty()) {
+        if (selectedSquare == square) {
+            if (settings.touchMoveRuleProperty().get() && legalTargets != 0L) {
                 audioService.play(SoundEffect.ILLEGAL);
                 showToast("Touch-move is enabled. Complete this move.", "toast-info");
                 return;
@@ -683,14 +849,19 @@ public class MainController {
             return;
         }
 
+        if (flagFell()) {
+            resetSelection();
+            refreshBoard();
+            return;
+        }
         MoveOutcome outcome = gameService.playHumanMove(selectedSquare, square);
         if (!outcome.valid()) {
             boolean touchMoveEnabled = settings.touchMoveRuleProperty().get();
             if (!touchMoveEnabled) {
-                Piece clickedPiece = gameService.pieceAt(square);
-                if (clickedPiece != Piece.NONE && belongsToTurn(clickedPiece, gameService.getTurn())) {
+                Piece clickedPiece = state.pieceAt(square);
+                if (clickedPiece != Piece.NONE && belongsToTurn(clickedPiece, state.turn())) {
                     selectedSquare = square;
-                    legalTargets = new HashSet<>(gameService.legalTargets(square));
+                    legalTargets = state.legalTargets(square);
                     refreshBoard();
                     return;
                 }
@@ -700,7 +871,7 @@ public class MainController {
                 return;
             }
             audioService.play(SoundEffect.ILLEGAL);
-            if (touchMoveEnabled && !legalTargets.isEmpty()) {
+            if (touchMoveEnabled && legalTargets != 0L) {
                 showToast("Touch-move: choose a legal target square.", "toast-info");
             } else {
                 showToast(outcome.message(), "toast-error");
@@ -708,10 +879,17 @@ public class MainController {
             return;
         }
 
+        if (!switchClockAfterMove()) {
+            // The flag fell while the move was being made; it does not count.
+            gameService.takeBack();
+            resetSelection();
+            reloadBoardSnapshot();
+            refreshBoard();
+            return;
+        }
         resetSelection();
         playMoveAnimation(outcome, () -> {
             reloadBoardSnapshot();
-            resetTimersForCurrentTurn();
             refreshBoard();
             refreshMeta();
             autoSaveCurrentGame();
@@ -719,23 +897,136 @@ public class MainController {
         });
     }
 
+    private void onPremoveSquareClicked(int square, GameState state) {
+        Side humanSide = state.turn().flip();
+        if (selectedSquare == Squares.NONE) {
+            Piece clickedPiece = state.pieceAt(square);
+            boolean ownPiece = clickedPiece != Piece.NONE && belongsToTurn(clickedPiece, humanSide);
+            if (ownPiece || (premoveDestinations() & (1L << square)) != 0L) {
+                selectedSquare = square;
+                legalTargets = 0L;
+                refreshBoard();
+            } else if (!premoves.isEmpty()) {
+                clearPremoves();
+                refreshBoard();
+            }
+            return;
+        }
+
+        if (selectedSquare == square) {
+            resetSelection();
+            refreshBoard();
+            return;
+        }
+        if (premoves.size() >= MAX_PREMOVES) {
+            showToast("Premove queue is full", "toast-info");
+            return;
+        }
+        premoves.addLast(Moves.pack(selectedSquare, square, Piece.NONE));
+        audioService.play(SoundEffect.PREMOVE);
+        resetSelection();
+        refreshBoard();
+    }
+
+    private long premoveDestinations() {
+        long mask = 0L;
+        for (int move : premoves) {
+            mask |= 1L << Moves.to(move);
+        }
+        return mask;
+    }
+
+    private long premoveSquares() {
+        long mask = premoveDestinations();
+        for (int move : premoves) {
+            mask |= 1L << Moves.from(move);
+        }
+        return mask;
+    }
+
+    private void clearPremoves() {
+        premoves.clear();
+    }
+
+    private MoveOutcome applyQueuedPremove() {
+        if (gameService.isGameOver()) {
+            clearPremoves();
+            return null;
+        }
+        Integer move = premoves.pollFirst();
+        if (move == null) {
+            return null;
+        }
+        MoveOutcome outcome = gameService.playMove(move, true);
+        if (!outcome.valid()) {
+            clearPremoves();
+            audioService.play(SoundEffect.ILLEGAL);
+            return null;
+        }
+        return outcome;
+    }
+
+    private void navigateHistory(boolean back) {
+        if (paused || animatingMove || timeOutEnded) {
+            return;
+        }
+        cancelPendingAiMove();
+        boolean moved = back ? gameService.takeBack() : gameService.redo();
+        if (!moved) {
+            showToast(back ? "Nothing to take back" : "Nothing to redo", "toast-info");
+            return;
+        }
+        GameState state = gameService.snapshot();
+        if (gameService.isAiTurn(state) && (back ? state.canTakeBack() : state.canRedo())) {
+            if (back) {
+                gameService.takeBack();
+            } else {
+                gameService.redo();
+            }
+        }
+
+        if (!gameService.snapshot().gameOver()) {
+            gameOverDialogShown = false;
+        }
+        resetSelection();
+        reloadBoardSnapshot();
+        resetTimersForCurrentTurn();
+        refreshBoard();
+        refreshMeta();
+        autoSaveCurrentGame();
+        requestAiIfNeeded();
+    }
+
     private void requestAiIfNeeded() {
-        if (aiThinking || !gameService.isAiTurn() || gameService.isGameOver() || timeOutEnded || currentPage != Page.GAME) {
+        GameState state = gameService.snapshot();
+        if (aiThinking || !gameService.isAiTurn(state) || state.gameOver() || timeOutEnded || currentPage != Page.GAME) {
             return;
         }
 
         long requestToken = aiRequestToken.incrementAndGet();
         Board boardSnapshot = gameService.copyBoard();
-        int searchDepth = settings.difficultyProperty().get().searchDepth();
+        SearchLimits limits = SearchLimits.of(settings.difficultyProperty().get());
+        TimeControl timeControl = settings.timeControlProperty().get();
+        if (timeControl.isEnabled()) {
+            limits = limits.withClock(
+                gameClock.remainingMillis(state.turn()),
+                timeControl.incrementMillis(),
+                timeControl.isPerTurn() ? 1 : CLOCK_MOVES_TO_GO
+            );
+        }
+        long minimumDelayMillis = timeControl.isEnabled()
+            ? Math.min(MIN_AI_MOVE_DELAY_MILLIS, limits.timeLimitMillis())
+            : MIN_AI_MOVE_DELAY_MILLIS;
         setAiThinkingState(true);
         showToast("AI is thinking...", "toast-info");
 
+        SearchLimits searchLimits = limits;
         aiExecutor.execute(() -> {
             long startedAt = System.nanoTime();
             try {
-                String uciMove = aiService.chooseMove(boardSnapshot, searchDepth);
+                String uciMove = aiService.chooseMove(boardSnapshot, searchLimits);
                 long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
-                long remainingDelayMillis = Math.max(0L, MIN_AI_MOVE_DELAY_MILLIS - elapsedMillis);
+                long remainingDelayMillis = Math.max(0L, minimumDelayMillis - elapsedMillis);
                 Platform.runLater(() -> scheduleAiMoveApplication(requestToken, uciMove, remainingDelayMillis));
             } catch (RuntimeException e) {
                 Platform.runLater(() -> {
@@ -767,7 +1058,8 @@ public class MainController {
         if (requestToken != aiRequestToken.get()) {
             return;
         }
-        if (currentPage != Page.GAME || paused || timeOutEnded || gameService.isGameOver() || !gameService.isAiTurn()) {
+        GameState state = gameService.snapshot();
+        if (currentPage != Page.GAME || paused || timeOutEnded || state.gameOver() || !gameService.isAiTurn(state)) {
             setAiThinkingState(false);
             return;
         }
@@ -776,13 +1068,20 @@ public class MainController {
         setAiThinkingState(false);
 
         if (!outcome.valid()) {
+            clearPremoves();
             showToast(outcome.message(), "toast-error");
             return;
         }
 
+        if (switchClockAfterMove()) {
+            MoveOutcome premove = applyQueuedPremove();
+            if (premove != null && switchClockAfterMove()) {
+                resetSelection();
+                requestAiIfNeeded();
+            }
+        }
         playMoveAnimation(outcome, () -> {
             reloadBoardSnapshot();
-            resetTimersForCurrentTurn();
             refreshBoard();
             refreshMeta();
             autoSaveCurrentGame();
@@ -790,6 +1089,7 @@ public class MainController {
     }
 
     private void cancelPendingAiMove() {
+        clearPremoves();
         aiRequestToken.incrementAndGet();
         clearAiDelayTransition();
         setAiThinkingState(false);
@@ -820,7 +1120,7 @@ public class MainController {
 
     private void playMoveAnimation(MoveOutcome outcome, Runnable after) {
         animatingMove = true;
-        boolean animated = boardView.animateMove(outcome.fromSquare(), outcome.toSquare(), outcome.movedPiece(), () -> {
+        boolean animated = boardView.animateMove(outcome.from(), outcome.to(), outcome.movedPiece(), () -> {
             animatingMove = false;
             after.run();
         });
@@ -836,7 +1136,8 @@ public class MainController {
     }
 
     private void autoSaveCurrentGame(boolean synchronous) {
-        if (gameService.moveHistory().isEmpty()) {
+        GameState state = gameService.snapshot();
+        if (state.moveHistory().isEmpty()) {
             return;
         }
 
@@ -855,19 +1156,20 @@ public class MainController {
             targetSaveId,
             currentGameName,
             now,
-            gameService.currentFen(),
+            state.fen(),
             settings.gameModeProperty().get(),
             settings.difficultyProperty().get(),
             settings.themeProperty().get(),
             settings.soundEnabledProperty().get(),
-            gameService.moveHistory(),
-            targetFile
+            gameService.priorNotation(),
+            targetFile,
+            gameService.startFen(),
+            gameService.moves()
         );
 
         if (synchronous) {
             try {
                 currentGameSave = persistenceService.save(snapshot);
-                savesDirty = true;
             } catch (RuntimeException e) {
                 showToast("Auto-save failed", "toast-error");
             }
@@ -889,13 +1191,12 @@ public class MainController {
                     if (next == null) {
                         break;
                     }
-                    GameSaveRecord saved = persistenceService.save(next);
+                    GameSaveRecord saved = persistenceService.append(next);
                     Platform.runLater(() -> {
                         if (!Objects.equals(currentGameSaveId, next.id())) {
                             return;
                         }
                         currentGameSave = saved;
-                        savesDirty = true;
                     });
                 }
             } catch (RuntimeException e) {
@@ -916,15 +1217,16 @@ public class MainController {
 
     private void refreshBoard() {
         boardView.setPieceStyle(settings.pieceStyleProperty().get());
-        boardView.render(boardSnapshot, selectedSquare, legalTargets);
+        boardView.render(boardSnapshot, selectedSquare, legalTargets, premoveSquares());
     }
 
     private void refreshMeta() {
-        turnLabel.setText("Turn: " + gameService.getTurn().name());
+        GameState state = gameService.snapshot();
+        turnLabel.setText("Turn: " + state.turn().name());
         refreshAiStateLabel();
-        gameStatusLabel.setText(timeOutEnded ? "Time out" : "Status: " + gameService.gameStatusText());
-        messageLabel.setText(timeOutEnded ? "Turn time expired." : gameService.gameStatusText());
-        List<String> history = gameService.moveHistory();
+        gameStatusLabel.setText(timeOutEnded ? "Time out" : "Status: " + state.statusText());
+        messageLabel.setText(timeOutEnded ? "Turn time expired." : state.statusText());
+        List<String> history = state.moveHistory();
         if (history.size() == movesListView.getItems().size() + 1
             && movesListView.getItems().equals(history.subList(0, movesListView.getItems().size()))) {
             movesListView.getItems().add(history.get(history.size() - 1));
@@ -932,10 +1234,49 @@ public class MainController {
             movesListView.getItems().setAll(history);
         }
 
-        capturedByWhiteLabel.setText(toCapturedGlyphs(gameService.capturedByWhite()));
-        capturedByBlackLabel.setText(toCapturedGlyphs(gameService.capturedByBlack()));
+        capturedByWhiteLabel.setText(toCapturedGlyphs(state.capturedByWhite()));
+        capturedByBlackLabel.setText(toCapturedGlyphs(state.capturedByBlack()));
         refreshTimerLabels();
-        showGameOverDialogIfNeeded();
+        refreshExplorer(state);
+        showGameOverDialogIfNeeded(state);
+    }
+
+    private void refreshExplorer(GameState state) {
+        if (positionIndexer == null || (state.positionKey() == explorerKey && !explorerListView.getItems().isEmpty())) {
+            return;
+        }
+        long key = state.positionKey();
+        explorerKey = key;
+        long token = explorerToken.incrementAndGet();
+        explorerExecutor.execute(() -> {
+            ExplorerStats stats = positionIndexer.explore(key, EXPLORER_MOVES, EXPLORER_GAMES);
+            Platform.runLater(() -> {
+                if (token != explorerToken.get() || gameService.snapshot().positionKey() != key) {
+                    return;
+                }
+                showExplorer(stats);
+            });
+        });
+    }
+
+    private void showExplorer(ExplorerStats stats) {
+        if (stats.games() == 0) {
+            explorerSummaryLabel.setText("No saved games reached this position.");
+            explorerListView.getItems().clear();
+            return;
+        }
+        StringBuilder summary = new StringBuilder()
+            .append(stats.games()).append(stats.games() == 1 ? " game" : " games").append(" reached this position");
+        if (!stats.sample().isEmpty()) {
+            summary.append(", e.g. ").append(stats.sample().getFirst().name());
+        }
+        explorerSummaryLabel.setText(summary.toString());
+        List<String> rows = new ArrayList<>(stats.moves().size());
+        for (ExplorerStats.MoveStat move : stats.moves()) {
+            rows.add(String.format("%-8s %5d  %3d%%", gameService.san(move.move()), move.games(),
+                Math.round(move.games() * 100.0 / stats.games())));
+        }
+        explorerListView.getItems().setAll(rows);
     }
 
     private String toCapturedGlyphs(List<Piece> pieces) {
@@ -1108,10 +1449,14 @@ public class MainController {
     }
 
     private void showGameOverDialogIfNeeded() {
+        showGameOverDialogIfNeeded(gameService.snapshot());
+    }
+
+    private void showGameOverDialogIfNeeded(GameState state) {
         if (gameOverDialogShown || currentPage != Page.GAME) {
             return;
         }
-        if (!timeOutEnded && !gameService.isGameOver()) {
+        if (!timeOutEnded && !state.gameOver()) {
             return;
         }
         if (confirmOverlay.isVisible()) {
@@ -1121,13 +1466,13 @@ public class MainController {
         gameOverDialogShown = true;
         String message = timeOutEnded
             ? messageLabel.getText()
-            : gameService.gameStatusText();
+            : state.statusText();
         showInfoDialog("Game Over", message);
     }
 
     private void resetSelection() {
-        selectedSquare = null;
-        legalTargets = new HashSet<>();
+        selectedSquare = Squares.NONE;
+        legalTargets = 0L;
     }
 
     private boolean belongsToTurn(Piece piece, Side turn) {
@@ -1138,71 +1483,76 @@ public class MainController {
     }
 
     private void resetTimersForNewGame() {
-        int perTurn = settings.timeControlProperty().get().secondsPerTurn();
-        whiteSecondsRemaining = perTurn;
-        blackSecondsRemaining = perTurn;
+        gameClock.reset(settings.timeControlProperty().get(), gameService.getTurn());
         timeOutEnded = false;
         startTurnClock();
     }
 
     private void resetTimersForCurrentTurn() {
-        int perTurn = settings.timeControlProperty().get().secondsPerTurn();
-        if (perTurn <= 0) {
-            whiteSecondsRemaining = 0;
-            blackSecondsRemaining = 0;
+        TimeControl timeControl = settings.timeControlProperty().get();
+        if (!timeControl.isEnabled()) {
+            gameClock.reset(timeControl, gameService.getTurn());
             stopTurnClock();
+            refreshTimerLabels();
             return;
         }
 
-        if (gameService.getTurn() == Side.WHITE) {
-            whiteSecondsRemaining = perTurn;
+        if (gameClock.timeControl() != timeControl) {
+            gameClock.reset(timeControl, gameService.getTurn());
         } else {
-            blackSecondsRemaining = perTurn;
+            gameClock.restartTurn(gameService.getTurn());
         }
         startTurnClock();
     }
 
-    private void startTurnClock() {
-        stopTurnClock();
+    private boolean switchClockAfterMove() {
+        if (!settings.timeControlProperty().get().isEnabled()) {
+            return true;
+        }
+        Side mover = gameClock.toMove();
+        if (gameClock.switchTurn()) {
+            return true;
+        }
+        onTimeOut(mover.flip());
+        return false;
+    }
 
+    private boolean flagFell() {
+        if (!settings.timeControlProperty().get().isEnabled()) {
+            return false;
+        }
+        Side mover = gameClock.toMove();
+        if (gameClock.flaggedSide() == null && gameClock.remainingMillis(mover) > 0L) {
+            return false;
+        }
+        onTimeOut(mover.flip());
+        return true;
+    }
+
+    private void startTurnClock() {
         if (!settings.timeControlProperty().get().isEnabled() || currentPage != Page.GAME || paused || timeOutEnded) {
+            stopTurnClock();
             refreshTimerLabels();
             return;
         }
 
-        turnClock = new Timeline(new KeyFrame(Duration.seconds(1), e -> onClockTick()));
-        turnClock.setCycleCount(Timeline.INDEFINITE);
-        turnClock.play();
+        gameClock.start();
         refreshTimerLabels();
     }
 
     private void stopTurnClock() {
-        if (turnClock != null) {
-            turnClock.stop();
-            turnClock = null;
+        gameClock.pause();
+        if (clockTick != null) {
+            clockTick.stop();
         }
     }
 
-    private void onClockTick() {
-        if (!settings.timeControlProperty().get().isEnabled()) {
+    private void onFlagFall(Side side) {
+        if (timeOutEnded || currentPage != Page.GAME || gameClock.flaggedSide() != side) {
             return;
         }
-
-        Side turn = gameService.getTurn();
-        if (turn == Side.WHITE) {
-            whiteSecondsRemaining--;
-            if (whiteSecondsRemaining <= 0) {
-                whiteSecondsRemaining = 0;
-                onTimeOut(Side.BLACK);
-            }
-        } else {
-            blackSecondsRemaining--;
-            if (blackSecondsRemaining <= 0) {
-                blackSecondsRemaining = 0;
-                onTimeOut(Side.WHITE);
-            }
-        }
         refreshTimerLabels();
+        onTimeOut(side.flip());
     }
 
     private void onTimeOut(Side winner) {
@@ -1218,19 +1568,56 @@ public class MainController {
 
     private void refreshTimerLabels() {
         if (!settings.timeControlProperty().get().isEnabled()) {
-            whiteTimerLabel.setText("White: --:--");
-            blackTimerLabel.setText("Black: --:--");
+            if (renderedWhiteClock != Long.MIN_VALUE) {
+                whiteTimerLabel.setText("White: --:--");
+                blackTimerLabel.setText("Black: --:--");
+                renderedWhiteClock = Long.MIN_VALUE;
+                renderedBlackClock = Long.MIN_VALUE;
+            }
             return;
         }
 
-        whiteTimerLabel.setText("White: " + formatTime(whiteSecondsRemaining));
-        blackTimerLabel.setText("Black: " + formatTime(blackSecondsRemaining));
+        long white = gameClock.remainingMillis(Side.WHITE);
+        long black = gameClock.remainingMillis(Side.BLACK);
+        long whiteKey = displayKey(white);
+        long blackKey = displayKey(black);
+        if (whiteKey != renderedWhiteClock) {
+            whiteTimerLabel.setText("White: " + formatTime(white));
+            renderedWhiteClock = whiteKey;
+        }
+        if (blackKey != renderedBlackClock) {
+            blackTimerLabel.setText("Black: " + formatTime(black));
+            renderedBlackClock = blackKey;
+        }
+        scheduleClockTick(gameClock.toMove() == Side.WHITE ? white : black);
     }
 
-    private String formatTime(int totalSeconds) {
-        int m = Math.max(0, totalSeconds) / 60;
-        int s = Math.max(0, totalSeconds) % 60;
-        return String.format("%02d:%02d", m, s);
+    private void scheduleClockTick(long remaining) {
+        if (clockTick == null) {
+            clockTick = new PauseTransition();
+            clockTick.setOnFinished(event -> refreshTimerLabels());
+        }
+        clockTick.stop();
+        if (!gameClock.isRunning() || remaining <= 0L) {
+            return;
+        }
+        long untilChange = remaining < TENTHS_THRESHOLD_MILLIS
+            ? remaining % 100 + 1
+            : Math.min((remaining - 1) % 1000 + 1, remaining - TENTHS_THRESHOLD_MILLIS + 1);
+        clockTick.setDuration(Duration.millis(untilChange));
+        clockTick.playFromStart();
+    }
+
+    private long displayKey(long millis) {
+        return millis < TENTHS_THRESHOLD_MILLIS ? millis / 100 : -(millis + 999) / 1000;
+    }
+
+    private String formatTime(long millis) {
+        if (millis < TENTHS_THRESHOLD_MILLIS) {
+            return String.format("00:%02d.%d", millis / 1000, (millis % 1000) / 100);
+        }
+        long totalSeconds = (millis + 999) / 1000;
+        return String.format("%02d:%02d", totalSeconds / 60, totalSeconds % 60);
     }
 
     private void loadSettingsIntoControls() {
@@ -0,0 +1,16 @@
+package com.example.explorer;
+
+import java.util.List;
+
+public record ExplorerStats(long key, int games, List<MoveStat> moves, List<GameRef> sample, long elapsedNanos) {
+
+    public static ExplorerStats empty(long key) {
+        return new ExplorerStats(key, 0, List.of(), List.of(), 0L);
+    }
+
+    public record MoveStat(int move, int games) {
+    }
+
+    public record GameRef(String fileName, String name, int ply) {
+    }
+}
@@ -0,0 +1,638 @@
+package com.example.explorer;
+
+import com.example.game.Moves;
+import com.example.persistence.BinaryIo;
+import com.example.persistence.GameSaveRecord;
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32C;
+
+public class PositionDatabase implements Closeable {
+
+    public static final String MANIFEST = "positions.manifest";
+    public static final int DEFAULT_FLUSH_ENTRIES = 1 << 16;
+    public static final int MERGE_SEGMENTS = 4;
+
+    private static final int MAGIC = 0x4353504D;
+    private static final short VERSION = 1;
+    private static final int MAX_PLY = 0xFFFF;
+    private static final int RECENT_GAMES = 64;
+
+    private static final ExecutorService MERGER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "chess-position-merger");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private final Path dir;
+    private final int flushEntries;
+    private final List<PositionSegment> segments = new ArrayList<>();
+    private final Map<Long, GameEntry> games = new HashMap<>();
+    private final Object flushLock = new Object();
+    private final Object manifestLock = new Object();
+    private Map<Long, List<PositionEntry>> pending = new HashMap<>();
+    private Map<Long, List<PositionEntry>> flushing;
+    private long flushingSeq;
+    private final Map<Long, int[]> recent = new LinkedHashMap<>(RECENT_GAMES * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+            return size() > RECENT_GAMES;
+        }
+    };
+    private long nextSeq = 1L;
+    private int pendingSize;
+    private boolean dirty;
+    private boolean merging;
+    private boolean closed;
+
+    private PositionDatabase(Path dir, int flushEntries) {
+        this.dir = dir;
+        this.flushEntries = flushEntries;
+    }
+
+    public static PositionDatabase open(Path dir) throws IOException {
+        return open(dir, DEFAULT_FLUSH_ENTRIES);
+    }
+
+    public static PositionDatabase open(Path dir, int flushEntries) throws IOException {
+        if (flushEntries <= 0) {
+            throw new IllegalArgumentException("flushEntries must be positive");
+        }
+        Files.createDirectories(dir);
+        PositionDatabase database = new PositionDatabase(dir, flushEntries);
+        if (!database.readManifest()) {
+            database.resetSegments();
+        }
+        database.deleteStrays();
+        return database;
+    }
+
+    public static long gameKey(String fileName) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < fileName.length(); i++) {
+            hash ^= fileName.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public static long[] positionKeys(String startFen, int[] moves) {
+        Board board = new Board();
+        board.loadFromFen(startFen);
+        int limit = Math.min(moves.length, MAX_PLY);
+        long[] keys = new long[limit + 1];
+        keys[0] = board.getZobristKey();
+        for (int ply = 0; ply < limit; ply++) {
+            int packed = moves[ply];
+            Move move = new Move(Square.squareAt(Moves.from(packed)), Square.squareAt(Moves.to(packed)), Moves.promotion(packed));
+            try {
+                if (!board.doMove(move, true)) {
+                    return Arrays.copyOf(keys, ply + 1);
+                }
+            } catch (RuntimeException e) {
+                return Arrays.copyOf(keys, ply + 1);
+            }
+            keys[ply + 1] = board.getZobristKey();
+        }
+        return keys;
+    }
+
+    public Path dir() {
+        return dir;
+    }
+
+    public synchronized int gameCount() {
+        return games.size();
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    public synchronized int pendingEntries() {
+        return pendingSize;
+    }
+
+    public synchronized boolean isCurrent(String fileName, int moveCount, Instant savedAt) {
+        GameEntry entry = games.get(gameKey(fileName));
+        return entry != null && entry.fileName().equals(fileName) && entry.moveCount() == moveCount
+            && entry.savedAt().equals(savedAt);
+    }
+
+    public synchronized Set<String> fileNames() {
+        Set<String> names = new HashSet<>(games.size() * 2);
+        for (GameEntry entry : games.values()) {
+            names.add(entry.fileName());
+        }
+        return names;
+    }
+
+    public void index(GameSaveRecord record) throws IOException {
+        if (record.file() == null) {
+            throw new IllegalArgumentException("Only saved games can be indexed");
+        }
+        String fileName = record.file().getFileName().toString();
+        long game = gameKey(fileName);
+        int[] moves = record.hasMoveList() ? record.moves() : new int[0];
+        long[] keys = record.hasMoveList() ? positionKeys(record.startFen(), moves) : new long[0];
+        int indexedPlies = Math.max(0, keys.length - 1);
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Position database is closed");
+            }
+            GameEntry previous = games.get(game);
+            int[] indexed = recent.get(game);
+            int from = 0;
+            long minSeq = nextSeq;
+            if (previous != null && indexed != null && previous.fileName().equals(fileName)
+                && indexed.length <= indexedPlies && Arrays.equals(moves, 0, indexed.length, indexed, 0, indexed.length)) {
+                from = indexed.length;
+                minSeq = previous.minSeq();
+            } else {
+                dropPending(game);
+            }
+
+            List<PositionEntry> entries = pending.computeIfAbsent(game, key -> new ArrayList<>());
+            if (!entries.isEmpty() && entries.getLast().ply() == from) {
+                entries.removeLast();
+                pendingSize--;
+            }
+            for (int ply = from; ply < keys.length; ply++) {
+                entries.add(new PositionEntry(keys[ply], game, ply, ply < indexedPlies ? moves[ply] : Moves.NONE));
+                pendingSize++;
+            }
+            if (entries.isEmpty()) {
+                pending.remove(game);
+            }
+            games.put(game, new GameEntry(fileName, record.name(), minSeq, record.header().moveCount(), record.savedAt()));
+            recent.put(game, Arrays.copyOf(moves, indexedPlies));
+            dirty = true;
+            if (pendingSize < flushEntries) {
+                return;
+            }
+        }
+        flushPending();
+    }
+
+    public synchronized void remove(String fileName) {
+        long game = gameKey(fileName);
+        GameEntry entry = games.get(game);
+        if (entry == null || !entry.fileName().equals(fileName)) {
+            return;
+        }
+        games.remove(game);
+        recent.remove(game);
+        dropPending(game);
+        dirty = true;
+    }
+
+    public synchronized ExplorerStats query(long key, int maxMoves, int maxGames) {
+        long startedAt = System.nanoTime();
+        Tally tally = new Tally();
+        tally(tally, pending, key, nextSeq);
+        if (flushing != null) {
+            tally(tally, flushing, key, flushingSeq);
+        }
+        for (int s = segments.size() - 1; s >= 0; s--) {
+            PositionSegment segment = segments.get(s);
+            for (int i = segment.lowerBound(key); i < segment.count() && segment.key(i) == key; i++) {
+                tally.accept(segment.game(i), segment.ply(i), segment.next(i), segment.seq());
+            }
+        }
+
+        List<ExplorerStats.MoveStat> moves = new ArrayList<>(tally.moveCounts.size());
+        tally.moveCounts.forEach((move, count) -> moves.add(new ExplorerStats.MoveStat(move, count)));
+        moves.sort(Comparator.comparingInt(ExplorerStats.MoveStat::games).reversed()
+            .thenComparingInt(ExplorerStats.MoveStat::move));
+        List<ExplorerStats.GameRef> sample = new ArrayList<>(Math.min(maxGames, tally.reached.size()));
+        for (Map.Entry<Long, Integer> reached : tally.reached.entrySet()) {
+            if (sample.size() >= maxGames) {
+                break;
+            }
+            GameEntry entry = games.get(reached.getKey());
+            sample.add(new ExplorerStats.GameRef(entry.fileName(), entry.name(), reached.getValue()));
+        }
+        return new ExplorerStats(key, tally.reached.size(), List.copyOf(moves.subList(0, Math.min(maxMoves, moves.size()))),
+            List.copyOf(sample), System.nanoTime() - startedAt);
+    }
+
+    public void flush() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+        }
+        flushPending();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            flushPending();
+        } catch (IOException ignored) {
+        }
+        synchronized (this) {
+            for (PositionSegment segment : segments) {
+                try {
+                    segment.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private void flushPending() throws IOException {
+        synchronized (flushLock) {
+            boolean retry = true;
+            while (retry) {
+                Map<Long, List<PositionEntry>> snapshot;
+                long seq;
+                synchronized (this) {
+                    retry = flushing != null;
+                    if (!retry && pendingSize > 0) {
+                        flushing = pending;
+                        flushingSeq = nextSeq++;
+                        pending = new HashMap<>();
+                        pendingSize = 0;
+                    }
+                    snapshot = flushing;
+                    seq = flushingSeq;
+                }
+                if (snapshot == null) {
+                    break;
+                }
+                PositionSegment segment = writeSegment(snapshot, seq);
+                synchronized (this) {
+                    segments.add(segment);
+                    flushing = null;
+                    dirty = true;
+                }
+            }
+            writeManifest();
+            synchronized (this) {
+                scheduleMerge();
+            }
+        }
+    }
+
+    private PositionSegment writeSegment(Map<Long, List<PositionEntry>> snapshot, long seq) throws IOException {
+        int size = 0;
+        for (List<PositionEntry> game : snapshot.values()) {
+            size += game.size();
+        }
+        List<PositionEntry> entries = new ArrayList<>(size);
+        for (List<PositionEntry> game : snapshot.values()) {
+            entries.addAll(game);
+        }
+        entries.sort(PositionEntry.ORDER);
+        try (PositionSegment.Writer writer = PositionSegment.writer(dir.resolve("seg-" + seq + PositionSegment.EXTENSION), seq)) {
+            for (PositionEntry entry : entries) {
+                writer.add(entry.key(), entry.game(), entry.ply(), entry.next());
+            }
+            return writer.finish();
+        }
+    }
+
+    private static void tally(Tally tally, Map<Long, List<PositionEntry>> memtable, long key, long seq) {
+        for (List<PositionEntry> entries : memtable.values()) {
+            for (PositionEntry entry : entries) {
+                if (entry.key() == key) {
+                    tally.accept(entry.game(), entry.ply(), entry.next(), seq);
+                }
+            }
+        }
+    }
+
+    private void dropPending(long game) {
+        List<PositionEntry> removed = pending.remove(game);
+        if (removed != null) {
+            pendingSize -= removed.size();
+        }
+    }
+
+    private void scheduleMerge() {
+        if (merging || closed || segments.size() < MERGE_SEGMENTS) {
+            return;
+        }
+        int start = segments.size() - 1;
+        long total = segments.get(start).count();
+        while (start > 0) {
+            long older = segments.get(start - 1).count();
+            if (older > total * 2 || total + older > PositionSegment.MAX_ENTRIES) {
+                break;
+            }
+            total += older;
+            start--;
+        }
+        if (segments.size() - start < MERGE_SEGMENTS) {
+            return;
+        }
+        List<PositionSegment> inputs = List.copyOf(segments.subList(start, segments.size()));
+        Map<Long, Long> minSeqs = new HashMap<>(games.size() * 2);
+        for (Map.Entry<Long, GameEntry> entry : games.entrySet()) {
+            minSeqs.put(entry.getKey(), entry.getValue().minSeq());
+        }
+        merging = true;
+        MERGER.execute(() -> merge(inputs, minSeqs));
+    }
+
+    private void merge(List<PositionSegment> inputs, Map<Long, Long> minSeqs) {
+        long seq = inputs.getLast().seq();
+        PositionSegment merged;
+        try (PositionSegment.Writer writer = PositionSegment.writer(dir.resolve("merge-" + seq + PositionSegment.EXTENSION), seq)) {
+            int[] cursors = new int[inputs.size()];
+            PriorityQueue<Integer> heap = new PriorityQueue<>((a, b) -> compare(inputs.get(a), cursors[a], inputs.get(b), cursors[b]));
+            for (int i = 0; i < inputs.size(); i++) {
+                if (inputs.get(i).count() > 0) {
+                    heap.add(i);
+                }
+            }
+            long lastKey = 0L;
+            long lastGame = 0L;
+            int lastPly = -1;
+            while (!heap.isEmpty()) {
+                int i = heap.poll();
+                PositionSegment segment = inputs.get(i);
+                int cursor = cursors[i];
+                long key = segment.key(cursor);
+                long game = segment.game(cursor);
+                int ply = segment.ply(cursor);
+                Long minSeq = minSeqs.get(game);
+                boolean duplicate = ply == lastPly && key == lastKey && game == lastGame;
+                if (!duplicate && minSeq != null && segment.seq() >= minSeq) {
+                    writer.add(key, game, ply, segment.next(cursor));
+                    lastKey = key;
+                    lastGame = game;
+                    lastPly = ply;
+                }
+                if (++cursors[i] < segment.count()) {
+                    heap.add(i);
+                }
+            }
+            merged = writer.finish();
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                merging = false;
+            }
+            return;
+        }
+        install(inputs, merged, minSeqs);
+    }
+
+    private void install(List<PositionSegment> inputs, PositionSegment merged, Map<Long, Long> minSeqs) {
+        synchronized (this) {
+            merging = false;
+            if (closed) {
+                merged.delete();
+                return;
+            }
+            if (reindexedSince(minSeqs)) {
+                // The merge filtered entries against minSeqs taken when it was scheduled; redo it from the current ones.
+                merged.delete();
+                scheduleMerge();
+                return;
+            }
+            int at = segments.indexOf(inputs.getFirst());
+            segments.removeAll(inputs);
+            segments.add(at, merged);
+            dirty = true;
+        }
+        try {
+            writeManifest();
+        } catch (IOException e) {
+            // The durable manifest still lists the inputs; they become strays once a later manifest write succeeds.
+            for (PositionSegment input : inputs) {
+                try {
+                    input.close();
+                } catch (IOException ignored) {
+                }
+            }
+            return;
+        }
+        for (PositionSegment input : inputs) {
+            input.delete();
+        }
+        synchronized (this) {
+            scheduleMerge();
+        }
+    }
+
+    private boolean reindexedSince(Map<Long, Long> minSeqs) {
+        for (Map.Entry<Long, GameEntry> entry : games.entrySet()) {
+            Long minSeq = minSeqs.get(entry.getKey());
+            if (minSeq != null && minSeq != entry.getValue().minSeq()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int compare(PositionSegment a, int i, PositionSegment b, int j) {
+        int order = Long.compare(a.key(i), b.key(j));
+        if (order == 0) {
+            order = Long.compare(a.game(i), b.game(j));
+        }
+        if (order == 0) {
+            order = Integer.compare(a.ply(i), b.ply(j));
+        }
+        return order != 0 ? order : Long.compare(b.seq(), a.seq());
+    }
+
+    private boolean readManifest() {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(dir.resolve(MANIFEST), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 28 || size > Integer.MAX_VALUE) {
+                return false;
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, buffer.position()) < 0) {
+                    return false;
+                }
+            }
+            buffer.flip();
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+
+        int crcOffset = buffer.limit() - 4;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, crcOffset));
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION || (int) crc.getValue() != buffer.getInt(crcOffset)) {
+            return false;
+        }
+        buffer.position(8).limit(crcOffset);
+        try {
+            nextSeq = buffer.getLong();
+            int segmentCount = buffer.getInt();
+            int gameCount = buffer.getInt();
+            for (int i = 0; i < segmentCount; i++) {
+                segments.add(PositionSegment.open(dir.resolve(BinaryIo.getString(buffer))));
+            }
+            for (int i = 0; i < gameCount; i++) {
+                long game = buffer.getLong();
+                long minSeq = buffer.getLong();
+                int moveCount = buffer.getInt();
+                Instant savedAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+                String fileName = BinaryIo.getString(buffer);
+                String name = BinaryIo.getString(buffer);
+                games.put(game, new GameEntry(fileName, name, minSeq, moveCount, savedAt));
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            resetSegments();
+            return false;
+        }
+    }
+
+    private void writeManifest() throws IOException {
+        synchronized (manifestLock) {
+            ByteBuffer buffer;
+            synchronized (this) {
+                if (!dirty) {
+                    return;
+                }
+                buffer = encodeManifest();
+                dirty = false;
+            }
+            try {
+                BinaryIo.writeAtomically(dir.resolve(MANIFEST), buffer, true);
+            } catch (IOException e) {
+                synchronized (this) {
+                    dirty = true;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private ByteBuffer encodeManifest() {
+        List<byte[]> segmentNames = new ArrayList<>(segments.size());
+        int length = 8 + 8 + 4 + 4 + 4;
+        for (PositionSegment segment : segments) {
+            byte[] name = BinaryIo.utf8(segment.file().getFileName().toString());
+            segmentNames.add(name);
+            length += 2 + name.length;
+        }
+        Map<GameEntry, byte[][]> strings = new HashMap<>(games.size() * 2);
+        for (GameEntry entry : games.values()) {
+            byte[][] encoded = {BinaryIo.utf8(entry.fileName()), BinaryIo.utf8(entry.name())};
+            strings.put(entry, encoded);
+            length += 8 + 8 + 4 + 12 + 4 + encoded[0].length + encoded[1].length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+        buffer.putLong(nextSeq).putInt(segments.size()).putInt(games.size());
+        for (byte[] name : segmentNames) {
+            BinaryIo.putString(buffer, name);
+        }
+        for (Map.Entry<Long, GameEntry> game : games.entrySet()) {
+            GameEntry entry = game.getValue();
+            byte[][] encoded = strings.get(entry);
+            buffer.putLong(game.getKey()).putLong(entry.minSeq()).putInt(entry.moveCount());
+            buffer.putLong(entry.savedAt().getEpochSecond()).putInt(entry.savedAt().getNano());
+            BinaryIo.putString(buffer, encoded[0]);
+            BinaryIo.putString(buffer, encoded[1]);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        return buffer.putInt((int) crc.getValue()).flip();
+    }
+
+    private void resetSegments() {
+        for (PositionSegment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException ignored) {
+            }
+        }
+        segments.clear();
+        games.clear();
+        nextSeq = 1L;
+        dirty = true;
+    }
+
+    private void deleteStrays() throws IOException {
+        Set<Path> live = new HashSet<>();
+        for (PositionSegment segment : segments) {
+            live.add(segment.file());
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if ((name.endsWith(PositionSegment.EXTENSION) || name.endsWith(".tmp")) && !live.contains(path)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    private final class Tally {
+
+        private final Set<GamePly> seen = new HashSet<>();
+        private final Set<GamePly> counted = new HashSet<>();
+        private final Map<Long, Integer> reached = new LinkedHashMap<>();
+        private final Map<Integer, Integer> moveCounts = new HashMap<>();
+
+        private void accept(long game, int ply, int next, long seq) {
+            GameEntry entry = games.get(game);
+            if (entry == null || seq < entry.minSeq() || !seen.add(new GamePly(game, ply))) {
+                return;
+            }
+            reached.putIfAbsent(game, ply);
+            if (next != Moves.NONE && counted.add(new GamePly(game, next))) {
+                moveCounts.merge(next, 1, Integer::sum);
+            }
+        }
+    }
+
+    private record PositionEntry(long key, long game, int ply, int next) {
+
+        private static final Comparator<PositionEntry> ORDER = Comparator
+            .comparingLong(PositionEntry::key)
+            .thenComparingLong(PositionEntry::game)
+            .thenComparingInt(PositionEntry::ply);
+    }
+
+    private record GameEntry(String fileName, String name, long minSeq, int moveCount, Instant savedAt) {
+    }
+
+    private record GamePly(long game, int ply) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.explorer;
+
+import com.example.persistence.GamePersistenceService;
+import com.example.persistence.GameSaveHeader;
+import com.example.persistence.GameSaveRecord;
+import com.example.persistence.SaveCatalogChange;
+import com.example.persistence.SaveDelta;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class PositionIndexer implements Closeable {
+
+    public static final String DIRECTORY = "positions";
+
+    private final GamePersistenceService persistence;
+    private final ExecutorService worker;
+    private final Consumer<SaveCatalogChange> listener;
+    private volatile PositionDatabase database;
+    private Path saveDir;
+
+    public PositionIndexer(GamePersistenceService persistence) {
+        this.persistence = persistence;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "chess-position-indexer");
+            thread.setDaemon(true);
+            thread.setPriority(Math.max(Thread.MIN_PRIORITY, Thread.NORM_PRIORITY - 1));
+            return thread;
+        });
+        this.listener = change -> worker.execute(() -> apply(change.deltas()));
+        persistence.addCatalogListener(listener);
+        worker.execute(this::reconcile);
+    }
+
+    public ExplorerStats explore(long positionKey, int maxMoves, int maxGames) {
+        PositionDatabase current = database;
+        if (current == null) {
+            return ExplorerStats.empty(positionKey);
+        }
+        try {
+            return current.query(positionKey, maxMoves, maxGames);
+        } catch (IllegalStateException e) {
+            return ExplorerStats.empty(positionKey);
+        }
+    }
+
+    public void rebuild() {
+        worker.execute(this::reconcile);
+    }
+
+    @Override
+    public void close() {
+        persistence.removeCatalogListener(listener);
+        worker.shutdown();
+        try {
+            worker.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PositionDatabase current = database;
+        database = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void reconcile() {
+        PositionDatabase current = current();
+        if (current == null) {
+            return;
+        }
+        Set<String> live = new HashSet<>();
+        try {
+            for (GameSaveHeader header : persistence.catalog()) {
+                if (header.file() == null || !header.file().getParent().equals(saveDir)) {
+                    continue;
+                }
+                live.add(header.file().getFileName().toString());
+                indexIfStale(current, header);
+            }
+        } catch (RuntimeException e) {
+            return;
+        }
+        for (String fileName : current.fileNames()) {
+            if (!live.contains(fileName)) {
+                current.remove(fileName);
+            }
+        }
+        flush(current);
+    }
+
+    private void apply(List<SaveDelta> deltas) {
+        PositionDatabase current = current();
+        if (current == null) {
+            return;
+        }
+        for (SaveDelta delta : deltas) {
+            GameSaveHeader header = delta.header();
+            if (header.file() == null || !saveDir.equals(header.file().getParent())) {
+                continue;
+            }
+            if (delta.kind() == SaveDelta.Kind.REMOVED) {
+                current.remove(header.file().getFileName().toString());
+            } else {
+                indexIfStale(current, header);
+            }
+        }
+    }
+
+    private void indexIfStale(PositionDatabase current, GameSaveHeader header) {
+        if (current.isCurrent(header.file().getFileName().toString(), header.moveCount(), header.savedAt())) {
+            return;
+        }
+        GameSaveRecord record = persistence.load(header.file());
+        if (record == null) {
+            return;
+        }
+        try {
+            current.index(record);
+        } catch (IOException | RuntimeException ignored) {
+        }
+    }
+
+    private PositionDatabase current() {
+        Path dir = persistence.getSaveDir();
+        if (database != null && dir.equals(saveDir)) {
+            return database;
+        }
+        PositionDatabase previous = database;
+        database = null;
+        if (previous != null) {
+            previous.close();
+        }
+        try {
+            database = PositionDatabase.open(dir.resolve(DIRECTORY));
+            saveDir = dir;
+        } catch (IOException | RuntimeException e) {
+            saveDir = null;
+            return null;
+        }
+        if (previous != null) {
+            worker.execute(this::reconcile);
+        }
+        return database;
+    }
+
+    private void flush(PositionDatabase current) {
+        try {
+            current.flush();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.explorer;
+
+import com.example.persistence.BinaryIo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+public final class PositionSegment implements Closeable {
+
+    public static final String EXTENSION = ".pos";
+    public static final int ENTRY_BYTES = 20;
+    public static final long MAX_ENTRIES = (Integer.MAX_VALUE - 32) / ENTRY_BYTES;
+
+    private static final int MAGIC = 0x43535047;
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int SEQ_OFFSET = 8;
+    private static final int COUNT_OFFSET = 16;
+    private static final int CRC_OFFSET = 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long seq;
+    private final int count;
+
+    private PositionSegment(Path file, FileChannel channel, MappedByteBuffer buffer, long seq, int count) {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.seq = seq;
+        this.count = count;
+    }
+
+    public static PositionSegment open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a position segment: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int count = buffer.getInt(COUNT_OFFSET);
+            if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION || count < 0
+                || HEADER_BYTES + (long) count * ENTRY_BYTES != size) {
+                throw new IOException("Damaged position segment: " + file);
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(HEADER_BYTES, (int) size - HEADER_BYTES));
+            if ((int) crc.getValue() != buffer.getInt(CRC_OFFSET)) {
+                throw new IOException("Checksum mismatch: " + file);
+            }
+            return new PositionSegment(file, channel, buffer, buffer.getLong(SEQ_OFFSET), count);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static Writer writer(Path file, long seq) throws IOException {
+        return new Writer(file, seq);
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public long seq() {
+        return seq;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public long key(int index) {
+        return buffer.getLong(offset(index));
+    }
+
+    public long game(int index) {
+        return buffer.getLong(offset(index) + 8);
+    }
+
+    public int ply(int index) {
+        return Short.toUnsignedInt(buffer.getShort(offset(index) + 16));
+    }
+
+    public int next(int index) {
+        return Short.toUnsignedInt(buffer.getShort(offset(index) + 18));
+    }
+
+    public int lowerBound(long key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public void delete() {
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static int offset(int index) {
+        return HEADER_BYTES + index * ENTRY_BYTES;
+    }
+
+    public static final class Writer implements Closeable {
+
+        private final Path file;
+        private final Path temp;
+        private final long seq;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(ENTRY_BYTES * 4096);
+        private final CRC32C crc = new CRC32C();
+        private long count;
+        private boolean finished;
+
+        private Writer(Path file, long seq) throws IOException {
+            this.file = file;
+            this.temp = BinaryIo.tempFor(file);
+            this.seq = seq;
+            this.channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            channel.position(HEADER_BYTES);
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public void add(long key, long game, int ply, int next) throws IOException {
+            if (count >= MAX_ENTRIES) {
+                throw new IllegalStateException("Position segment full: " + file);
+            }
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.putLong(key).putLong(game).putShort((short) ply).putShort((short) next);
+            count++;
+        }
+
+        public PositionSegment finish() throws IOException {
+            drain();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(seq).putInt((int) count)
+                .putInt((int) crc.getValue()).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(false);
+            channel.close();
+            finished = true;
+            BinaryIo.replace(temp, file);
+            return open(file);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                channel.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            crc.update(buffer.array(), 0, buffer.limit());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.game;
+
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.Square;
+
+import java.util.Arrays;
+
+public final class BoardSnapshot {
+
+    private static final Piece[] PIECES = Piece.values();
+    private static final BoardSnapshot EMPTY = new BoardSnapshot(new byte[64], 0L, null);
+
+    private final byte[] squares;
+    private final long changedSquares;
+    private final byte[] previousSquares;
+
+    private BoardSnapshot(byte[] squares, long changedSquares, byte[] previousSquares) {
+        this.squares = squares;
+        this.changedSquares = changedSquares;
+        this.previousSquares = previousSquares;
+    }
+
+    public static BoardSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static BoardSnapshot of(Board board, BoardSnapshot previous) {
+        byte[] squares = new byte[64];
+        for (int i = 0; i < 64; i++) {
+            squares[i] = encode(board.getPiece(Square.squareAt(i)));
+        }
+        if (previous == null) {
+            return new BoardSnapshot(squares, -1L, null);
+        }
+        return new BoardSnapshot(squares, diff(squares, previous.squares), previous.squares);
+    }
+
+    public Piece pieceAt(int square) {
+        return decode(squares[square]);
+    }
+
+    public byte code(int square) {
+        return squares[square];
+    }
+
+    public long changedSquares() {
+        return changedSquares;
+    }
+
+    public long changedSince(BoardSnapshot other) {
+        if (other == this) {
+            return 0L;
+        }
+        if (other == null) {
+            return -1L;
+        }
+        if (previousSquares == other.squares) {
+            return changedSquares;
+        }
+        return diff(squares, other.squares);
+    }
+
+    public static byte encode(Piece piece) {
+        return piece == null || piece == Piece.NONE ? 0 : (byte) (piece.ordinal() + 1);
+    }
+
+    public static Piece decode(byte code) {
+        return code == 0 ? Piece.NONE : PIECES[code - 1];
+    }
+
+    private static long diff(byte[] current, byte[] other) {
+        long changed = 0L;
+        for (int i = 0; i < 64; i++) {
+            if (current[i] != other[i]) {
+                changed |= 1L << i;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof BoardSnapshot other && Arrays.equals(squares, other.squares);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(squares);
+    }
+}
@@ -6,6 +6,7 @@ import com.example.config.AppSettings;
 import com.example.config.GameMode;
 import com.github.bhlangonijr.chesslib.Board;
 import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
 import com.github.bhlangonijr.chesslib.Side;
 import com.github.bhlangonijr.chesslib.Square;
 import com.github.bhlangonijr.chesslib.move.Move;
@@ -14,7 +15,6 @@ import com.github.bhlangonijr.chesslib.move.MoveGenerator;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,183 +23,427 @@ public class ChessGameService {
     private final AppSettings settings;
     private final AudioService audioService;
     private final Board board = new Board();
-    private final List<String> moveHistory = new ArrayList<>();
+    private final MoveHistory history = new MoveHistory();
     private final List<Piece> capturedByWhite = new ArrayList<>();
     private final List<Piece> capturedByBlack = new ArrayList<>();
+    private final PositionHistory positionHistory = new PositionHistory();
+    private final List<Piece> baseCapturedByWhite = new ArrayList<>();
+    private final List<Piece> baseCapturedByBlack = new ArrayList<>();
+    private int boardBasePly;
     private List<Move> cachedLegalMoves = Collections.emptyList();
     private Map<Square, List<Move>> cachedMovesByFrom = Collections.emptyMap();
     private boolean legalMovesDirty = true;
+    private volatile GameState state;
 
     private static final Map<Piece, Integer> STARTING_COUNTS = startingPieceCounts();
 
     public ChessGameService(AppSettings settings, AudioService audioService) {
         this.settings = settings;
         this.audioService = audioService;
+        history.reset(board.getFen(), null);
+        positionHistory.reset(board);
+        this.state = buildState();
     }
 
     public synchronized void resetGame() {
         board.loadFromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
-        moveHistory.clear();
         capturedByWhite.clear();
         capturedByBlack.clear();
+        baseCapturedByWhite.clear();
+        baseCapturedByBlack.clear();
+        history.reset(board.getFen(), null);
+        boardBasePly = 0;
+        positionHistory.reset(board);
         invalidateLegalMovesCache();
+        state = buildState();
     }
 
     public synchronized void restore(String fen, List<String> history) {
         board.loadFromFen(fen);
-        moveHistory.clear();
         capturedByWhite.clear();
         capturedByBlack.clear();
-        if (history != null) {
-            moveHistory.addAll(history);
-        }
         rebuildCapturedFromBoard();
+        baseCapturedByWhite.clear();
+        baseCapturedByWhite.addAll(capturedByWhite);
+        baseCapturedByBlack.clear();
+        baseCapturedByBlack.addAll(capturedByBlack);
+        this.history.reset(board.getFen(), history);
+        boardBasePly = 0;
+        positionHistory.reset(board);
+        invalidateLegalMovesCache();
+        state = buildState();
+    }
+
+    public synchronized void load(String startFen, int[] moves) {
+        load(startFen, null, moves);
+    }
+
+    public synchronized void load(String startFen, List<String> priorNotation, int[] moves) {
+        board.loadFromFen(startFen);
+        capturedByWhite.clear();
+        capturedByBlack.clear();
+        rebuildCapturedFromBoard();
+        baseCapturedByWhite.clear();
+        baseCapturedByWhite.addAll(capturedByWhite);
+        baseCapturedByBlack.clear();
+        baseCapturedByBlack.addAll(capturedByBlack);
+        history.reset(board.getFen(), priorNotation);
+        boardBasePly = 0;
+        positionHistory.reset(board);
         invalidateLegalMovesCache();
+
+        for (int i = 0; i < moves.length; i++) {
+            ensureLegalMovesCache();
+            Move move = findLegalMove(moves[i]);
+            if (move == null) {
+                state = buildState();
+                throw new IllegalArgumentException("Illegal move " + Moves.toUci(moves[i]) + " at ply " + i);
+            }
+            makeMove(move);
+        }
+        state = buildState();
+    }
+
+    public synchronized String startFen() {
+        return history.keyframeFen(0);
     }
 
-    public synchronized boolean isAiTurn() {
+    public synchronized String san(int packedMove) {
+        ensureLegalMovesCache();
+        Move move = findLegalMove(packedMove);
+        return move == null ? Moves.toUci(packedMove) : SanFormatter.format(board, move, cachedLegalMoves);
+    }
+
+    public synchronized List<String> priorNotation() {
+        return history.priorNotation();
+    }
+
+    public synchronized int[] moves() {
+        int[] moves = new int[history.ply()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = MoveHistory.move(history.entryAt(i));
+        }
+        return moves;
+    }
+
+    public GameState snapshot() {
+        return state;
+    }
+
+    public boolean isAiTurn() {
+        return isAiTurn(state);
+    }
+
+    public boolean isAiTurn(GameState snapshot) {
         if (settings.gameModeProperty().get() == GameMode.TWO_PLAYER) {
             return false;
         }
-        return board.getSideToMove() == Side.BLACK;
+        return snapshot.turn() == Side.BLACK;
     }
 
-    public synchronized Side getTurn() {
-        return board.getSideToMove();
+    public Side getTurn() {
+        return state.turn();
     }
 
-    public synchronized Piece pieceAt(String square) {
-        return board.getPiece(toSquare(square));
+    public Piece pieceAt(String square) {
+        return state.pieceAt(square);
     }
 
-    public synchronized List<String> legalTargets(String fromSquare) {
-        Square from = toSquare(fromSquare);
-        ensureLegalMovesCache();
-        List<String> targets = new ArrayList<>();
-        for (Move move : cachedMovesByFrom.getOrDefault(from, Collections.emptyList())) {
-            targets.add(move.getTo().value().toLowerCase());
-        }
-        return targets;
+    public Piece pieceAt(int square) {
+        return state.pieceAt(square);
+    }
+
+    public List<String> legalTargets(String fromSquare) {
+        return state.legalTargets(fromSquare);
+    }
+
+    public long legalTargets(int fromSquare) {
+        return state.legalTargets(fromSquare);
     }
 
     public synchronized MoveOutcome playHumanMove(String fromSquare, String toSquare) {
-        return applyMove(fromSquare, toSquare, true);
+        return applyMove(Squares.index(fromSquare), Squares.index(toSquare), Piece.NONE, true);
+    }
+
+    public synchronized MoveOutcome playHumanMove(int fromSquare, int toSquare) {
+        return applyMove(fromSquare, toSquare, Piece.NONE, true);
+    }
+
+    public synchronized MoveOutcome playMove(int move, boolean humanMove) {
+        return applyMove(Moves.from(move), Moves.to(move), Moves.promotion(move), humanMove);
     }
 
     public synchronized MoveOutcome playAiMove(String uciMove) {
-        if (uciMove == null || uciMove.length() < 4) {
+        int move = Moves.parseUci(uciMove, board.getSideToMove());
+        if (move == Moves.NONE) {
             return MoveOutcome.invalid("AI could not find a valid move.");
         }
-        return applyMove(uciMove.substring(0, 2), uciMove.substring(2, 4), false);
+        return playMove(move, false);
     }
 
-    public synchronized boolean isGameOver() {
-        return board.isMated() || board.isDraw();
+    public synchronized boolean takeBack() {
+        if (!history.canTakeBack()) {
+            return false;
+        }
+        int target = history.ply() - 1;
+        if (target >= boardBasePly) {
+            board.undoMove();
+            uncapture(history.entryAt(target));
+        } else {
+            reloadFromKeyframe(target);
+        }
+        history.seek(target);
+        positionHistory.seek(target, board);
+        invalidateLegalMovesCache();
+        state = buildState();
+        return true;
     }
 
-    public synchronized String gameStatusText() {
-        if (board.isMated()) {
-            Side winner = board.getSideToMove().flip();
-            return "Checkmate. Winner: " + winner.name();
-        }
-        if (board.isDraw()) {
-            return "Game ended in draw.";
+    public synchronized boolean redo() {
+        if (!history.canRedo()) {
+            return false;
         }
-        return "In progress";
+        int ply = history.ply();
+        replay(history.entryAt(ply));
+        history.seek(ply + 1);
+        positionHistory.seek(ply + 1, board);
+        invalidateLegalMovesCache();
+        state = buildState();
+        return true;
     }
 
-    public synchronized Map<String, Piece> currentPosition() {
-        Map<String, Piece> map = new LinkedHashMap<>();
-        for (Square square : Square.values()) {
-            if (square == Square.NONE) {
-                continue;
+    public synchronized boolean jumpTo(int targetPly) {
+        if (targetPly < 0 || targetPly > history.size()) {
+            return false;
+        }
+        int ply = history.ply();
+        if (targetPly == ply) {
+            return true;
+        }
+        int keyframePly = history.keyframePly(targetPly);
+        if (targetPly > ply && keyframePly <= ply) {
+            for (int i = ply; i < targetPly; i++) {
+                replay(history.entryAt(i));
+            }
+        } else if (targetPly < ply && targetPly >= boardBasePly && ply - targetPly <= targetPly - keyframePly) {
+            for (int i = ply - 1; i >= targetPly; i--) {
+                board.undoMove();
+                uncapture(history.entryAt(i));
             }
-            map.put(square.value().toLowerCase(), board.getPiece(square));
+        } else {
+            reloadFromKeyframe(targetPly);
         }
-        return map;
+        history.seek(targetPly);
+        positionHistory.seek(targetPly, board);
+        invalidateLegalMovesCache();
+        state = buildState();
+        return true;
     }
 
-    public synchronized List<String> moveHistory() {
-        return List.copyOf(moveHistory);
+    public boolean isGameOver() {
+        return state.gameOver();
+    }
+
+    public GameResult result() {
+        return state.result();
+    }
+
+    public String gameStatusText() {
+        return state.statusText();
+    }
+
+    public BoardSnapshot currentPosition() {
+        return state.position();
+    }
+
+    public List<String> moveHistory() {
+        return state.moveHistory();
     }
 
     public synchronized Board copyBoard() {
         return board.clone();
     }
 
-    public synchronized String currentFen() {
-        return board.getFen();
+    public String currentFen() {
+        return state.fen();
     }
 
-    public synchronized List<Piece> capturedByWhite() {
-        return List.copyOf(capturedByWhite);
+    public List<Piece> capturedByWhite() {
+        return state.capturedByWhite();
     }
 
-    public synchronized List<Piece> capturedByBlack() {
-        return List.copyOf(capturedByBlack);
+    public List<Piece> capturedByBlack() {
+        return state.capturedByBlack();
     }
 
-    private MoveOutcome applyMove(String fromSquare, String toSquare, boolean humanMove) {
-        Square from = toSquare(fromSquare);
-        Square to = toSquare(toSquare);
+    private MoveOutcome applyMove(int fromSquare, int toSquare, Piece promotion, boolean humanMove) {
+        if (fromSquare == Squares.NONE || toSquare == Squares.NONE || !state.legalMoves().isLegal(fromSquare, toSquare)) {
+            return MoveOutcome.invalid("Illegal move.");
+        }
+        Square from = Square.squareAt(fromSquare);
+        Square to = Square.squareAt(toSquare);
 
         ensureLegalMovesCache();
-        List<Move> candidates = new ArrayList<>();
+        Piece preferredPromotion = promotion != Piece.NONE
+            ? promotion
+            : board.getSideToMove() == Side.WHITE ? Piece.WHITE_QUEEN : Piece.BLACK_QUEEN;
+        Move selectedMove = null;
         for (Move move : cachedMovesByFrom.getOrDefault(from, Collections.emptyList())) {
-            if (move.getTo() == to) {
-                candidates.add(move);
+            if (move.getTo() != to) {
+                continue;
+            }
+            if (selectedMove == null || move.getPromotion() == preferredPromotion) {
+                selectedMove = move;
             }
         }
-        if (candidates.isEmpty()) {
+        if (selectedMove == null) {
             return MoveOutcome.invalid("Illegal move.");
         }
 
-        Move selectedMove = candidates.get(0);
-        if (candidates.size() > 1) {
-            Piece preferredPromotion = board.getSideToMove() == Side.WHITE ? Piece.WHITE_QUEEN : Piece.BLACK_QUEEN;
-            for (Move candidate : candidates) {
-                if (candidate.getPromotion() == preferredPromotion) {
-                    selectedMove = candidate;
-                    break;
-                }
-            }
-        }
-
-        Piece targetBeforeMove = board.getPiece(to);
-        Piece movingPiece = board.getPiece(from);
-        board.doMove(selectedMove);
-        invalidateLegalMovesCache();
-        String notation = selectedMove.getFrom().value().toLowerCase() + " -> " + selectedMove.getTo().value().toLowerCase();
-        moveHistory.add(notation);
-
-        if (targetBeforeMove != Piece.NONE) {
-            if (movingPiece.getPieceSide() == Side.WHITE) {
-                capturedByWhite.add(targetBeforeMove);
-            } else {
-                capturedByBlack.add(targetBeforeMove);
-            }
+        long entry = makeMove(selectedMove);
+        if (MoveHistory.capturedPiece(entry) != Piece.NONE) {
             audioService.play(SoundEffect.CAPTURE);
         } else {
             audioService.play(SoundEffect.MOVE);
         }
-        if (board.isKingAttacked()) {
+        GameState next = buildState();
+        state = next;
+        if (next.inCheck()) {
             audioService.play(SoundEffect.CHECK);
         }
-        if (board.isMated() || board.isDraw()) {
+        if (next.gameOver()) {
             audioService.play(SoundEffect.GAME_END);
         }
 
-        return MoveOutcome.valid(
-            notation,
-            humanMove,
-            selectedMove.getFrom().value().toLowerCase(),
-            selectedMove.getTo().value().toLowerCase(),
-            movingPiece
+        return MoveOutcome.valid(history.sanAt(history.ply() - 1), humanMove, MoveHistory.move(entry), MoveHistory.movedPiece(entry));
+    }
+
+    private Move findLegalMove(int packedMove) {
+        Square to = Square.squareAt(Moves.to(packedMove));
+        Piece promotion = Moves.promotion(packedMove);
+        for (Move move : cachedMovesByFrom.getOrDefault(Square.squareAt(Moves.from(packedMove)), Collections.emptyList())) {
+            Piece candidate = move.getPromotion() == null ? Piece.NONE : move.getPromotion();
+            if (move.getTo() == to && candidate == promotion) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    private long makeMove(Move move) {
+        Piece moving = board.getPiece(move.getFrom());
+        Piece captured = board.getPiece(move.getTo());
+        boolean pawnMove = moving.getPieceType() == PieceType.PAWN;
+        boolean enPassant = pawnMove && captured == Piece.NONE && move.getFrom().getFile() != move.getTo().getFile();
+        if (enPassant) {
+            captured = moving.getPieceSide() == Side.WHITE ? Piece.BLACK_PAWN : Piece.WHITE_PAWN;
+        }
+        boolean castle = moving.getPieceType() == PieceType.KING
+            && Math.abs(move.getFrom().ordinal() - move.getTo().ordinal()) == 2;
+        boolean promoted = move.getPromotion() != null && move.getPromotion() != Piece.NONE;
+        String san = SanFormatter.format(board, move, cachedLegalMoves);
+
+        board.doMove(move);
+        invalidateLegalMovesCache();
+        ensureLegalMovesCache();
+        san = SanFormatter.withCheckSuffix(san, board.isKingAttacked(), cachedLegalMoves.isEmpty());
+
+        long entry = MoveHistory.entry(Moves.pack(move), moving, captured, enPassant, castle);
+        history.record(entry, san, board);
+        positionHistory.record(board, pawnMove || captured != Piece.NONE, captured != Piece.NONE || promoted);
+        capture(entry);
+        return entry;
+    }
+
+    private void replay(long entry) {
+        board.doMove(MoveHistory.toMove(entry));
+        capture(entry);
+    }
+
+    private void reloadFromKeyframe(int targetPly) {
+        int keyframePly = history.keyframePly(targetPly);
+        board.loadFromFen(history.keyframeFen(targetPly));
+        boardBasePly = keyframePly;
+        for (int i = keyframePly; i < targetPly; i++) {
+            board.doMove(MoveHistory.toMove(history.entryAt(i)));
+        }
+        capturedByWhite.clear();
+        capturedByWhite.addAll(baseCapturedByWhite);
+        capturedByBlack.clear();
+        capturedByBlack.addAll(baseCapturedByBlack);
+        for (int i = 0; i < targetPly; i++) {
+            capture(history.entryAt(i));
+        }
+    }
+
+    private void capture(long entry) {
+        Piece captured = MoveHistory.capturedPiece(entry);
+        if (captured == Piece.NONE) {
+            return;
+        }
+        if (captured.getPieceSide() == Side.BLACK) {
+            capturedByWhite.add(captured);
+        } else {
+            capturedByBlack.add(captured);
+        }
+    }
+
+    private void uncapture(long entry) {
+        Piece captured = MoveHistory.capturedPiece(entry);
+        if (captured == Piece.NONE) {
+            return;
+        }
+        List<Piece> pieces = captured.getPieceSide() == Side.BLACK ? capturedByWhite : capturedByBlack;
+        if (!pieces.isEmpty()) {
+            pieces.remove(pieces.size() - 1);
+        }
+    }
+
+    private GameState buildState() {
+        ensureLegalMovesCache();
+        GameState previous = state;
+        BoardSnapshot position = BoardSnapshot.of(board, previous == null ? null : previous.position());
+
+        boolean inCheck = board.isKingAttacked();
+        GameResult result = evaluateResult(inCheck);
+        String statusText = switch (result) {
+            case IN_PROGRESS -> result.toString();
+            case CHECKMATE -> "Checkmate. Winner: " + board.getSideToMove().flip().name();
+            default -> result + ".";
+        };
+
+        return new GameState(
+            board.getFen(),
+            board.getSideToMove(),
+            position,
+            history.notation(),
+            history.ply(),
+            history.size(),
+            List.copyOf(capturedByWhite),
+            List.copyOf(capturedByBlack),
+            LegalMoveTable.of(cachedLegalMoves),
+            positionHistory.currentKey(),
+            positionHistory.halfmoveClock(),
+            inCheck,
+            result,
+            statusText
         );
     }
 
-    private Square toSquare(String value) {
-        return Square.valueOf(value.toUpperCase());
+    private GameResult evaluateResult(boolean inCheck) {
+        if (cachedLegalMoves.isEmpty()) {
+            return inCheck ? GameResult.CHECKMATE : GameResult.STALEMATE;
+        }
+        if (positionHistory.isInsufficientMaterial()) {
+            return GameResult.INSUFFICIENT_MATERIAL;
+        }
+        if (positionHistory.isThreefoldRepetition()) {
+            return GameResult.THREEFOLD_REPETITION;
+        }
+        if (positionHistory.isFiftyMoveRule()) {
+            return GameResult.FIFTY_MOVE_RULE;
+        }
+        return GameResult.IN_PROGRESS;
     }
 
     private List<Move> legalMoves() {
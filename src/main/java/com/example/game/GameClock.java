@@ -0,0 +1,181 @@
+package com.example.game;
+
+import com.example.config.TimeControl;
+import com.github.bhlangonijr.chesslib.Side;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class GameClock {
+
+    private static final ScheduledExecutorService FLAG_TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "game-clock");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Consumer<Side> flagListener;
+    private TimeControl timeControl = TimeControl.NONE;
+    private long whiteRemainingNanos;
+    private long blackRemainingNanos;
+    private Side toMove = Side.WHITE;
+    private boolean running;
+    private long segmentStartedAt;
+    private long turnUsedNanos;
+    private Side flagged;
+    private ScheduledFuture<?> flagTask;
+    private long generation;
+
+    public GameClock(Consumer<Side> flagListener) {
+        this.flagListener = flagListener;
+    }
+
+    public synchronized void reset(TimeControl timeControl, Side toMove) {
+        pause();
+        this.timeControl = timeControl;
+        this.toMove = toMove;
+        long base = TimeUnit.MILLISECONDS.toNanos(timeControl.baseMillis());
+        whiteRemainingNanos = base;
+        blackRemainingNanos = base;
+        turnUsedNanos = 0L;
+        flagged = null;
+    }
+
+    public synchronized void restartTurn(Side toMove) {
+        boolean wasRunning = running;
+        pause();
+        this.toMove = toMove;
+        turnUsedNanos = 0L;
+        if (timeControl.isPerTurn()) {
+            setRemaining(toMove, TimeUnit.MILLISECONDS.toNanos(timeControl.baseMillis()));
+            flagged = null;
+        }
+        if (wasRunning) {
+            start();
+        }
+    }
+
+    public synchronized void start() {
+        if (running || flagged != null || !timeControl.isEnabled()) {
+            return;
+        }
+        running = true;
+        segmentStartedAt = System.nanoTime();
+        armFlagTimer();
+    }
+
+    public synchronized void pause() {
+        if (!running) {
+            return;
+        }
+        long elapsed = System.nanoTime() - segmentStartedAt;
+        setRemaining(toMove, remaining(toMove) - elapsed);
+        turnUsedNanos += elapsed;
+        running = false;
+        cancelFlagTimer();
+    }
+
+    public synchronized boolean switchTurn() {
+        if (!timeControl.isEnabled() || flagged != null) {
+            toMove = toMove.flip();
+            return flagged == null;
+        }
+        boolean wasRunning = running;
+        pause();
+        Side mover = toMove;
+        if (remaining(mover) <= 0L) {
+            flagged = mover;
+            return false;
+        }
+
+        long increment = TimeUnit.MILLISECONDS.toNanos(timeControl.incrementMillis());
+        switch (timeControl.mode()) {
+            case FISCHER -> setRemaining(mover, remaining(mover) + increment);
+            case BRONSTEIN -> setRemaining(mover, remaining(mover) + Math.min(increment, turnUsedNanos));
+            case PER_TURN -> {
+            }
+        }
+
+        toMove = mover.flip();
+        turnUsedNanos = 0L;
+        if (timeControl.isPerTurn()) {
+            setRemaining(toMove, TimeUnit.MILLISECONDS.toNanos(timeControl.baseMillis()));
+        }
+        if (wasRunning) {
+            start();
+        }
+        return true;
+    }
+
+    public synchronized long remainingMillis(Side side) {
+        long remaining = remaining(side);
+        if (running && side == toMove) {
+            remaining -= System.nanoTime() - segmentStartedAt;
+        }
+        return Math.max(0L, TimeUnit.NANOSECONDS.toMillis(remaining));
+    }
+
+    public synchronized TimeControl timeControl() {
+        return timeControl;
+    }
+
+    public synchronized Side toMove() {
+        return toMove;
+    }
+
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    public synchronized Side flaggedSide() {
+        return flagged;
+    }
+
+    private void armFlagTimer() {
+        cancelFlagTimer();
+        long token = ++generation;
+        long delay = Math.max(0L, remaining(toMove) - (System.nanoTime() - segmentStartedAt));
+        flagTask = FLAG_TIMER.schedule(() -> onFlagTimer(token), delay, TimeUnit.NANOSECONDS);
+    }
+
+    private void cancelFlagTimer() {
+        generation++;
+        if (flagTask != null) {
+            flagTask.cancel(false);
+            flagTask = null;
+        }
+    }
+
+    private void onFlagTimer(long token) {
+        Side fallen;
+        synchronized (this) {
+            if (token != generation || !running) {
+                return;
+            }
+            long left = remaining(toMove) - (System.nanoTime() - segmentStartedAt);
+            if (left > 0L) {
+                armFlagTimer();
+                return;
+            }
+            pause();
+            flagged = toMove;
+            fallen = flagged;
+        }
+        flagListener.accept(fallen);
+    }
+
+    private long remaining(Side side) {
+        return side == Side.WHITE ? whiteRemainingNanos : blackRemainingNanos;
+    }
+
+    private void setRemaining(Side side, long nanos) {
+        if (side == Side.WHITE) {
+            whiteRemainingNanos = nanos;
+        } else {
+            blackRemainingNanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.game;
+
+public enum GameResult {
+    IN_PROGRESS("In progress"),
+    CHECKMATE("Checkmate"),
+    STALEMATE("Draw by stalemate"),
+    THREEFOLD_REPETITION("Draw by threefold repetition"),
+    FIFTY_MOVE_RULE("Draw by fifty-move rule"),
+    INSUFFICIENT_MATERIAL("Draw by insufficient material");
+
+    private final String label;
+
+    GameResult(String label) {
+        this.label = label;
+    }
+
+    public boolean isOver() {
+        return this != IN_PROGRESS;
+    }
+
+    public boolean isDraw() {
+        return this != IN_PROGRESS && this != CHECKMATE;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
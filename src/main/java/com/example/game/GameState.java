@@ -0,0 +1,60 @@
+package com.example.game;
+
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.Side;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record GameState(
+    String fen,
+    Side turn,
+    BoardSnapshot position,
+    List<String> moveHistory,
+    int ply,
+    int plyCount,
+    List<Piece> capturedByWhite,
+    List<Piece> capturedByBlack,
+    LegalMoveTable legalMoves,
+    long positionKey,
+    int halfmoveClock,
+    boolean inCheck,
+    GameResult result,
+    String statusText
+) {
+
+    public boolean gameOver() {
+        return result.isOver();
+    }
+
+    public boolean canTakeBack() {
+        return ply > 0;
+    }
+
+    public boolean canRedo() {
+        return ply < plyCount;
+    }
+
+    public Piece pieceAt(String square) {
+        int index = Squares.index(square);
+        return index == Squares.NONE ? Piece.NONE : position.pieceAt(index);
+    }
+
+    public Piece pieceAt(int square) {
+        return position.pieceAt(square);
+    }
+
+    public long legalTargets(int fromSquare) {
+        return legalMoves.targets(fromSquare);
+    }
+
+    public List<String> legalTargets(String fromSquare) {
+        long targets = legalMoves.targets(Squares.index(fromSquare));
+        List<String> names = new ArrayList<>(Long.bitCount(targets));
+        while (targets != 0L) {
+            names.add(Squares.name(Long.numberOfTrailingZeros(targets)));
+            targets &= targets - 1;
+        }
+        return names;
+    }
+}
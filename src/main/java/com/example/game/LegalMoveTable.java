@@ -0,0 +1,64 @@
+package com.example.game;
+
+import com.github.bhlangonijr.chesslib.move.Move;
+
+import java.util.List;
+
+public final class LegalMoveTable {
+
+    private static final LegalMoveTable EMPTY = new LegalMoveTable(new long[64], new int[0], 0L);
+
+    private final long[] targetsByFrom;
+    private final int[] moves;
+    private final long movableSquares;
+
+    private LegalMoveTable(long[] targetsByFrom, int[] moves, long movableSquares) {
+        this.targetsByFrom = targetsByFrom;
+        this.moves = moves;
+        this.movableSquares = movableSquares;
+    }
+
+    public static LegalMoveTable empty() {
+        return EMPTY;
+    }
+
+    public static LegalMoveTable of(List<Move> legalMoves) {
+        if (legalMoves.isEmpty()) {
+            return EMPTY;
+        }
+        long[] targets = new long[64];
+        int[] packed = new int[legalMoves.size()];
+        long movable = 0L;
+        for (int i = 0; i < packed.length; i++) {
+            int move = Moves.pack(legalMoves.get(i));
+            packed[i] = move;
+            targets[Moves.from(move)] |= 1L << Moves.to(move);
+            movable |= 1L << Moves.from(move);
+        }
+        return new LegalMoveTable(targets, packed, movable);
+    }
+
+    public long targets(int fromSquare) {
+        return fromSquare >= 0 && fromSquare < 64 ? targetsByFrom[fromSquare] : 0L;
+    }
+
+    public boolean isLegal(int fromSquare, int toSquare) {
+        return (targets(fromSquare) & (1L << toSquare)) != 0L;
+    }
+
+    public long movableSquares() {
+        return movableSquares;
+    }
+
+    public int size() {
+        return moves.length;
+    }
+
+    public int move(int index) {
+        return moves[index];
+    }
+
+    public boolean isEmpty() {
+        return moves.length == 0;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.game;
+
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class MoveHistory {
+
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 16;
+
+    private static final int MOVED_SHIFT = 16;
+    private static final int CAPTURED_SHIFT = 20;
+    private static final long EN_PASSANT_FLAG = 1L << 24;
+    private static final long CASTLE_FLAG = 1L << 25;
+
+    private final int keyframeInterval;
+    private final List<String> keyframes = new ArrayList<>();
+    private final List<String> legacyNotation = new ArrayList<>();
+    private long[] entries = new long[64];
+    private String[] sans = new String[64];
+    private int size;
+    private int ply;
+
+    public MoveHistory() {
+        this(DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    public MoveHistory(int keyframeInterval) {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("keyframeInterval must be positive");
+        }
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    public static long entry(int move, Piece moved, Piece captured, boolean enPassant, boolean castle) {
+        long entry = (move & 0xFFFFL)
+            | (long) BoardSnapshot.encode(moved) << MOVED_SHIFT
+            | (long) BoardSnapshot.encode(captured) << CAPTURED_SHIFT;
+        if (enPassant) {
+            entry |= EN_PASSANT_FLAG;
+        }
+        if (castle) {
+            entry |= CASTLE_FLAG;
+        }
+        return entry;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFFL);
+    }
+
+    public static Piece movedPiece(long entry) {
+        return BoardSnapshot.decode((byte) ((entry >>> MOVED_SHIFT) & 0xF));
+    }
+
+    public static Piece capturedPiece(long entry) {
+        return BoardSnapshot.decode((byte) ((entry >>> CAPTURED_SHIFT) & 0xF));
+    }
+
+    public static boolean isEnPassant(long entry) {
+        return (entry & EN_PASSANT_FLAG) != 0L;
+    }
+
+    public static boolean isCastle(long entry) {
+        return (entry & CASTLE_FLAG) != 0L;
+    }
+
+    public static Move toMove(long entry) {
+        int move = move(entry);
+        return new Move(Square.squareAt(Moves.from(move)), Square.squareAt(Moves.to(move)), Moves.promotion(move));
+    }
+
+    public void reset(String startFen, List<String> priorNotation) {
+        keyframes.clear();
+        keyframes.add(startFen);
+        legacyNotation.clear();
+        if (priorNotation != null) {
+            legacyNotation.addAll(priorNotation);
+        }
+        size = 0;
+        ply = 0;
+    }
+
+    public void record(long entry, String san, Board boardAfter) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+            sans = Arrays.copyOf(sans, size * 2);
+        }
+        int keep = ply / keyframeInterval + 1;
+        while (keyframes.size() > keep) {
+            keyframes.remove(keyframes.size() - 1);
+        }
+        entries[ply] = entry;
+        sans[ply] = san;
+        ply++;
+        size = ply;
+        if (ply % keyframeInterval == 0) {
+            keyframes.add(boardAfter.getFen());
+        }
+    }
+
+    public void seek(int targetPly) {
+        if (targetPly < 0 || targetPly > size) {
+            throw new IllegalArgumentException("ply " + targetPly + " outside history of " + size);
+        }
+        ply = targetPly;
+    }
+
+    public int ply() {
+        return ply;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean canTakeBack() {
+        return ply > 0;
+    }
+
+    public boolean canRedo() {
+        return ply < size;
+    }
+
+    public long entryAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("ply " + index + " outside history of " + size);
+        }
+        return entries[index];
+    }
+
+    public String sanAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("ply " + index + " outside history of " + size);
+        }
+        return sans[index];
+    }
+
+    public int keyframePly(int targetPly) {
+        return targetPly / keyframeInterval * keyframeInterval;
+    }
+
+    public String keyframeFen(int targetPly) {
+        return keyframes.get(targetPly / keyframeInterval);
+    }
+
+    public List<String> priorNotation() {
+        return List.copyOf(legacyNotation);
+    }
+
+    public List<String> notation() {
+        List<String> notation = new ArrayList<>(legacyNotation.size() + ply);
+        notation.addAll(legacyNotation);
+        notation.addAll(Arrays.asList(sans).subList(0, ply));
+        return List.copyOf(notation);
+    }
+}
@@ -6,16 +6,31 @@ public record MoveOutcome(
     boolean valid,
     String message,
     boolean humanMove,
-    String fromSquare,
-    String toSquare,
+    int move,
     Piece movedPiece
 ) {
 
-    public static MoveOutcome valid(String notation, boolean humanMove, String fromSquare, String toSquare, Piece movedPiece) {
-        return new MoveOutcome(true, notation, humanMove, fromSquare, toSquare, movedPiece);
+    public static MoveOutcome valid(String notation, boolean humanMove, int move, Piece movedPiece) {
+        return new MoveOutcome(true, notation, humanMove, move, movedPiece);
     }
 
     public static MoveOutcome invalid(String message) {
-        return new MoveOutcome(false, message, false, null, null, Piece.NONE);
+        return new MoveOutcome(false, message, false, Moves.NONE, Piece.NONE);
+    }
+
+    public int from() {
+        return valid ? Moves.from(move) : Squares.NONE;
+    }
+
+    public int to() {
+        return valid ? Moves.to(move) : Squares.NONE;
+    }
+
+    public String fromSquare() {
+        return Squares.name(from());
+    }
+
+    public String toSquare() {
+        return Squares.name(to());
     }
 }
@@ -0,0 +1,77 @@
+package com.example.game;
+
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+public final class Moves {
+
+    public static final int NONE = 0;
+
+    private Moves() {
+    }
+
+    public static int pack(int from, int to, Piece promotion) {
+        return from | to << 6 | BoardSnapshot.encode(promotion) << 12;
+    }
+
+    public static int pack(Move move) {
+        return pack(move.getFrom().ordinal(), move.getTo().ordinal(), move.getPromotion());
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static Piece promotion(int move) {
+        return BoardSnapshot.decode((byte) ((move >>> 12) & 0xF));
+    }
+
+    public static String toUci(int move) {
+        String uci = Squares.name(from(move)) + Squares.name(to(move));
+        char symbol = promotionSymbol(promotion(move));
+        return symbol == 0 ? uci : uci + symbol;
+    }
+
+    public static int parseUci(String uci, Side sideToMove) {
+        if (uci == null || uci.length() < 4) {
+            return NONE;
+        }
+        int from = Squares.index(uci.substring(0, 2));
+        int to = Squares.index(uci.substring(2, 4));
+        if (from == Squares.NONE || to == Squares.NONE) {
+            return NONE;
+        }
+        PieceType promotionType = uci.length() > 4 ? promotionType(uci.charAt(4)) : PieceType.NONE;
+        Piece promotion = promotionType == PieceType.NONE ? Piece.NONE : Piece.make(sideToMove, promotionType);
+        return pack(from, to, promotion);
+    }
+
+    public static char promotionSymbol(Piece promotion) {
+        if (promotion == null || promotion == Piece.NONE) {
+            return 0;
+        }
+        return switch (promotion.getPieceType()) {
+            case KNIGHT -> 'n';
+            case BISHOP -> 'b';
+            case ROOK -> 'r';
+            case QUEEN -> 'q';
+            default -> 0;
+        };
+    }
+
+    private static PieceType promotionType(char symbol) {
+        return switch (Character.toLowerCase(symbol)) {
+            case 'n' -> PieceType.KNIGHT;
+            case 'b' -> PieceType.BISHOP;
+            case 'r' -> PieceType.ROOK;
+            case 'q' -> PieceType.QUEEN;
+            default -> PieceType.NONE;
+        };
+    }
+}
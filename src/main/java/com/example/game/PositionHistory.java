@@ -0,0 +1,126 @@
+package com.example.game;
+
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class PositionHistory {
+
+    public static final int FIFTY_MOVE_PLIES = 100;
+
+    private static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
+    private final Map<Long, Integer> repetitionsSinceReset = new HashMap<>();
+    private long[] keys = new long[128];
+    private int[] clocks = new int[128];
+    private int size;
+    private int current;
+    private int maxRepetitions;
+    private boolean insufficientMaterial;
+
+    public void reset(Board board) {
+        size = 0;
+        current = 0;
+        repetitionsSinceReset.clear();
+        maxRepetitions = 0;
+        Integer counter = board.getHalfMoveCounter();
+        insufficientMaterial = hasInsufficientMaterial(board);
+        append(board.getZobristKey(), counter == null ? 0 : counter);
+    }
+
+    public void record(Board board, boolean irreversible, boolean materialChanged) {
+        int clock;
+        if (irreversible) {
+            clock = 0;
+            repetitionsSinceReset.clear();
+            maxRepetitions = 0;
+        } else {
+            clock = clocks[current - 1] + 1;
+        }
+        if (materialChanged) {
+            insufficientMaterial = hasInsufficientMaterial(board);
+        }
+        append(board.getZobristKey(), clock);
+    }
+
+    public void seek(int ply, Board board) {
+        if (ply < 0 || ply >= size) {
+            throw new IndexOutOfBoundsException("ply " + ply + " outside history of " + size);
+        }
+        current = ply + 1;
+        repetitionsSinceReset.clear();
+        maxRepetitions = 0;
+        for (int i = Math.max(0, ply - clocks[ply]); i <= ply; i++) {
+            count(keys[i]);
+        }
+        insufficientMaterial = hasInsufficientMaterial(board);
+    }
+
+    public long currentKey() {
+        return current == 0 ? 0L : keys[current - 1];
+    }
+
+    public int halfmoveClock() {
+        return current == 0 ? 0 : clocks[current - 1];
+    }
+
+    public int plies() {
+        return current - 1;
+    }
+
+    public long keyAt(int ply) {
+        if (ply < 0 || ply >= size) {
+            throw new IndexOutOfBoundsException("ply " + ply + " outside history of " + size);
+        }
+        return keys[ply];
+    }
+
+    public boolean isThreefoldRepetition() {
+        return maxRepetitions >= 3;
+    }
+
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock() >= FIFTY_MOVE_PLIES;
+    }
+
+    public boolean isInsufficientMaterial() {
+        return insufficientMaterial;
+    }
+
+    private void append(long key, int clock) {
+        size = current;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            clocks = Arrays.copyOf(clocks, size * 2);
+        }
+        keys[size] = key;
+        clocks[size] = clock;
+        size++;
+        current = size;
+        count(key);
+    }
+
+    private void count(long key) {
+        int count = repetitionsSinceReset.merge(key, 1, Integer::sum);
+        maxRepetitions = Math.max(maxRepetitions, count);
+    }
+
+    static boolean hasInsufficientMaterial(Board board) {
+        long heavy = board.getBitboard(Piece.WHITE_PAWN) | board.getBitboard(Piece.BLACK_PAWN)
+            | board.getBitboard(Piece.WHITE_ROOK) | board.getBitboard(Piece.BLACK_ROOK)
+            | board.getBitboard(Piece.WHITE_QUEEN) | board.getBitboard(Piece.BLACK_QUEEN);
+        if (heavy != 0L) {
+            return false;
+        }
+        long knights = board.getBitboard(Piece.WHITE_KNIGHT) | board.getBitboard(Piece.BLACK_KNIGHT);
+        long bishops = board.getBitboard(Piece.WHITE_BISHOP) | board.getBitboard(Piece.BLACK_BISHOP);
+        int minors = Long.bitCount(knights | bishops);
+        if (minors <= 1) {
+            return true;
+        }
+        return knights == 0L && ((bishops & LIGHT_SQUARES) == 0L || (bishops & ~LIGHT_SQUARES) == 0L);
+    }
+}
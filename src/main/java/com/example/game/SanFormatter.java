@@ -0,0 +1,90 @@
+package com.example.game;
+
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+import java.util.List;
+
+public final class SanFormatter {
+
+    private SanFormatter() {
+    }
+
+    public static String format(Board before, Move move, List<Move> legalMoves) {
+        int from = move.getFrom().ordinal();
+        int to = move.getTo().ordinal();
+        Piece mover = before.getPiece(move.getFrom());
+        PieceType type = mover.getPieceType();
+
+        if (type == PieceType.KING && Math.abs(Squares.file(to) - Squares.file(from)) == 2) {
+            return Squares.file(to) > Squares.file(from) ? "O-O" : "O-O-O";
+        }
+
+        boolean capture = before.getPiece(move.getTo()) != Piece.NONE
+            || (type == PieceType.PAWN && Squares.file(from) != Squares.file(to));
+        StringBuilder san = new StringBuilder(8);
+        if (type == PieceType.PAWN) {
+            if (capture) {
+                san.append((char) ('a' + Squares.file(from)));
+            }
+        } else {
+            san.append(pieceLetter(type));
+            appendDisambiguation(san, before, mover, from, to, legalMoves);
+        }
+        if (capture) {
+            san.append('x');
+        }
+        san.append(Squares.name(to));
+
+        char promotion = Moves.promotionSymbol(move.getPromotion());
+        if (promotion != 0) {
+            san.append('=').append(Character.toUpperCase(promotion));
+        }
+        return san.toString();
+    }
+
+    public static String withCheckSuffix(String san, boolean inCheck, boolean noLegalMoves) {
+        if (!inCheck) {
+            return san;
+        }
+        return san + (noLegalMoves ? '#' : '+');
+    }
+
+    private static void appendDisambiguation(StringBuilder san, Board before, Piece mover, int from, int to, List<Move> legalMoves) {
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (Move other : legalMoves) {
+            int otherFrom = other.getFrom().ordinal();
+            if (otherFrom == from || other.getTo().ordinal() != to || before.getPiece(other.getFrom()) != mover) {
+                continue;
+            }
+            ambiguous = true;
+            sameFile |= Squares.file(otherFrom) == Squares.file(from);
+            sameRank |= Squares.rank(otherFrom) == Squares.rank(from);
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            san.append((char) ('a' + Squares.file(from)));
+        } else if (!sameRank) {
+            san.append((char) ('1' + Squares.rank(from)));
+        } else {
+            san.append(Squares.name(from));
+        }
+    }
+
+    private static char pieceLetter(PieceType type) {
+        return switch (type) {
+            case KNIGHT -> 'N';
+            case BISHOP -> 'B';
+            case ROOK -> 'R';
+            case QUEEN -> 'Q';
+            case KING -> 'K';
+            default -> '?';
+        };
+    }
+}
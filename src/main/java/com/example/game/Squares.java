@@ -0,0 +1,45 @@
+package com.example.game;
+
+public final class Squares {
+
+    public static final int NONE = -1;
+
+    private static final String[] NAMES = new String[64];
+
+    static {
+        for (int i = 0; i < 64; i++) {
+            NAMES[i] = String.valueOf((char) ('a' + (i & 7))) + (char) ('1' + (i >>> 3));
+        }
+    }
+
+    private Squares() {
+    }
+
+    public static int index(int file, int rank) {
+        return rank * 8 + file;
+    }
+
+    public static int index(String name) {
+        if (name == null || name.length() != 2) {
+            return NONE;
+        }
+        int file = Character.toLowerCase(name.charAt(0)) - 'a';
+        int rank = name.charAt(1) - '1';
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            return NONE;
+        }
+        return index(file, rank);
+    }
+
+    public static String name(int square) {
+        return square >= 0 && square < 64 ? NAMES[square] : null;
+    }
+
+    public static int file(int square) {
+        return square & 7;
+    }
+
+    public static int rank(int square) {
+        return square >>> 3;
+    }
+}
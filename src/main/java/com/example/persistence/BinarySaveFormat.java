@@ -0,0 +1,175 @@
+package com.example.persistence;
+
+import com.example.config.Difficulty;
+import com.example.config.GameMode;
+import com.example.config.Theme;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+public final class BinarySaveFormat {
+
+    public static final int MAGIC = 0x43534156;
+    public static final short VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+
+    private static final int CRC_BYTES = 4;
+    private static final int FLAG_SOUND = 1;
+
+    private static final int VERSION_OFFSET = 4;
+    private static final int FLAGS_OFFSET = 6;
+    private static final int SAVED_SECONDS_OFFSET = 8;
+    private static final int SAVED_NANOS_OFFSET = 16;
+    private static final int MODE_OFFSET = 20;
+    private static final int DIFFICULTY_OFFSET = 21;
+    private static final int THEME_OFFSET = 22;
+    private static final int MOVE_COUNT_OFFSET = 24;
+    private static final int BODY_LENGTH_OFFSET = 28;
+
+    private BinarySaveFormat() {
+    }
+
+    public static boolean isBinary(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_BYTES + CRC_BYTES) {
+            return false;
+        }
+        ByteBuffer magic = ByteBuffer.allocate(4);
+        while (magic.hasRemaining()) {
+            if (channel.read(magic, magic.position()) < 0) {
+                return false;
+            }
+        }
+        return magic.getInt(0) == MAGIC;
+    }
+
+    public static ByteBuffer encode(GameSaveRecord record) {
+        if (!record.hasMoveList()) {
+            throw new IllegalArgumentException("Binary saves need a start FEN and a move list");
+        }
+        byte[] id = BinaryIo.utf8(record.id());
+        byte[] name = BinaryIo.utf8(record.name());
+        byte[] startFen = BinaryIo.utf8(record.startFen());
+        byte[] fen = BinaryIo.utf8(record.fen());
+        List<String> prior = record.moveHistory() == null ? List.of() : record.moveHistory();
+        if (prior.size() > BinaryIo.MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Too many prior notation entries: " + prior.size());
+        }
+        List<byte[]> priorBytes = new ArrayList<>(prior.size());
+        int bodyLength = 8 + id.length + name.length + startFen.length + fen.length + 2 + record.moves().length * 2;
+        for (String notation : prior) {
+            byte[] bytes = BinaryIo.utf8(notation);
+            priorBytes.add(bytes);
+            bodyLength += 2 + bytes.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + bodyLength + CRC_BYTES);
+        Instant savedAt = record.savedAt() == null ? Instant.now() : record.savedAt();
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) (record.soundEnabled() ? FLAG_SOUND : 0));
+        buffer.putLong(savedAt.getEpochSecond());
+        buffer.putInt(savedAt.getNano());
+        buffer.put((byte) record.gameMode().ordinal());
+        buffer.put((byte) record.difficulty().ordinal());
+        buffer.put((byte) record.theme().ordinal());
+        buffer.put((byte) 0);
+        buffer.putInt(record.moves().length);
+        buffer.putInt(bodyLength);
+
+        BinaryIo.putString(buffer, id);
+        BinaryIo.putString(buffer, name);
+        BinaryIo.putString(buffer, startFen);
+        BinaryIo.putString(buffer, fen);
+        buffer.putShort((short) priorBytes.size());
+        for (byte[] bytes : priorBytes) {
+            BinaryIo.putString(buffer, bytes);
+        }
+        for (int move : record.moves()) {
+            buffer.putShort((short) move);
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    public static GameSaveRecord read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(file, channel);
+        }
+    }
+
+    public static GameSaveRecord read(Path file, FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES + CRC_BYTES || size > Integer.MAX_VALUE) {
+            throw new IOException("Not a binary save: " + file);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new IOException("Truncated save: " + file);
+            }
+        }
+        return decode(file, buffer.flip());
+    }
+
+    public static GameSaveRecord decode(Path file, ByteBuffer buffer) throws IOException {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary save: " + file);
+        }
+        short version = buffer.getShort(VERSION_OFFSET);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported save version " + version + ": " + file);
+        }
+        int bodyLength = buffer.getInt(BODY_LENGTH_OFFSET);
+        int crcOffset = HEADER_BYTES + bodyLength;
+        if (bodyLength < 0 || crcOffset + CRC_BYTES != buffer.limit()) {
+            throw new IOException("Truncated save: " + file);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, crcOffset));
+        if ((int) crc.getValue() != buffer.getInt(crcOffset)) {
+            throw new IOException("Checksum mismatch: " + file);
+        }
+
+        Instant savedAt = Instant.ofEpochSecond(buffer.getLong(SAVED_SECONDS_OFFSET), buffer.getInt(SAVED_NANOS_OFFSET));
+        boolean soundEnabled = (buffer.getShort(FLAGS_OFFSET) & FLAG_SOUND) != 0;
+        GameMode mode = BinaryIo.ordinal(GameMode.values(), buffer.get(MODE_OFFSET), GameMode.SINGLE_PLAYER);
+        Difficulty difficulty = BinaryIo.ordinal(Difficulty.values(), buffer.get(DIFFICULTY_OFFSET), Difficulty.MEDIUM);
+        Theme theme = BinaryIo.ordinal(Theme.values(), buffer.get(THEME_OFFSET), Theme.SANDSTONE);
+        int moveCount = buffer.getInt(MOVE_COUNT_OFFSET);
+
+        buffer.position(HEADER_BYTES).limit(crcOffset);
+        try {
+            String id = BinaryIo.getString(buffer);
+            String name = BinaryIo.getString(buffer);
+            String startFen = BinaryIo.getString(buffer);
+            String fen = BinaryIo.getString(buffer);
+            int priorCount = Short.toUnsignedInt(buffer.getShort());
+            List<String> prior = new ArrayList<>(priorCount);
+            for (int i = 0; i < priorCount; i++) {
+                prior.add(BinaryIo.getString(buffer));
+            }
+            if (moveCount < 0 || buffer.remaining() != moveCount * 2) {
+                throw new IOException("Move count mismatch: " + file);
+            }
+            int[] moves = new int[moveCount];
+            for (int i = 0; i < moveCount; i++) {
+                moves[i] = Short.toUnsignedInt(buffer.getShort());
+            }
+            return new GameSaveRecord(id, name, savedAt, fen, mode, difficulty, theme, soundEnabled,
+                List.copyOf(prior), file, startFen, moves);
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed save: " + file, e);
+        }
+    }
+}
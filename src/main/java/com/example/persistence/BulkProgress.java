@@ -0,0 +1,8 @@
+package com.example.persistence;
+
+public record BulkProgress(int done, int total, int failed) {
+
+    public double fraction() {
+        return total <= 0 ? 1.0 : Math.min(1.0, (double) done / total);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.persistence;
+
+import java.nio.file.Path;
+
+public record BulkResult<T>(Path file, T value, Exception error) {
+
+    public boolean succeeded() {
+        return error == null;
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+public final class GameJournal implements Closeable {
+
+    public static final String EXTENSION = ".journal";
+
+    private static final int MAGIC = 0x434A4E4C;
+    private static final short VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 4;
+    private static final int RECORD_FIXED_BYTES = 8 + 4 + 4 + 2;
+    private static final int CRC_BYTES = 4;
+    private static final int MAX_MOVES_PER_RECORD = 0xFFFF;
+
+    private final Path file;
+    private final FileChannel channel;
+    private int[] moves;
+    private int moveCount;
+    private Instant savedAt;
+    private long size;
+    private int records;
+    private volatile boolean dirty;
+
+    private GameJournal(Path file, FileChannel channel, int[] moves, int moveCount, Instant savedAt, long size, int records) {
+        this.file = file;
+        this.channel = channel;
+        this.moves = moves;
+        this.moveCount = moveCount;
+        this.savedAt = savedAt;
+        this.size = size;
+        this.records = records;
+    }
+
+    public static Path pathFor(Path saveFile) {
+        String name = saveFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return saveFile.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + EXTENSION);
+    }
+
+    public static GameJournal open(Path saveFile, int[] snapshotMoves, Instant snapshotSavedAt) throws IOException {
+        Path file = pathFor(saveFile);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            Replay replay = replay(channel, snapshotMoves, snapshotSavedAt);
+            if (replay.validBytes() < channel.size()) {
+                channel.truncate(replay.validBytes());
+            }
+            if (replay.validBytes() == 0L) {
+                writeFileHeader(channel);
+            }
+            channel.position(channel.size());
+            return new GameJournal(file, channel, replay.moves(), replay.moveCount(), replay.savedAt(),
+                channel.size(), replay.records());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static GameSaveRecord recover(GameSaveRecord snapshot) throws IOException {
+        if (snapshot == null || !snapshot.hasMoveList() || snapshot.file() == null) {
+            return snapshot;
+        }
+        Path file = pathFor(snapshot.file());
+        if (!Files.isRegularFile(file)) {
+            return snapshot;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Replay replay = replay(channel, snapshot.moves(), snapshot.savedAt());
+            if (replay.records() == 0) {
+                return snapshot;
+            }
+            return new GameSaveRecord(
+                snapshot.id(),
+                snapshot.name(),
+                replay.savedAt(),
+                snapshot.fen(),
+                snapshot.gameMode(),
+                snapshot.difficulty(),
+                snapshot.theme(),
+                snapshot.soundEnabled(),
+                snapshot.moveHistory(),
+                snapshot.file(),
+                snapshot.startFen(),
+                Arrays.copyOf(replay.moves(), replay.moveCount())
+            );
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int records() {
+        return records;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public int[] moves() {
+        return Arrays.copyOf(moves, moveCount);
+    }
+
+    public Instant savedAt() {
+        return savedAt;
+    }
+
+    public boolean append(int[] current, Instant at) throws IOException {
+        int common = 0;
+        int limit = Math.min(moveCount, current.length);
+        while (common < limit && moves[common] == current[common]) {
+            common++;
+        }
+        if (common == moveCount && common == current.length) {
+            return false;
+        }
+
+        int basePly = common;
+        do {
+            int count = Math.min(MAX_MOVES_PER_RECORD, current.length - basePly);
+            writeRecord(at, basePly, current, basePly, count);
+            basePly += count;
+        } while (basePly < current.length);
+
+        if (moves.length < current.length) {
+            moves = Arrays.copyOf(moves, Math.max(current.length, moves.length * 2));
+        }
+        System.arraycopy(current, common, moves, common, current.length - common);
+        moveCount = current.length;
+        savedAt = at;
+        dirty = true;
+        return true;
+    }
+
+    public void force() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        // Cleared first so an append racing with a background force stays dirty for the next one.
+        dirty = false;
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            dirty = true;
+            throw e;
+        }
+    }
+
+    public void reset(int[] snapshotMoves, Instant snapshotSavedAt) throws IOException {
+        channel.truncate(FILE_HEADER_BYTES);
+        channel.position(FILE_HEADER_BYTES);
+        channel.force(false);
+        moves = snapshotMoves.clone();
+        moveCount = moves.length;
+        savedAt = snapshotSavedAt;
+        size = FILE_HEADER_BYTES;
+        records = 0;
+        dirty = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            force();
+        } finally {
+            channel.close();
+        }
+    }
+
+    public void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    private void writeRecord(Instant at, int basePly, int[] source, int offset, int count) throws IOException {
+        int bodyLength = RECORD_FIXED_BYTES + count * 2;
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + bodyLength + CRC_BYTES);
+        buffer.putInt(bodyLength);
+        buffer.putLong(at.getEpochSecond());
+        buffer.putInt(at.getNano());
+        buffer.putInt(basePly);
+        buffer.putShort((short) count);
+        for (int i = 0; i < count; i++) {
+            buffer.putShort((short) source[offset + i]);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), RECORD_HEADER_BYTES, bodyLength);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        size += buffer.limit();
+        records++;
+    }
+
+    private static void writeFileHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    private static Replay replay(FileChannel channel, int[] snapshotMoves, Instant snapshotSavedAt) throws IOException {
+        int[] moves = snapshotMoves.clone();
+        int moveCount = moves.length;
+        Instant savedAt = snapshotSavedAt;
+        long fileSize = channel.size();
+        if (fileSize < FILE_HEADER_BYTES) {
+            return new Replay(moves, moveCount, savedAt, 0L, 0);
+        }
+        ByteBuffer header = readFully(channel, 0L, FILE_HEADER_BYTES);
+        if (header.getInt(0) != MAGIC || header.getShort(4) != VERSION) {
+            return new Replay(moves, moveCount, savedAt, 0L, 0);
+        }
+
+        long position = FILE_HEADER_BYTES;
+        int records = 0;
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        while (position + RECORD_HEADER_BYTES + RECORD_FIXED_BYTES + CRC_BYTES <= fileSize) {
+            lengthBuffer.clear();
+            readFully(channel, position, lengthBuffer);
+            int bodyLength = lengthBuffer.getInt(0);
+            if (bodyLength < RECORD_FIXED_BYTES || position + RECORD_HEADER_BYTES + bodyLength + CRC_BYTES > fileSize) {
+                break;
+            }
+            ByteBuffer body = readFully(channel, position + RECORD_HEADER_BYTES, bodyLength + CRC_BYTES);
+            CRC32C crc = new CRC32C();
+            crc.update(body.array(), 0, bodyLength);
+            if ((int) crc.getValue() != body.getInt(bodyLength)) {
+                break;
+            }
+
+            Instant at = Instant.ofEpochSecond(body.getLong(0), body.getInt(8));
+            int basePly = body.getInt(12);
+            int count = Short.toUnsignedInt(body.getShort(16));
+            if (basePly < 0 || basePly > moveCount || bodyLength != RECORD_FIXED_BYTES + count * 2) {
+                break;
+            }
+            if (moves.length < basePly + count) {
+                moves = Arrays.copyOf(moves, Math.max(basePly + count, moves.length * 2));
+            }
+            for (int i = 0; i < count; i++) {
+                moves[basePly + i] = Short.toUnsignedInt(body.getShort(RECORD_FIXED_BYTES + i * 2));
+            }
+            moveCount = basePly + count;
+            savedAt = at;
+            records++;
+            position += RECORD_HEADER_BYTES + bodyLength + CRC_BYTES;
+        }
+        return new Replay(moves, moveCount, savedAt, position, records);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(channel, position, buffer);
+        return buffer;
+    }
+
+    private static void readFully(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of journal");
+            }
+        }
+    }
+
+    private record Replay(int[] moves, int moveCount, Instant savedAt, long validBytes, int records) {
+    }
+}
@@ -1,28 +1,57 @@
 package com.example.persistence;
 
-import com.example.config.Difficulty;
-import com.example.config.GameMode;
-import com.example.config.Theme;
-
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Properties;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-public class GamePersistenceService {
+public class GamePersistenceService implements Closeable {
+
+    public static final int DEFAULT_BULK_CONCURRENCY = 32;
+
+    private static final ScheduledExecutorService JOURNAL_FLUSHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "chess-journal-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ScheduledExecutorService COMMIT_FLUSHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "chess-save-commit-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_INSTANT;
+    private final SaveCatalogFeed feed = new SaveCatalogFeed();
+    private final JournalManager journals = new JournalManager(JOURNAL_FLUSHER, this::writeSnapshot);
+    private final SaveCommitter committer = new SaveCommitter(COMMIT_FLUSHER);
+    private final Object indexWriteLock = new Object();
+    private final long openedAtMillis = System.currentTimeMillis();
     private Path saveDir;
+    private SaveIndex index;
 
     public GamePersistenceService() {
         this(Paths.get(System.getProperty("user.home"), ".chess-studio", "saves"));
@@ -32,147 +61,673 @@ public class GamePersistenceService {
         setSaveDir(saveDir);
     }
 
-    public synchronized void setSaveDir(Path saveDir) {
+    public void setSaveDir(Path saveDir) {
         if (saveDir == null) {
             throw new IllegalArgumentException("saveDir cannot be null");
         }
-        this.saveDir = saveDir.toAbsolutePath().normalize();
+        Path normalized = saveDir.toAbsolutePath().normalize();
+        SaveIndex previous;
+        synchronized (this) {
+            if (normalized.equals(this.saveDir)) {
+                return;
+            }
+            previous = index;
+            index = null;
+            this.saveDir = normalized;
+            feed.stopWatching();
+            feed.clear();
+        }
+        journals.compactAll();
+        writeIndex(previous);
+    }
+
+    public void setJournalPolicy(long forceMillis, long compactBytes) {
+        journals.setPolicy(forceMillis, compactBytes);
+    }
+
+    public void setDurability(SaveDurability durability, long groupCommitMillis) {
+        committer.setPolicy(durability, groupCommitMillis);
+        if (durability != SaveDurability.GROUP_COMMIT) {
+            sync();
+        }
+    }
+
+    public SaveDurability getDurability() {
+        return committer.durability();
+    }
+
+    public void sync() {
+        committer.flush();
     }
 
     public synchronized Path getSaveDir() {
         return saveDir;
     }
 
-    public synchronized GameSaveRecord save(GameSaveRecord record) {
-        ensureSaveDir();
-        String id = record.id() == null || record.id().isBlank() ? UUID.randomUUID().toString() : record.id();
+    public GameSaveRecord save(GameSaveRecord record) {
+        Path dir = ensureSaveDir();
+        String id = idFor(record);
+        Path target = resolveTarget(record, id, dir);
+        ReentrantLock lock = journals.lockFor(target);
+        lock.lock();
+        try {
+            return store(snapshotOf(record, id, target, Instant.now()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<GameSaveRecord> saveAll(List<GameSaveRecord> records) {
+        Path dir = ensureSaveDir();
+        GameSaveRecord[] saved = new GameSaveRecord[records.size()];
+        List<GameSaveRecord> fresh = new ArrayList<>(records.size());
+        List<IndexUpdate> updates = new ArrayList<>(records.size());
         Instant now = Instant.now();
-        Path target = resolveTarget(record, id);
-
-        Properties properties = new Properties();
-        properties.setProperty("id", id);
-        properties.setProperty("name", valueOrDefault(record.name(), "Saved Game"));
-        properties.setProperty("savedAt", FORMATTER.format(now));
-        properties.setProperty("fen", record.fen());
-        properties.setProperty("gameMode", record.gameMode().name());
-        properties.setProperty("difficulty", record.difficulty().name());
-        properties.setProperty("theme", record.theme().name());
-        properties.setProperty("soundEnabled", String.valueOf(record.soundEnabled()));
-        properties.setProperty("moveCount", String.valueOf(record.moveHistory().size()));
-        for (int i = 0; i < record.moveHistory().size(); i++) {
-            properties.setProperty("move." + i, record.moveHistory().get(i));
-        }
-
-        try (OutputStream out = Files.newOutputStream(target)) {
-            properties.store(out, "chess Save");
-        } catch (IOException e) {
-            throw new IllegalStateException("Unable to save game", e);
+        try {
+            for (int i = 0; i < saved.length; i++) {
+                GameSaveRecord record = records.get(i);
+                if (!record.hasMoveList()) {
+                    saved[i] = save(record);
+                    continue;
+                }
+                String id = idFor(record);
+                Path target = resolveTarget(record, id, dir);
+                saved[i] = snapshotOf(record, id, target, now);
+                // A fresh save gets a file name nobody else knows yet, so it needs no file lock and joins the batch commit.
+                if ((record.id() == null || record.id().isBlank()) && record.file() == null) {
+                    fresh.add(saved[i]);
+                    continue;
+                }
+                ReentrantLock lock = journals.lockFor(target);
+                lock.lock();
+                try {
+                    journals.discard(id, target);
+                    committer.write(target, BinarySaveFormat.encode(saved[i]));
+                } catch (IOException e) {
+                    throw new IllegalStateException("Unable to save game", e);
+                } finally {
+                    lock.unlock();
+                }
+                stamp(updates, saved[i], true);
+            }
+            writeFresh(fresh, updates);
+        } finally {
+            updateIndex(updates, true);
         }
+        return List.of(saved);
+    }
 
-        return new GameSaveRecord(
-            id,
-            valueOrDefault(record.name(), "Saved Game"),
-            now,
-            record.fen(),
-            record.gameMode(),
-            record.difficulty(),
-            record.theme(),
-            record.soundEnabled(),
-            List.copyOf(record.moveHistory()),
-            target
-        );
-    }
-
-    public synchronized List<GameSaveRecord> list() {
-        ensureSaveDir();
-        try (Stream<Path> stream = Files.list(saveDir)) {
-            return stream
+    public GameSaveRecord append(GameSaveRecord record) {
+        if (!record.hasMoveList()) {
+            return save(record);
+        }
+        Path dir = ensureSaveDir();
+        String id = idFor(record);
+        Path target = resolveTarget(record, id, dir);
+        ReentrantLock lock = journals.lockFor(target);
+        lock.lock();
+        try {
+            JournalManager.Appended appended;
+            try {
+                appended = journals.append(id, target, valueOrDefault(record.name(), "Saved Game"), record, Instant.now());
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to append to game journal", e);
+            }
+            if (appended == null) {
+                GameSaveRecord saved = store(snapshotOf(record, id, target, Instant.now()));
+                journals.open(saved);
+                return saved;
+            }
+            if (appended.compact()) {
+                return store(appended.saved());
+            }
+            indexSaved(appended.saved());
+            return appended.saved();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<GameSaveRecord> list() {
+        Path dir = ensureSaveDir();
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(dir)) {
+            files = stream
                 .filter(Files::isRegularFile)
                 .filter(path -> path.getFileName().toString().endsWith(".save"))
-                .map(this::loadFromFile)
-                .filter(record -> record != null)
-                .sorted(Comparator.comparing(GameSaveRecord::savedAt).reversed())
                 .toList();
         } catch (IOException e) {
             throw new IllegalStateException("Unable to list saves", e);
         }
+        return loadAll(files, DEFAULT_BULK_CONCURRENCY, null).stream()
+            .filter(BulkResult::succeeded)
+            .map(BulkResult::value)
+            .sorted(Comparator.comparing(GameSaveRecord::savedAt).reversed())
+            .toList();
+    }
+
+    public List<BulkResult<GameSaveRecord>> loadAll(List<Path> files, int concurrency, Consumer<BulkProgress> progress) {
+        return runBulk(files, concurrency, progress, (index, file) -> {
+            if (file == null) {
+                throw new NoSuchFileException(null);
+            }
+            GameSaveRecord record = loadFromFile(file);
+            if (record == null) {
+                throw new IOException("Damaged save: " + file.getFileName());
+            }
+            return record;
+        });
+    }
+
+    public List<BulkResult<GameSaveHeader>> deleteAll(List<GameSaveHeader> headers, int concurrency, Consumer<BulkProgress> progress) {
+        List<Path> files = new ArrayList<>(headers.size());
+        for (GameSaveHeader header : headers) {
+            files.add(header.file());
+        }
+        List<BulkResult<GameSaveHeader>> results = runBulk(files, concurrency, progress, (index, file) -> {
+            if (file == null) {
+                throw new NoSuchFileException(null);
+            }
+            ReentrantLock lock = journals.lockFor(file);
+            lock.lock();
+            try {
+                journals.discard(headers.get(index).id(), file);
+                if (!Files.deleteIfExists(file)) {
+                    throw new NoSuchFileException(file.toString());
+                }
+            } finally {
+                lock.unlock();
+            }
+            return headers.get(index);
+        });
+        List<IndexUpdate> removals = new ArrayList<>();
+        for (BulkResult<GameSaveHeader> result : results) {
+            if (result.succeeded()) {
+                removals.add(new IndexUpdate(result.file(), null, null));
+            }
+        }
+        updateIndex(removals, false);
+        return results;
+    }
+
+    public List<GameSaveHeader> catalog() {
+        return page(new SaveQuery(0, Integer.MAX_VALUE, SaveSort.NEWEST, null)).items();
+    }
+
+    public SavePage page(SaveQuery query) {
+        watchSaveDir();
+        if (!feed.isPrimed() || feed.isRescanDue()) {
+            listHeaders();
+        } else if (!feed.isCurrent()) {
+            rebuildCatalog();
+        }
+        return feed.page(query);
+    }
+
+    public long catalogVersion() {
+        return feed.version();
+    }
+
+    public void addCatalogListener(Consumer<SaveCatalogChange> listener) {
+        feed.addListener(listener);
+        watchSaveDir();
+    }
+
+    public void removeCatalogListener(Consumer<SaveCatalogChange> listener) {
+        feed.removeListener(listener);
+    }
+
+    public List<GameSaveHeader> listHeaders() {
+        Path dir = ensureSaveDir();
+        Set<String> saveNames = new HashSet<>();
+        Set<String> journalNames = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(".save")) {
+                    saveNames.add(name);
+                } else if (name.endsWith(GameJournal.EXTENSION)) {
+                    journalNames.add(name);
+                } else if (name.endsWith(".save" + BinaryIo.TEMP_SUFFIX)) {
+                    deleteStrayTemp(path);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to list saves", e);
+        }
+
+        Map<String, SaveIndex.Stamp> stamps = new HashMap<>();
+        for (String name : saveNames) {
+            Path file = dir.resolve(name);
+            try {
+                boolean journal = journalNames.contains(GameJournal.pathFor(file).getFileName().toString());
+                stamps.put(name, SaveIndex.stamp(file, journal));
+            } catch (IOException ignored) {
+            }
+        }
+
+        List<SaveIndex.Entry> gone = new ArrayList<>();
+        Map<String, SaveIndex.Entry> missing = new HashMap<>();
+        synchronized (this) {
+            if (!dir.equals(saveDir)) {
+                throw new IllegalStateException("Save directory changed while listing saves");
+            }
+            SaveIndex index = index();
+            for (SaveIndex.Entry entry : index.entries()) {
+                if (!stamps.containsKey(entry.fileName())) {
+                    gone.add(entry);
+                }
+            }
+            for (Map.Entry<String, SaveIndex.Stamp> stamp : stamps.entrySet()) {
+                if (index.lookup(stamp.getKey(), stamp.getValue()) == null) {
+                    missing.put(stamp.getKey(), index.get(stamp.getKey()));
+                }
+            }
+        }
+
+        Map<String, GameSaveHeader> loaded = new HashMap<>();
+        Set<String> damaged = new HashSet<>();
+        for (String name : missing.keySet()) {
+            GameSaveRecord record = loadFromFile(dir.resolve(name));
+            if (record == null) {
+                damaged.add(name);
+            } else {
+                loaded.put(name, record.header());
+            }
+        }
+
+        List<SaveDelta> deltas = new ArrayList<>();
+        List<GameSaveHeader> headers;
+        SaveIndex written;
+        synchronized (this) {
+            if (!dir.equals(saveDir)) {
+                throw new IllegalStateException("Save directory changed while listing saves");
+            }
+            SaveIndex index = index();
+            for (SaveIndex.Entry entry : gone) {
+                if (index.get(entry.fileName()) == entry) {
+                    index.remove(entry.fileName());
+                    deltas.add(new SaveDelta(SaveDelta.Kind.REMOVED, entry.header()));
+                }
+            }
+            for (Map.Entry<String, GameSaveHeader> header : loaded.entrySet()) {
+                String name = header.getKey();
+                if (index.get(name) == missing.get(name)) {
+                    track(deltas, index.put(name, stamps.get(name), header.getValue()), header.getValue());
+                }
+            }
+            headers = new ArrayList<>(index.size());
+            for (SaveIndex.Entry entry : index.entries()) {
+                if (!damaged.contains(entry.fileName())) {
+                    headers.add(entry.header());
+                }
+            }
+            feed.rescanned(headers, deltas, damaged.isEmpty());
+            written = index;
+        }
+        writeIndex(written);
+        headers.sort(Comparator.comparing(GameSaveHeader::savedAt).reversed());
+        return headers;
     }
 
-    public synchronized GameSaveRecord load(Path file) {
+    public GameSaveRecord load(Path file) {
         return loadFromFile(file);
     }
 
-    public synchronized boolean delete(GameSaveRecord record) {
-        if (record == null || record.file() == null) {
+    public boolean delete(GameSaveRecord record) {
+        return record != null && delete(record.id(), record.file());
+    }
+
+    public boolean delete(GameSaveHeader header) {
+        return header != null && delete(header.id(), header.file());
+    }
+
+    private boolean delete(String id, Path file) {
+        if (file == null) {
             return false;
         }
+        boolean deleted;
+        ReentrantLock lock = journals.lockFor(file);
+        lock.lock();
         try {
-            return Files.deleteIfExists(record.file());
+            journals.discard(id, file);
+            deleted = Files.deleteIfExists(file);
         } catch (IOException e) {
             return false;
+        } finally {
+            lock.unlock();
         }
+        updateIndex(List.of(new IndexUpdate(file, null, null)), false);
+        return deleted;
     }
 
-    private GameSaveRecord loadFromFile(Path file) {
-        Properties properties = new Properties();
-        try (InputStream in = Files.newInputStream(file)) {
-            properties.load(in);
+    private static GameSaveRecord loadFromFile(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (BinarySaveFormat.isBinary(channel)) {
+                return GameJournal.recover(BinarySaveFormat.read(file, channel));
+            }
         } catch (IOException e) {
             return null;
         }
+        return LegacySaveFormat.read(file);
+    }
 
-        String id = properties.getProperty("id", file.getFileName().toString());
-        String name = properties.getProperty("name", "Saved Game");
-        Instant savedAt = Instant.parse(properties.getProperty("savedAt", FORMATTER.format(Instant.now())));
-        String fen = properties.getProperty("fen");
-        if (fen == null || fen.isBlank()) {
-            return null;
+    @Override
+    public void close() {
+        journals.close();
+        SaveIndex current;
+        synchronized (this) {
+            current = index;
+        }
+        writeIndex(current);
+        feed.close();
+        sync();
+    }
+
+    private void watchSaveDir() {
+        Path dir = ensureSaveDir();
+        feed.watch(dir, names -> onExternalChange(dir, names), () -> onExternalOverflow(dir));
+    }
+
+    private void onExternalChange(Path dir, Set<String> fileNames) {
+        if (!feed.isPrimed()) {
+            return;
+        }
+        Map<String, SaveIndex.Stamp> stamps = new HashMap<>();
+        for (String name : fileNames) {
+            try {
+                stamps.put(name, SaveIndex.stamp(dir.resolve(name)));
+            } catch (IOException ignored) {
+            }
         }
 
-        GameMode mode = parseEnum(properties.getProperty("gameMode"), GameMode.class, GameMode.SINGLE_PLAYER);
-        Difficulty difficulty = parseEnum(properties.getProperty("difficulty"), Difficulty.class, Difficulty.MEDIUM);
-        Theme theme = parseEnum(properties.getProperty("theme"), Theme.class, Theme.SANDSTONE);
-        boolean soundEnabled = Boolean.parseBoolean(properties.getProperty("soundEnabled", "true"));
+        List<SaveDelta> deltas = new ArrayList<>();
+        Map<String, SaveIndex.Entry> missing = new HashMap<>();
+        synchronized (this) {
+            if (!dir.equals(saveDir)) {
+                return;
+            }
+            SaveIndex index = index();
+            for (String name : fileNames) {
+                SaveIndex.Stamp stamp = stamps.get(name);
+                if (stamp == null) {
+                    SaveIndex.Entry removed = index.remove(name);
+                    if (removed != null) {
+                        deltas.add(new SaveDelta(SaveDelta.Kind.REMOVED, removed.header()));
+                    }
+                } else if (index.lookup(name, stamp) == null) {
+                    missing.put(name, index.get(name));
+                }
+            }
+            if (missing.isEmpty()) {
+                feed.publish(deltas);
+                return;
+            }
+        }
 
-        int moveCount = Integer.parseInt(properties.getProperty("moveCount", "0"));
-        List<String> history = new ArrayList<>();
-        for (int i = 0; i < moveCount; i++) {
-            history.add(properties.getProperty("move." + i, ""));
+        Map<String, GameSaveHeader> loaded = new HashMap<>();
+        for (String name : missing.keySet()) {
+            GameSaveRecord record = loadFromFile(dir.resolve(name));
+            if (record != null) {
+                loaded.put(name, record.header());
+            }
         }
 
-        return new GameSaveRecord(id, name, savedAt, fen, mode, difficulty, theme, soundEnabled, history, file);
+        synchronized (this) {
+            if (!dir.equals(saveDir)) {
+                return;
+            }
+            SaveIndex index = index();
+            for (Map.Entry<String, GameSaveHeader> header : loaded.entrySet()) {
+                String name = header.getKey();
+                if (index.get(name) == missing.get(name)) {
+                    track(deltas, index.put(name, stamps.get(name), header.getValue()), header.getValue());
+                }
+            }
+            feed.publish(deltas);
+        }
     }
 
-    private void ensureSaveDir() {
+    private void onExternalOverflow(Path dir) {
+        if (!dir.equals(getSaveDir()) || !feed.isPrimed()) {
+            return;
+        }
+        try {
+            listHeaders();
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+    private synchronized void rebuildCatalog() {
+        List<GameSaveHeader> headers = new ArrayList<>(index().size());
+        for (SaveIndex.Entry entry : index().entries()) {
+            headers.add(entry.header());
+        }
+        feed.reset(headers);
+    }
+
+    private GameSaveRecord store(GameSaveRecord saved) {
+        try {
+            writeSnapshot(saved);
+            if (saved.hasMoveList()) {
+                journals.snapshotWritten(saved);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalStateException("Unable to save game", e);
+        }
+        indexSaved(saved);
+        return saved;
+    }
+
+    private void writeSnapshot(GameSaveRecord record) throws IOException {
+        ByteBuffer contents = record.hasMoveList() ? BinarySaveFormat.encode(record) : LegacySaveFormat.encode(record);
+        committer.write(record.file(), contents);
+    }
+
+    private void indexSaved(GameSaveRecord saved) {
+        Path file = saved.file();
+        if (file == null) {
+            return;
+        }
+        SaveIndex.Stamp stamp;
         try {
-            Files.createDirectories(saveDir);
+            stamp = SaveIndex.stamp(file);
         } catch (IOException e) {
-            throw new IllegalStateException("Unable to initialize save directory: " + saveDir, e);
+            stamp = null;
+        }
+        updateIndex(List.of(new IndexUpdate(file, stamp, saved.header())), false);
+    }
+
+    private void writeFresh(List<GameSaveRecord> fresh, List<IndexUpdate> updates) {
+        if (fresh.isEmpty()) {
+            return;
+        }
+        List<Path> targets = new ArrayList<>(fresh.size());
+        List<ByteBuffer> contents = new ArrayList<>(fresh.size());
+        for (GameSaveRecord record : fresh) {
+            targets.add(record.file());
+            contents.add(BinarySaveFormat.encode(record));
+        }
+        IOException failure = null;
+        try {
+            committer.write(targets, contents);
+        } catch (IOException e) {
+            failure = e;
+        }
+        for (GameSaveRecord record : fresh) {
+            stamp(updates, record, false);
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Unable to save game", failure);
+        }
+    }
+
+    private static void stamp(List<IndexUpdate> updates, GameSaveRecord saved, boolean journalMayExist) {
+        try {
+            updates.add(new IndexUpdate(saved.file(), SaveIndex.stamp(saved.file(), journalMayExist), saved.header()));
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void updateIndex(List<IndexUpdate> updates, boolean bulk) {
+        List<SaveDelta> deltas = new ArrayList<>(updates.size());
+        synchronized (this) {
+            for (IndexUpdate update : updates) {
+                Path file = update.file();
+                if (file.getParent() == null || !file.getParent().equals(saveDir)) {
+                    continue;
+                }
+                String name = file.getFileName().toString();
+                if (update.stamp() == null) {
+                    SaveIndex.Entry removed = index().remove(name);
+                    if (removed != null) {
+                        deltas.add(new SaveDelta(SaveDelta.Kind.REMOVED, removed.header()));
+                    }
+                } else {
+                    track(deltas, index().put(name, update.stamp(), update.header()), update.header());
+                }
+            }
+            if (bulk) {
+                feed.publishStale(deltas);
+            } else {
+                feed.publish(deltas);
+            }
+        }
+    }
+
+    private void track(List<SaveDelta> deltas, SaveIndex.Entry previous, GameSaveHeader header) {
+        if (previous == null) {
+            deltas.add(new SaveDelta(SaveDelta.Kind.ADDED, header));
+        } else if (!previous.header().equals(header)) {
+            deltas.add(new SaveDelta(SaveDelta.Kind.UPDATED, header));
         }
     }
 
-    private Path resolveTarget(GameSaveRecord record, String id) {
+    private SaveIndex index() {
+        if (index == null || !index.dir().equals(saveDir)) {
+            index = SaveIndex.load(saveDir);
+        }
+        return index;
+    }
+
+    private void writeIndex(SaveIndex index) {
+        if (index == null) {
+            return;
+        }
+        synchronized (indexWriteLock) {
+            ByteBuffer snapshot;
+            synchronized (this) {
+                snapshot = index.encodeIfDirty();
+            }
+            if (snapshot == null) {
+                return;
+            }
+            try {
+                index.write(snapshot);
+            } catch (IOException e) {
+                synchronized (this) {
+                    index.markDirty();
+                }
+            }
+        }
+    }
+
+    private void deleteStrayTemp(Path temp) {
+        try {
+            if (Files.getLastModifiedTime(temp).toMillis() < openedAtMillis) {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static <T> List<BulkResult<T>> runBulk(
+        List<Path> files,
+        int concurrency,
+        Consumer<BulkProgress> progress,
+        BulkOperation<T> operation
+    ) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be > 0");
+        }
+        int total = files.size();
+        AtomicReferenceArray<BulkResult<T>> results = new AtomicReferenceArray<>(total);
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore permits = new Semaphore(concurrency);
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("chess-bulk-io-", 0).factory())) {
+            for (int i = 0; i < total; i++) {
+                int index = i;
+                Path file = files.get(i);
+                permits.acquireUninterruptibly();
+                executor.execute(() -> {
+                    BulkResult<T> result;
+                    try {
+                        result = new BulkResult<>(file, operation.apply(index, file), null);
+                    } catch (IOException | RuntimeException e) {
+                        result = new BulkResult<>(file, null, e);
+                    } finally {
+                        permits.release();
+                    }
+                    results.set(index, result);
+                    int failures = result.succeeded() ? failed.get() : failed.incrementAndGet();
+                    int completed = done.incrementAndGet();
+                    if (progress != null) {
+                        progress.accept(new BulkProgress(completed, total, failures));
+                    }
+                });
+            }
+        }
+        List<BulkResult<T>> ordered = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            ordered.add(results.get(i));
+        }
+        return ordered;
+    }
+
+    private static GameSaveRecord snapshotOf(GameSaveRecord record, String id, Path target, Instant now) {
+        String name = valueOrDefault(record.name(), "Saved Game");
+        if (!record.hasMoveList()) {
+            return new GameSaveRecord(id, name, now, record.fen(), record.gameMode(), record.difficulty(), record.theme(),
+                record.soundEnabled(), List.copyOf(record.moveHistory()), target);
+        }
+        return new GameSaveRecord(id, name, now, record.fen(), record.gameMode(), record.difficulty(), record.theme(),
+            record.soundEnabled(), List.copyOf(record.moveHistory()), target, record.startFen(), record.moves().clone());
+    }
+
+    private Path ensureSaveDir() {
+        Path dir = getSaveDir();
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to initialize save directory: " + dir, e);
+        }
+        return dir;
+    }
+
+    private static String idFor(GameSaveRecord record) {
+        return record.id() == null || record.id().isBlank() ? UUID.randomUUID().toString() : record.id();
+    }
+
+    private static Path resolveTarget(GameSaveRecord record, String id, Path dir) {
         if (record.file() != null) {
             return record.file();
         }
-        return saveDir.resolve(id + ".save");
+        return dir.resolve(id + ".save");
     }
 
-    private String valueOrDefault(String value, String fallback) {
+    private static String valueOrDefault(String value, String fallback) {
         if (value == null || value.isBlank()) {
             return fallback;
         }
         return value;
     }
 
-    private <T extends Enum<T>> T parseEnum(String value, Class<T> type, T fallback) {
-        if (value == null || value.isBlank()) {
-            return fallback;
-        }
-        try {
-            return Enum.valueOf(type, value);
-        } catch (IllegalArgumentException e) {
-            return fallback;
-        }
+    @FunctionalInterface
+    private interface BulkOperation<T> {
+        T apply(int index, Path file) throws IOException;
+    }
+
+    private record IndexUpdate(Path file, SaveIndex.Stamp stamp, GameSaveHeader header) {
     }
 }
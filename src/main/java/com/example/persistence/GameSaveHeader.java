@@ -0,0 +1,21 @@
+package com.example.persistence;
+
+import com.example.config.Difficulty;
+import com.example.config.GameMode;
+import com.example.config.Theme;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+public record GameSaveHeader(
+    String id,
+    String name,
+    Instant savedAt,
+    GameMode gameMode,
+    Difficulty difficulty,
+    Theme theme,
+    boolean soundEnabled,
+    int moveCount,
+    Path file
+) {
+}
@@ -18,6 +18,32 @@ public record GameSaveRecord(
     Theme theme,
     boolean soundEnabled,
     List<String> moveHistory,
-    Path file
+    Path file,
+    String startFen,
+    int[] moves
 ) {
+
+    public GameSaveRecord(
+        String id,
+        String name,
+        Instant savedAt,
+        String fen,
+        GameMode gameMode,
+        Difficulty difficulty,
+        Theme theme,
+        boolean soundEnabled,
+        List<String> moveHistory,
+        Path file
+    ) {
+        this(id, name, savedAt, fen, gameMode, difficulty, theme, soundEnabled, moveHistory, file, null, new int[0]);
+    }
+
+    public boolean hasMoveList() {
+        return startFen != null && moves != null;
+    }
+
+    public GameSaveHeader header() {
+        int moveCount = hasMoveList() ? moves.length : moveHistory.size();
+        return new GameSaveHeader(id, name, savedAt, gameMode, difficulty, theme, soundEnabled, moveCount, file);
+    }
 }
@@ -0,0 +1,238 @@
+package com.example.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class JournalManager implements Closeable {
+
+    public static final long DEFAULT_FORCE_MILLIS = 200L;
+    public static final long DEFAULT_COMPACT_BYTES = 64L * 1024L;
+
+    private static final int MAX_OPEN_JOURNALS = 8;
+    private static final int TARGET_LOCKS = 64;
+
+    private final ReentrantLock[] targetLocks = new ReentrantLock[TARGET_LOCKS];
+    private final Map<String, OpenJournal> journals = new LinkedHashMap<>(16, 0.75f, true);
+    private final ScheduledExecutorService scheduler;
+    private final SnapshotWriter writer;
+    private long forceMillis = DEFAULT_FORCE_MILLIS;
+    private long compactBytes = DEFAULT_COMPACT_BYTES;
+    private boolean forceScheduled;
+
+    public JournalManager(ScheduledExecutorService scheduler, SnapshotWriter writer) {
+        this.scheduler = scheduler;
+        this.writer = writer;
+        for (int i = 0; i < TARGET_LOCKS; i++) {
+            targetLocks[i] = new ReentrantLock();
+        }
+    }
+
+    public ReentrantLock lockFor(Path target) {
+        return targetLocks[Math.floorMod(target.hashCode(), TARGET_LOCKS)];
+    }
+
+    public synchronized void setPolicy(long forceMillis, long compactBytes) {
+        if (forceMillis < 0L || compactBytes <= 0L) {
+            throw new IllegalArgumentException("forceMillis must be >= 0 and compactBytes > 0");
+        }
+        this.forceMillis = forceMillis;
+        this.compactBytes = compactBytes;
+    }
+
+    public synchronized Appended append(String id, Path target, String name, GameSaveRecord record, Instant now) throws IOException {
+        OpenJournal open = journals.get(id);
+        if (open == null || !open.journal().file().equals(GameJournal.pathFor(target)) || !sameHeader(open.snapshot(), name, record)
+            || !Files.exists(target)) {
+            return null;
+        }
+        try {
+            open.journal().append(record.moves(), now);
+        } catch (IOException e) {
+            close(id);
+            throw e;
+        }
+        GameSaveRecord saved = new GameSaveRecord(
+            id,
+            open.snapshot().name(),
+            now,
+            record.fen(),
+            record.gameMode(),
+            record.difficulty(),
+            record.theme(),
+            record.soundEnabled(),
+            open.snapshot().moveHistory(),
+            target,
+            record.startFen(),
+            record.moves().clone()
+        );
+        boolean compact = open.journal().size() >= compactBytes;
+        if (!compact) {
+            journals.put(id, new OpenJournal(open.journal(), open.snapshot(), saved));
+            scheduleForce();
+        }
+        return new Appended(saved, compact);
+    }
+
+    public void open(GameSaveRecord saved) {
+        List<OpenJournal> evicted = new ArrayList<>();
+        List<ReentrantLock> held = new ArrayList<>();
+        synchronized (this) {
+            try {
+                journals.put(saved.id(), new OpenJournal(GameJournal.open(saved.file(), saved.moves(), saved.savedAt()), saved, saved));
+            } catch (IOException e) {
+                return;
+            }
+            Iterator<OpenJournal> eldest = journals.values().iterator();
+            while (journals.size() > MAX_OPEN_JOURNALS && eldest.hasNext()) {
+                OpenJournal candidate = eldest.next();
+                ReentrantLock lock = lockFor(candidate.latest().file());
+                if (candidate.snapshot().id().equals(saved.id()) || !lock.tryLock()) {
+                    continue;
+                }
+                eldest.remove();
+                evicted.add(candidate);
+                held.add(lock);
+            }
+        }
+        // Compaction writes a snapshot and may wait for a group commit, so only the file's own lock is held.
+        for (int i = 0; i < evicted.size(); i++) {
+            try {
+                compact(evicted.get(i));
+            } finally {
+                held.get(i).unlock();
+            }
+        }
+    }
+
+    public synchronized void snapshotWritten(GameSaveRecord saved) throws IOException {
+        Path journalFile = GameJournal.pathFor(saved.file());
+        OpenJournal open = journals.get(saved.id());
+        if (open != null && open.journal().file().equals(journalFile)) {
+            open.journal().reset(saved.moves(), saved.savedAt());
+            journals.put(saved.id(), new OpenJournal(open.journal(), saved, saved));
+            return;
+        }
+        close(saved.id());
+        Files.deleteIfExists(journalFile);
+    }
+
+    public synchronized void discard(String id, Path target) throws IOException {
+        close(id);
+        Files.deleteIfExists(GameJournal.pathFor(target));
+    }
+
+    public void compactAll() {
+        List<String> ids;
+        synchronized (this) {
+            ids = List.copyOf(journals.keySet());
+        }
+        for (String id : ids) {
+            OpenJournal open;
+            synchronized (this) {
+                open = journals.get(id);
+            }
+            if (open == null) {
+                continue;
+            }
+            ReentrantLock lock = lockFor(open.latest().file());
+            lock.lock();
+            try {
+                boolean removed;
+                synchronized (this) {
+                    removed = journals.remove(id, open);
+                }
+                if (removed) {
+                    compact(open);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        compactAll();
+    }
+
+    private void close(String id) {
+        OpenJournal open = id == null ? null : journals.remove(id);
+        if (open == null) {
+            return;
+        }
+        try {
+            open.journal().close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void compact(OpenJournal open) {
+        GameJournal journal = open.journal();
+        try {
+            if (journal.records() > 0) {
+                writer.write(open.latest());
+            }
+            journal.delete();
+        } catch (IOException | RuntimeException e) {
+            try {
+                journal.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void scheduleForce() {
+        if (forceMillis == 0L || forceScheduled) {
+            return;
+        }
+        forceScheduled = true;
+        scheduler.schedule(this::forceAll, forceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void forceAll() {
+        List<OpenJournal> open;
+        synchronized (this) {
+            forceScheduled = false;
+            open = List.copyOf(journals.values());
+        }
+        for (OpenJournal journal : open) {
+            try {
+                journal.journal().force();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static boolean sameHeader(GameSaveRecord snapshot, String name, GameSaveRecord record) {
+        return Objects.equals(snapshot.name(), name)
+            && Objects.equals(snapshot.startFen(), record.startFen())
+            && Objects.equals(snapshot.moveHistory(), record.moveHistory())
+            && snapshot.gameMode() == record.gameMode()
+            && snapshot.difficulty() == record.difficulty()
+            && snapshot.theme() == record.theme()
+            && snapshot.soundEnabled() == record.soundEnabled();
+    }
+
+    @FunctionalInterface
+    public interface SnapshotWriter {
+        void write(GameSaveRecord record) throws IOException;
+    }
+
+    public record Appended(GameSaveRecord saved, boolean compact) {
+    }
+
+    private record OpenJournal(GameJournal journal, GameSaveRecord snapshot, GameSaveRecord latest) {
+    }
+}
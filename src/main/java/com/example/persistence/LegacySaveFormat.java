@@ -0,0 +1,91 @@
+package com.example.persistence;
+
+import com.example.config.Difficulty;
+import com.example.config.GameMode;
+import com.example.config.Theme;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+public final class LegacySaveFormat {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_INSTANT;
+
+    private LegacySaveFormat() {
+    }
+
+    public static ByteBuffer encode(GameSaveRecord record) {
+        Properties properties = new Properties();
+        properties.setProperty("id", record.id());
+        properties.setProperty("name", record.name());
+        properties.setProperty("savedAt", FORMATTER.format(record.savedAt()));
+        properties.setProperty("fen", record.fen());
+        properties.setProperty("gameMode", record.gameMode().name());
+        properties.setProperty("difficulty", record.difficulty().name());
+        properties.setProperty("theme", record.theme().name());
+        properties.setProperty("soundEnabled", String.valueOf(record.soundEnabled()));
+        properties.setProperty("moveCount", String.valueOf(record.moveHistory().size()));
+        for (int i = 0; i < record.moveHistory().size(); i++) {
+            properties.setProperty("move." + i, record.moveHistory().get(i));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            properties.store(out, "chess Save");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    public static GameSaveRecord read(Path file) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            return null;
+        }
+
+        String id = properties.getProperty("id", file.getFileName().toString());
+        String name = properties.getProperty("name", "Saved Game");
+        Instant savedAt = Instant.parse(properties.getProperty("savedAt", FORMATTER.format(Instant.now())));
+        String fen = properties.getProperty("fen");
+        if (fen == null || fen.isBlank()) {
+            return null;
+        }
+
+        GameMode mode = parseEnum(properties.getProperty("gameMode"), GameMode.class, GameMode.SINGLE_PLAYER);
+        Difficulty difficulty = parseEnum(properties.getProperty("difficulty"), Difficulty.class, Difficulty.MEDIUM);
+        Theme theme = parseEnum(properties.getProperty("theme"), Theme.class, Theme.SANDSTONE);
+        boolean soundEnabled = Boolean.parseBoolean(properties.getProperty("soundEnabled", "true"));
+
+        int moveCount = Integer.parseInt(properties.getProperty("moveCount", "0"));
+        List<String> history = new ArrayList<>();
+        for (int i = 0; i < moveCount; i++) {
+            history.add(properties.getProperty("move." + i, ""));
+        }
+
+        return new GameSaveRecord(id, name, savedAt, fen, mode, difficulty, theme, soundEnabled, history, file);
+    }
+
+    private static <T extends Enum<T>> T parseEnum(String value, Class<T> type, T fallback) {
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
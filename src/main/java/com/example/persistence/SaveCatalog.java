@@ -0,0 +1,178 @@
+package com.example.persistence;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class SaveCatalog {
+
+    private static final Comparator<GameSaveHeader> BY_DATE = Comparator
+        .comparing(GameSaveHeader::savedAt, Comparator.reverseOrder())
+        .thenComparing(SaveCatalog::fileName);
+    private static final Comparator<GameSaveHeader> BY_NAME = Comparator
+        .comparing(GameSaveHeader::name, String.CASE_INSENSITIVE_ORDER)
+        .thenComparing(SaveCatalog::fileName);
+
+    private final Map<Path, GameSaveHeader> byFile = new HashMap<>();
+    private final List<GameSaveHeader> byDate = new ArrayList<>();
+    private final List<GameSaveHeader> byName = new ArrayList<>();
+    private long version;
+    private String filteredPrefix;
+    private long filteredVersion = -1L;
+    private List<GameSaveHeader> filteredByDate = List.of();
+
+    public static Comparator<GameSaveHeader> order(SaveSort sort) {
+        return switch (sort) {
+            case NEWEST -> BY_DATE;
+            case OLDEST -> BY_DATE.reversed();
+            case NAME -> BY_NAME;
+        };
+    }
+
+    public static boolean matches(SaveQuery query, GameSaveHeader header) {
+        return query.namePrefix().isEmpty() || startsWithIgnoreCase(header.name(), query.namePrefix());
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return byFile.size();
+    }
+
+    public void reset(Collection<GameSaveHeader> headers) {
+        byFile.clear();
+        for (GameSaveHeader header : headers) {
+            byFile.put(header.file(), header);
+        }
+        byDate.clear();
+        byDate.addAll(byFile.values());
+        byDate.sort(BY_DATE);
+        byName.clear();
+        byName.addAll(byFile.values());
+        byName.sort(BY_NAME);
+        version++;
+    }
+
+    public void apply(List<SaveDelta> deltas) {
+        for (SaveDelta delta : deltas) {
+            GameSaveHeader header = delta.header();
+            GameSaveHeader previous = delta.kind() == SaveDelta.Kind.REMOVED
+                ? byFile.remove(header.file())
+                : byFile.put(header.file(), header);
+            if (previous != null) {
+                removeSorted(byDate, previous, BY_DATE);
+                removeSorted(byName, previous, BY_NAME);
+            }
+            if (delta.kind() != SaveDelta.Kind.REMOVED) {
+                insertSorted(byDate, header, BY_DATE);
+                insertSorted(byName, header, BY_NAME);
+            }
+        }
+        if (!deltas.isEmpty()) {
+            version++;
+        }
+    }
+
+    public SavePage page(SaveQuery query) {
+        String prefix = query.namePrefix();
+        List<GameSaveHeader> source;
+        int from;
+        int to;
+        if (query.sort() == SaveSort.NAME || prefix.isEmpty()) {
+            source = query.sort() == SaveSort.NAME ? byName : byDate;
+            from = 0;
+            to = source.size();
+            if (!prefix.isEmpty()) {
+                from = lowerBound(prefix);
+                to = upperBound(prefix, from);
+            }
+        } else {
+            source = filteredByDate(prefix);
+            from = 0;
+            to = source.size();
+        }
+
+        int total = to - from;
+        int start = Math.min(query.offset(), total);
+        int end = (int) Math.min(total, (long) start + query.limit());
+        List<GameSaveHeader> items = new ArrayList<>(end - start);
+        if (query.sort() == SaveSort.OLDEST) {
+            for (int i = start; i < end; i++) {
+                items.add(source.get(to - 1 - i));
+            }
+        } else {
+            items.addAll(source.subList(from + start, from + end));
+        }
+        return new SavePage(Collections.unmodifiableList(items), start, total, version);
+    }
+
+    private List<GameSaveHeader> filteredByDate(String prefix) {
+        if (filteredVersion != version || !prefix.equals(filteredPrefix)) {
+            List<GameSaveHeader> matches = new ArrayList<>();
+            for (GameSaveHeader header : byDate) {
+                if (startsWithIgnoreCase(header.name(), prefix)) {
+                    matches.add(header);
+                }
+            }
+            filteredByDate = matches;
+            filteredPrefix = prefix;
+            filteredVersion = version;
+        }
+        return filteredByDate;
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = byName.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (String.CASE_INSENSITIVE_ORDER.compare(byName.get(mid).name(), prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(String prefix, int from) {
+        int low = from;
+        int high = byName.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startsWithIgnoreCase(byName.get(mid).name(), prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean startsWithIgnoreCase(String value, String prefix) {
+        return value != null && value.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static void insertSorted(List<GameSaveHeader> list, GameSaveHeader header, Comparator<GameSaveHeader> order) {
+        int index = Collections.binarySearch(list, header, order);
+        list.add(index < 0 ? -index - 1 : index, header);
+    }
+
+    private static void removeSorted(List<GameSaveHeader> list, GameSaveHeader header, Comparator<GameSaveHeader> order) {
+        int index = Collections.binarySearch(list, header, order);
+        if (index >= 0) {
+            list.remove(index);
+        }
+    }
+
+    private static String fileName(GameSaveHeader header) {
+        return header.file() == null ? "" : header.file().getFileName().toString();
+    }
+}
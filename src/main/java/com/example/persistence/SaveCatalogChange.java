@@ -0,0 +1,6 @@
+package com.example.persistence;
+
+import java.util.List;
+
+public record SaveCatalogChange(long fromVersion, long version, List<SaveDelta> deltas) {
+}
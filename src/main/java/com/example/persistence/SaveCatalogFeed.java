@@ -0,0 +1,148 @@
+package com.example.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public final class SaveCatalogFeed implements Closeable {
+
+    public static final long RESCAN_MILLIS = 2_000L;
+
+    private static final ExecutorService DISPATCHER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "chess-save-catalog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final List<Consumer<SaveCatalogChange>> listeners = new CopyOnWriteArrayList<>();
+    private final SaveCatalog catalog = new SaveCatalog();
+    private SaveDirectoryWatcher watcher;
+    private boolean primed;
+    private boolean stale;
+    private boolean blind = true;
+    private long checkedAtNanos;
+
+    public void addListener(Consumer<SaveCatalogChange> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<SaveCatalogChange> listener) {
+        listeners.remove(listener);
+    }
+
+    public synchronized boolean isPrimed() {
+        return primed;
+    }
+
+    public synchronized boolean isCurrent() {
+        return primed && !stale;
+    }
+
+    public synchronized boolean isRescanDue() {
+        if (!isWatching()) {
+            blind = true;
+        }
+        // Without a live watcher external edits go unseen, so fall back to rescanning the directory now and then.
+        return blind && System.nanoTime() - checkedAtNanos >= TimeUnit.MILLISECONDS.toNanos(RESCAN_MILLIS);
+    }
+
+    public synchronized long version() {
+        return catalog.version();
+    }
+
+    public synchronized SavePage page(SaveQuery query) {
+        return catalog.page(query);
+    }
+
+    public synchronized void reset(List<GameSaveHeader> headers) {
+        catalog.reset(headers);
+        primed = true;
+        stale = false;
+    }
+
+    public synchronized void rescanned(List<GameSaveHeader> headers, List<SaveDelta> deltas, boolean complete) {
+        checkedAtNanos = System.nanoTime();
+        blind = !isWatching();
+        if (complete && primed && !stale) {
+            publish(deltas);
+            return;
+        }
+        reset(headers);
+        dispatch(-1L, deltas);
+    }
+
+    public synchronized void clear() {
+        catalog.reset(List.of());
+        primed = false;
+        stale = false;
+    }
+
+    public synchronized void publish(List<SaveDelta> deltas) {
+        long fromVersion = catalog.version();
+        if (primed && !stale) {
+            catalog.apply(deltas);
+        }
+        dispatch(fromVersion, deltas);
+    }
+
+    public synchronized void publishStale(List<SaveDelta> deltas) {
+        if (primed && !deltas.isEmpty()) {
+            stale = true;
+        }
+        dispatch(catalog.version(), deltas);
+    }
+
+    private void dispatch(long fromVersion, List<SaveDelta> deltas) {
+        if (deltas.isEmpty() || listeners.isEmpty()) {
+            return;
+        }
+        // Dispatched under the lock so listeners see versions in the order they were published.
+        SaveCatalogChange change = new SaveCatalogChange(fromVersion, catalog.version(), List.copyOf(deltas));
+        DISPATCHER.execute(() -> {
+            for (Consumer<SaveCatalogChange> listener : listeners) {
+                listener.accept(change);
+            }
+        });
+    }
+
+    public synchronized void watch(Path dir, Consumer<Set<String>> onChanged, Runnable onOverflow) {
+        if (watcher != null && watcher.dir().equals(dir) && watcher.isAlive()) {
+            return;
+        }
+        stopWatching();
+        // Anything that changed before this watcher started is only picked up by the next rescan.
+        blind = true;
+        try {
+            watcher = SaveDirectoryWatcher.start(dir, onChanged, onOverflow);
+        } catch (IOException | UnsupportedOperationException e) {
+            watcher = null;
+        }
+    }
+
+    private boolean isWatching() {
+        return watcher != null && watcher.isAlive();
+    }
+
+    public synchronized void stopWatching() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            watcher.close();
+        } catch (IOException ignored) {
+        }
+        watcher = null;
+    }
+
+    @Override
+    public void close() {
+        stopWatching();
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+public final class SaveCommitter {
+
+    public static final long DEFAULT_GROUP_COMMIT_MILLIS = 20L;
+
+    private static final int MAX_PARALLEL_FORCES = 32;
+    private static final int MAX_PENDING = 256;
+
+    private final ScheduledExecutorService scheduler;
+    private final List<Pending> pending = new ArrayList<>();
+    private SaveDurability durability = SaveDurability.GROUP_COMMIT;
+    private long groupCommitMillis = DEFAULT_GROUP_COMMIT_MILLIS;
+    private boolean commitScheduled;
+
+    public SaveCommitter(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public synchronized void setPolicy(SaveDurability durability, long groupCommitMillis) {
+        if (durability == null || groupCommitMillis <= 0L) {
+            throw new IllegalArgumentException("durability cannot be null and groupCommitMillis must be > 0");
+        }
+        this.durability = durability;
+        this.groupCommitMillis = groupCommitMillis;
+    }
+
+    public synchronized SaveDurability durability() {
+        return durability;
+    }
+
+    public void write(Path target, ByteBuffer contents) throws IOException {
+        write(List.of(target), List.of(contents));
+    }
+
+    public void write(List<Path> targets, List<ByteBuffer> contents) throws IOException {
+        if (targets.size() != contents.size()) {
+            throw new IllegalArgumentException("targets and contents must have the same size");
+        }
+        SaveDurability mode = durability();
+        if (mode == SaveDurability.GROUP_COMMIT && isPending(targets)) {
+            flush();
+        }
+        Map<Path, Pending> staged = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < targets.size(); i++) {
+                staged.remove(targets.get(i));
+                Pending write = stage(targets.get(i), contents.get(i), mode == SaveDurability.NONE);
+                if (write != null) {
+                    staged.put(write.target(), write);
+                }
+            }
+        } catch (IOException e) {
+            for (Pending write : staged.values()) {
+                write.discard();
+            }
+            throw e;
+        }
+
+        List<Pending> batch = List.copyOf(staged.values());
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (mode == SaveDurability.FSYNC) {
+            commit(batch);
+        } else {
+            enqueue(batch);
+        }
+        IOException failure = null;
+        for (Pending write : batch) {
+            try {
+                write.done().join();
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public void flush() {
+        List<Pending> batch;
+        synchronized (this) {
+            commitScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = List.copyOf(pending);
+            pending.clear();
+        }
+        commit(batch);
+    }
+
+    private synchronized boolean isPending(List<Path> targets) {
+        for (Pending write : pending) {
+            if (targets.contains(write.target())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void enqueue(List<Pending> batch) {
+        if (batch.size() >= MAX_PENDING) {
+            commit(batch);
+            return;
+        }
+        List<Pending> earlier = List.of();
+        boolean full;
+        synchronized (this) {
+            if (pending.size() + batch.size() > MAX_PENDING) {
+                earlier = List.copyOf(pending);
+                pending.clear();
+            }
+            pending.addAll(batch);
+            full = pending.size() >= MAX_PENDING;
+            if (!full && !commitScheduled) {
+                commitScheduled = true;
+                scheduler.schedule(this::flush, groupCommitMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (!earlier.isEmpty()) {
+            commit(earlier);
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    private static Pending stage(Path target, ByteBuffer contents, boolean replaceNow) throws IOException {
+        Path temp = BinaryIo.tempFor(target);
+        Pending write = new Pending(target, temp, new CompletableFuture<>());
+        // Closed straight away and reopened only to fsync, so a large batch does not hold a descriptor per file.
+        try (FileChannel channel = FileChannel.open(temp,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (contents.hasRemaining()) {
+                channel.write(contents);
+            }
+        } catch (IOException e) {
+            write.discard();
+            throw e;
+        }
+        if (!replaceNow) {
+            return write;
+        }
+        try {
+            BinaryIo.replace(temp, target);
+        } catch (IOException e) {
+            write.discard();
+            throw e;
+        }
+        return null;
+    }
+
+    private static void commit(List<Pending> batch) {
+        try {
+            replaceAll(batch);
+        } catch (RuntimeException e) {
+            for (Pending write : batch) {
+                write.done().completeExceptionally(e);
+            }
+            throw e;
+        }
+    }
+
+    private static void replaceAll(List<Pending> batch) {
+        forceAll(batch);
+        Set<Path> dirs = new LinkedHashSet<>();
+        List<Pending> replaced = new ArrayList<>(batch.size());
+        for (Pending write : batch) {
+            if (write.done().isDone()) {
+                continue;
+            }
+            try {
+                BinaryIo.replace(write.temp(), write.target());
+                replaced.add(write);
+                if (write.target().getParent() != null) {
+                    dirs.add(write.target().getParent());
+                }
+            } catch (IOException e) {
+                write.fail(e);
+            }
+        }
+        for (Path dir : dirs) {
+            try {
+                forceDirectory(dir);
+            } catch (IOException e) {
+                for (Pending write : replaced) {
+                    if (dir.equals(write.target().getParent())) {
+                        write.done().completeExceptionally(e);
+                    }
+                }
+            }
+        }
+        for (Pending write : replaced) {
+            write.done().complete(null);
+        }
+    }
+
+    private static void forceAll(List<Pending> batch) {
+        if (batch.size() == 1) {
+            force(batch.get(0));
+            return;
+        }
+        Semaphore permits = new Semaphore(MAX_PARALLEL_FORCES);
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("chess-save-commit-", 0).factory())) {
+            for (Pending write : batch) {
+                permits.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        force(write);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private static void force(Pending write) {
+        try (FileChannel channel = FileChannel.open(write.temp(), StandardOpenOption.WRITE)) {
+            channel.force(false);
+        } catch (IOException e) {
+            write.fail(e);
+        }
+    }
+
+    static void forceDirectory(Path dir) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(dir, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // Some platforms cannot open a directory for syncing; the rename is as durable as they allow.
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    private record Pending(Path target, Path temp, CompletableFuture<Void> done) {
+
+        void fail(IOException e) {
+            discard();
+            done.completeExceptionally(e);
+        }
+
+        void discard() {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
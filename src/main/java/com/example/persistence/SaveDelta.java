@@ -0,0 +1,10 @@
+package com.example.persistence;
+
+public record SaveDelta(Kind kind, GameSaveHeader header) {
+
+    public enum Kind {
+        ADDED,
+        UPDATED,
+        REMOVED
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public final class SaveDirectoryWatcher implements Closeable {
+
+    public static final long DEFAULT_SETTLE_MILLIS = 150L;
+
+    private static final int MAX_SETTLE_ROUNDS = 8;
+    private static final System.Logger LOG = System.getLogger(SaveDirectoryWatcher.class.getName());
+
+    private final Path dir;
+    private final WatchService watchService;
+    private final Consumer<Set<String>> onChanged;
+    private final Runnable onOverflow;
+    private final long settleMillis;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    private SaveDirectoryWatcher(Path dir, WatchService watchService, Consumer<Set<String>> onChanged, Runnable onOverflow,
+                                 long settleMillis) {
+        this.dir = dir;
+        this.watchService = watchService;
+        this.onChanged = onChanged;
+        this.onOverflow = onOverflow;
+        this.settleMillis = settleMillis;
+        this.thread = Thread.ofPlatform().daemon().name("chess-save-watcher").unstarted(this::watchLoop);
+    }
+
+    public static SaveDirectoryWatcher start(Path dir, Consumer<Set<String>> onChanged, Runnable onOverflow) throws IOException {
+        WatchService watchService = dir.getFileSystem().newWatchService();
+        try {
+            dir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+        SaveDirectoryWatcher watcher = new SaveDirectoryWatcher(dir, watchService, onChanged, onOverflow, DEFAULT_SETTLE_MILLIS);
+        watcher.thread.start();
+        return watcher;
+    }
+
+    public Path dir() {
+        return dir;
+    }
+
+    public boolean isAlive() {
+        return !closed && thread.isAlive();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        watchService.close();
+    }
+
+    private void watchLoop() {
+        try {
+            while (!closed) {
+                WatchKey key = watchService.take();
+                Set<String> changed = new HashSet<>();
+                boolean overflow = false;
+                int rounds = 0;
+                while (key != null) {
+                    overflow |= drain(key, changed);
+                    if (!key.reset()) {
+                        LOG.log(System.Logger.Level.WARNING, "Save directory watcher stopped: " + dir + " is no longer accessible");
+                        closed = true;
+                        break;
+                    }
+                    key = ++rounds < MAX_SETTLE_ROUNDS ? watchService.poll(settleMillis, TimeUnit.MILLISECONDS) : null;
+                }
+                if (overflow) {
+                    onOverflow.run();
+                } else if (!changed.isEmpty()) {
+                    onChanged.accept(changed);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+        } catch (RuntimeException e) {
+            LOG.log(System.Logger.Level.WARNING, "Save directory watcher stopped: " + e.getMessage());
+        } finally {
+            closed = true;
+        }
+    }
+
+    private boolean drain(WatchKey key, Set<String> changed) {
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            Object context = event.context();
+            if (!(context instanceof Path path)) {
+                continue;
+            }
+            String name = path.getFileName().toString();
+            if (name.endsWith(".save")) {
+                changed.add(name);
+            } else if (name.endsWith(GameJournal.EXTENSION)) {
+                changed.add(name.substring(0, name.length() - GameJournal.EXTENSION.length()) + ".save");
+            }
+        }
+        return overflow;
+    }
+}
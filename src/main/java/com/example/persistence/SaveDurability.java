@@ -0,0 +1,18 @@
+package com.example.persistence;
+
+public enum SaveDurability {
+    NONE("No fsync"),
+    FSYNC("Fsync every save"),
+    GROUP_COMMIT("Group commit");
+
+    private final String label;
+
+    SaveDurability(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.persistence;
+
+import com.example.audio.SilentAudioService;
+import com.example.config.AppSettings;
+import com.example.config.Difficulty;
+import com.example.config.GameMode;
+import com.example.config.Theme;
+import com.example.game.ChessGameService;
+import com.example.game.GameState;
+import com.example.game.LegalMoveTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+public final class SaveDurabilityBenchmark {
+
+    private static final String USAGE = """
+        Usage: SaveDurabilityBenchmark [--saves N] [--threads N] [--group-millis N] [--plies N] [--dir PATH]
+        Plays one random game, then has N threads save it repeatedly under each durability mode
+        (no fsync, fsync per save, group commit every --group-millis ms) and reports throughput,
+        save() latency percentiles and how long the final sync took. Under fsync and group commit
+        save() only returns once the save is durable, so the final sync has nothing left to do.
+        """;
+
+    private SaveDurabilityBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int saves = 1_000;
+        int threads = 4;
+        long groupMillis = SaveCommitter.DEFAULT_GROUP_COMMIT_MILLIS;
+        int plies = 120;
+        Path dir = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--saves" -> saves = Integer.parseInt(requireValue(args, ++i));
+                case "--threads" -> threads = Integer.parseInt(requireValue(args, ++i));
+                case "--group-millis" -> groupMillis = Long.parseLong(requireValue(args, ++i));
+                case "--plies" -> plies = Integer.parseInt(requireValue(args, ++i));
+                case "--dir" -> dir = Path.of(requireValue(args, ++i));
+                case "--help", "-h" -> {
+                    System.out.print(USAGE);
+                    return;
+                }
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i] + "\n" + USAGE);
+            }
+        }
+        if (saves <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("saves and threads must be > 0\n" + USAGE);
+        }
+
+        ChessGameService game = new ChessGameService(AppSettings.defaultSettings(), new SilentAudioService());
+        SplittableRandom random = new SplittableRandom(11L);
+        String startFen = game.startFen();
+        for (int ply = 0; ply < plies; ply++) {
+            GameState state = game.snapshot();
+            if (state.gameOver()) {
+                break;
+            }
+            LegalMoveTable legalMoves = state.legalMoves();
+            game.playMove(legalMoves.move(random.nextInt(legalMoves.size())), true);
+        }
+        String fen = game.snapshot().fen();
+        int[] moves = game.moves();
+
+        Path root = dir != null ? dir : Files.createTempDirectory("chess-durability-bench");
+        try {
+            System.out.printf("Saves: %,d of a %d-ply game on %d threads, group commit every %d ms%n",
+                saves, moves.length, threads, groupMillis);
+            for (SaveDurability durability : SaveDurability.values()) {
+                Path modeDir = root.resolve(durability.name().toLowerCase());
+                Result result = run(modeDir, durability, groupMillis, saves, threads, index -> new GameSaveRecord(
+                    "bench-" + index, "Game " + index, Instant.now(), fen, GameMode.SINGLE_PLAYER,
+                    Difficulty.MEDIUM, Theme.SANDSTONE, true, List.of(), null, startFen, moves));
+                print(durability, result);
+            }
+        } finally {
+            if (dir == null) {
+                deleteRecursively(root);
+            }
+        }
+    }
+
+    private static Result run(
+        Path dir,
+        SaveDurability durability,
+        long groupMillis,
+        int saves,
+        int threads,
+        RecordFactory factory
+    ) throws Exception {
+        GamePersistenceService service = new GamePersistenceService(dir);
+        service.setDurability(durability, groupMillis);
+        long[] latencies = new long[saves];
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "chess-durability-bench");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try {
+            Future<?>[] workers = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                int first = t;
+                workers[t] = pool.submit(() -> {
+                    for (int i = first; i < saves; i += threads) {
+                        long begin = System.nanoTime();
+                        service.save(factory.create(i));
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                });
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        long writeNanos = System.nanoTime() - start;
+        long syncStart = System.nanoTime();
+        service.sync();
+        long syncNanos = System.nanoTime() - syncStart;
+        service.close();
+
+        long files;
+        try (Stream<Path> paths = Files.list(dir)) {
+            files = paths.filter(path -> path.getFileName().toString().endsWith(".save")).count();
+        }
+        if (files != saves) {
+            throw new IllegalStateException("Found " + files + " of " + saves + " saves in " + dir);
+        }
+        Arrays.sort(latencies);
+        return new Result(writeNanos, syncNanos, latencies, saves);
+    }
+
+    private static void print(SaveDurability durability, Result result) {
+        System.out.printf("  %-16s %8.0f saves/s, save() p50 %8.1f us, p99 %8.1f us, max %8.1f us, final sync %7.1f ms%n",
+            durability,
+            result.saves / (result.writeNanos / 1_000_000_000.0),
+            percentile(result.latencies, 0.50) / 1_000.0,
+            percentile(result.latencies, 0.99) / 1_000.0,
+            result.latencies[result.latencies.length - 1] / 1_000.0,
+            result.syncNanos / 1_000_000.0);
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1] + "\n" + USAGE);
+        }
+        return args[index];
+    }
+
+    @FunctionalInterface
+    private interface RecordFactory {
+        GameSaveRecord create(int index);
+    }
+
+    private record Result(long writeNanos, long syncNanos, long[] latencies, int saves) {
+    }
+}
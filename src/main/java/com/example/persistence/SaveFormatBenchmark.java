@@ -0,0 +1,159 @@
+package com.example.persistence;
+
+import com.example.audio.SilentAudioService;
+import com.example.config.AppSettings;
+import com.example.config.Difficulty;
+import com.example.config.GameMode;
+import com.example.config.Theme;
+import com.example.game.ChessGameService;
+import com.example.game.GameState;
+import com.example.game.LegalMoveTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+public final class SaveFormatBenchmark {
+
+    private static final String USAGE = """
+        Usage: SaveFormatBenchmark [--saves N] [--plies N] [--dir PATH]
+        Plays one random game of the given length, then writes and lists N copies of it in the legacy
+        properties format and in the binary format and reports write time, full list time, indexed header
+        list time (cold = index rebuilt from files, warm = index validated by size and mtime) and bytes on disk.
+        """;
+
+    private SaveFormatBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int saves = 2_000;
+        int plies = 120;
+        Path dir = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--saves" -> saves = Integer.parseInt(requireValue(args, ++i));
+                case "--plies" -> plies = Integer.parseInt(requireValue(args, ++i));
+                case "--dir" -> dir = Path.of(requireValue(args, ++i));
+                case "--help", "-h" -> {
+                    System.out.print(USAGE);
+                    return;
+                }
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i] + "\n" + USAGE);
+            }
+        }
+
+        ChessGameService game = new ChessGameService(AppSettings.defaultSettings(), new SilentAudioService());
+        SplittableRandom random = new SplittableRandom(11L);
+        String startFen = game.startFen();
+        for (int ply = 0; ply < plies; ply++) {
+            GameState state = game.snapshot();
+            if (state.gameOver()) {
+                break;
+            }
+            LegalMoveTable legalMoves = state.legalMoves();
+            game.playMove(legalMoves.move(random.nextInt(legalMoves.size())), true);
+        }
+        GameState state = game.snapshot();
+        int[] moves = game.moves();
+        List<String> notation = state.moveHistory();
+
+        Path root = dir != null ? dir : Files.createTempDirectory("chess-save-bench");
+        try {
+            Result legacy = run(root.resolve("legacy"), saves, index -> new GameSaveRecord(
+                "legacy-" + index, "Game " + index, Instant.now(), state.fen(), GameMode.SINGLE_PLAYER,
+                Difficulty.MEDIUM, Theme.SANDSTONE, true, notation, null));
+            Result binary = run(root.resolve("binary"), saves, index -> new GameSaveRecord(
+                "binary-" + index, "Game " + index, Instant.now(), state.fen(), GameMode.SINGLE_PLAYER,
+                Difficulty.MEDIUM, Theme.SANDSTONE, true, List.of(), null, startFen, moves));
+
+            System.out.printf("Saves: %,d of a %d-ply game%n", saves, moves.length);
+            print("legacy", legacy);
+            print("binary", binary);
+            System.out.printf("  speedup: write %.1fx, list %.1fx, size %.1fx smaller%n",
+                (double) legacy.writeNanos / Math.max(1L, binary.writeNanos),
+                (double) legacy.listNanos / Math.max(1L, binary.listNanos),
+                (double) legacy.bytes / Math.max(1L, binary.bytes));
+        } finally {
+            if (dir == null) {
+                deleteRecursively(root);
+            }
+        }
+    }
+
+    private static Result run(Path dir, int saves, RecordFactory factory) throws IOException {
+        GamePersistenceService service = new GamePersistenceService(dir);
+        long start = System.nanoTime();
+        for (int i = 0; i < saves; i++) {
+            service.save(factory.create(i));
+        }
+        long writeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int listed = service.list().size();
+        long listNanos = System.nanoTime() - start;
+        if (listed != saves) {
+            throw new IllegalStateException("Listed " + listed + " of " + saves + " saves in " + dir);
+        }
+
+        Files.deleteIfExists(dir.resolve(SaveIndex.FILE_NAME));
+        GamePersistenceService fresh = new GamePersistenceService(dir);
+        start = System.nanoTime();
+        fresh.listHeaders();
+        long coldHeaderNanos = System.nanoTime() - start;
+        GamePersistenceService reopened = new GamePersistenceService(dir);
+        start = System.nanoTime();
+        int headers = reopened.listHeaders().size();
+        long warmHeaderNanos = System.nanoTime() - start;
+        if (headers != saves) {
+            throw new IllegalStateException("Indexed " + headers + " of " + saves + " saves in " + dir);
+        }
+
+        long bytes;
+        try (Stream<Path> files = Files.list(dir)) {
+            bytes = files
+                .filter(path -> path.getFileName().toString().endsWith(".save"))
+                .mapToLong(path -> path.toFile().length())
+                .sum();
+        }
+        return new Result(writeNanos, listNanos, coldHeaderNanos, warmHeaderNanos, bytes, saves);
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("  %-6s write %8.1f us/save, list %8.1f us/save, headers cold %8.1f / warm %6.1f us/save, %,8d bytes/save%n",
+            label,
+            result.writeNanos / 1_000.0 / result.saves,
+            result.listNanos / 1_000.0 / result.saves,
+            result.coldHeaderNanos / 1_000.0 / result.saves,
+            result.warmHeaderNanos / 1_000.0 / result.saves,
+            result.bytes / result.saves);
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1] + "\n" + USAGE);
+        }
+        return args[index];
+    }
+
+    @FunctionalInterface
+    private interface RecordFactory {
+        GameSaveRecord create(int index);
+    }
+
+    private record Result(long writeNanos, long listNanos, long coldHeaderNanos, long warmHeaderNanos, long bytes, int saves) {
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.persistence;
+
+import com.example.config.Difficulty;
+import com.example.config.GameMode;
+import com.example.config.Theme;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+public final class SaveIndex {
+
+    public static final String FILE_NAME = "saves.index";
+
+    private static final int MAGIC = 0x43534958;
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int CRC_BYTES = 4;
+    private static final int FLAG_SOUND = 1;
+
+    private final Path dir;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private boolean dirty;
+
+    private SaveIndex(Path dir) {
+        this.dir = dir;
+    }
+
+    public static SaveIndex load(Path dir) {
+        SaveIndex index = new SaveIndex(dir);
+        Path file = dir.resolve(FILE_NAME);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + CRC_BYTES || size > Integer.MAX_VALUE) {
+                index.dirty = true;
+                return index;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, buffer.position()) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            index.decode(buffer);
+        } catch (NoSuchFileException e) {
+            index.dirty = true;
+        } catch (IOException | RuntimeException e) {
+            index.entries.clear();
+            index.dirty = true;
+        }
+        return index;
+    }
+
+    public Path dir() {
+        return dir;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Collection<Entry> entries() {
+        return entries.values();
+    }
+
+    public GameSaveHeader lookup(String fileName, Stamp stamp) {
+        Entry entry = entries.get(fileName);
+        return entry != null && entry.stamp().equals(stamp) ? entry.header() : null;
+    }
+
+    public Entry get(String fileName) {
+        return entries.get(fileName);
+    }
+
+    public Entry put(String fileName, Stamp stamp, GameSaveHeader header) {
+        Entry previous = entries.put(fileName, new Entry(fileName, stamp, header));
+        if (previous == null || !previous.stamp().equals(stamp) || !previous.header().equals(header)) {
+            dirty = true;
+        }
+        return previous;
+    }
+
+    public Entry remove(String fileName) {
+        Entry removed = entries.remove(fileName);
+        if (removed != null) {
+            dirty = true;
+        }
+        return removed;
+    }
+
+    public ByteBuffer encodeIfDirty() {
+        if (!dirty) {
+            return null;
+        }
+        dirty = false;
+        return encode();
+    }
+
+    public void markDirty() {
+        dirty = true;
+    }
+
+    public void write(ByteBuffer snapshot) throws IOException {
+        Files.createDirectories(dir);
+        BinaryIo.writeAtomically(dir.resolve(FILE_NAME), snapshot, false);
+    }
+
+    public static Stamp stamp(Path saveFile) throws IOException {
+        return stamp(saveFile, true);
+    }
+
+    public static Stamp stamp(Path saveFile, boolean journalMayExist) throws IOException {
+        BasicFileAttributes save = Files.readAttributes(saveFile, BasicFileAttributes.class);
+        long journalSize = 0L;
+        long journalModified = 0L;
+        if (journalMayExist) {
+            try {
+                BasicFileAttributes journal = Files.readAttributes(GameJournal.pathFor(saveFile), BasicFileAttributes.class);
+                journalSize = journal.size();
+                journalModified = journal.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+            } catch (NoSuchFileException ignored) {
+            }
+        }
+        return new Stamp(save.size(), save.lastModifiedTime().to(TimeUnit.NANOSECONDS), journalSize, journalModified);
+    }
+
+    private ByteBuffer encode() {
+        int length = HEADER_BYTES + CRC_BYTES;
+        Map<Entry, byte[][]> strings = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            GameSaveHeader header = entry.header();
+            byte[][] encoded = {BinaryIo.utf8(entry.fileName()), BinaryIo.utf8(header.id()), BinaryIo.utf8(header.name())};
+            strings.put(entry, encoded);
+            length += 32 + 12 + 4 + 4 + 6 + encoded[0].length + encoded[1].length + encoded[2].length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putInt(entries.size());
+        for (Entry entry : entries.values()) {
+            byte[][] encoded = strings.get(entry);
+            GameSaveHeader header = entry.header();
+            Stamp stamp = entry.stamp();
+            BinaryIo.putString(buffer, encoded[0]);
+            buffer.putLong(stamp.size()).putLong(stamp.modifiedNanos());
+            buffer.putLong(stamp.journalSize()).putLong(stamp.journalModifiedNanos());
+            BinaryIo.putString(buffer, encoded[1]);
+            BinaryIo.putString(buffer, encoded[2]);
+            buffer.putLong(header.savedAt().getEpochSecond()).putInt(header.savedAt().getNano());
+            buffer.put((byte) header.gameMode().ordinal());
+            buffer.put((byte) header.difficulty().ordinal());
+            buffer.put((byte) header.theme().ordinal());
+            buffer.put((byte) (header.soundEnabled() ? FLAG_SOUND : 0));
+            buffer.putInt(header.moveCount());
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        return buffer.flip();
+    }
+
+    private void decode(ByteBuffer buffer) throws IOException {
+        int crcOffset = buffer.limit() - CRC_BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, crcOffset));
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION || (int) crc.getValue() != buffer.getInt(crcOffset)) {
+            throw new IOException("Stale or damaged save index");
+        }
+        int count = buffer.getInt(8);
+        buffer.position(HEADER_BYTES).limit(crcOffset);
+        try {
+            for (int i = 0; i < count; i++) {
+                String fileName = BinaryIo.getString(buffer);
+                Stamp stamp = new Stamp(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+                String id = BinaryIo.getString(buffer);
+                String name = BinaryIo.getString(buffer);
+                Instant savedAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+                GameMode mode = BinaryIo.ordinal(GameMode.values(), buffer.get(), GameMode.SINGLE_PLAYER);
+                Difficulty difficulty = BinaryIo.ordinal(Difficulty.values(), buffer.get(), Difficulty.MEDIUM);
+                Theme theme = BinaryIo.ordinal(Theme.values(), buffer.get(), Theme.SANDSTONE);
+                boolean soundEnabled = (buffer.get() & FLAG_SOUND) != 0;
+                int moveCount = buffer.getInt();
+                GameSaveHeader header = new GameSaveHeader(id, name, savedAt, mode, difficulty, theme, soundEnabled,
+                    moveCount, dir.resolve(fileName));
+                entries.put(fileName, new Entry(fileName, stamp, header));
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated save index", e);
+        }
+    }
+
+    public record Stamp(long size, long modifiedNanos, long journalSize, long journalModifiedNanos) {
+    }
+
+    public record Entry(String fileName, Stamp stamp, GameSaveHeader header) {
+    }
+}
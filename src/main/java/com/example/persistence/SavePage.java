@@ -0,0 +1,6 @@
+package com.example.persistence;
+
+import java.util.List;
+
+public record SavePage(List<GameSaveHeader> items, int offset, int total, long version) {
+}
@@ -0,0 +1,16 @@
+package com.example.persistence;
+
+public record SaveQuery(int offset, int limit, SaveSort sort, String namePrefix) {
+
+    public SaveQuery {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must be >= 0");
+        }
+        sort = sort == null ? SaveSort.NEWEST : sort;
+        namePrefix = namePrefix == null ? "" : namePrefix.strip();
+    }
+
+    public SaveQuery withRange(int offset, int limit) {
+        return new SaveQuery(offset, limit, sort, namePrefix);
+    }
+}
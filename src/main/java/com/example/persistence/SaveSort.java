@@ -0,0 +1,18 @@
+package com.example.persistence;
+
+public enum SaveSort {
+    NEWEST("Newest first"),
+    OLDEST("Oldest first"),
+    NAME("Name");
+
+    private final String label;
+
+    SaveSort(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -14,17 +14,39 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class SettingsPersistenceService {
 
+    public static final long DEFAULT_COALESCE_MILLIS = 300L;
+
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "chess-settings-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final Path settingsFile;
+    private final long coalesceMillis;
+    private final AtomicReference<Properties> pending = new AtomicReference<>();
+    private final Object writeLock = new Object();
+    private ScheduledFuture<?> scheduled;
 
     public SettingsPersistenceService() {
         this(Paths.get(System.getProperty("user.home"), ".chess-studio", "settings.properties"));
     }
 
     public SettingsPersistenceService(Path settingsFile) {
+        this(settingsFile, DEFAULT_COALESCE_MILLIS);
+    }
+
+    public SettingsPersistenceService(Path settingsFile, long coalesceMillis) {
         this.settingsFile = settingsFile;
+        this.coalesceMillis = Math.max(0L, coalesceMillis);
     }
 
     public void loadInto(AppSettings settings) {
@@ -53,12 +75,35 @@ public class SettingsPersistenceService {
     }
 
     public void save(AppSettings settings) {
-        try {
-            Files.createDirectories(settingsFile.getParent());
-        } catch (IOException e) {
-            return;
+        pending.set(toProperties(settings));
+        flush();
+    }
+
+    public void saveLater(AppSettings settings) {
+        pending.set(toProperties(settings));
+        synchronized (this) {
+            if (scheduled == null || scheduled.isDone()) {
+                scheduled = WRITER.schedule(this::flush, coalesceMillis, TimeUnit.MILLISECONDS);
+            }
         }
+    }
+
+    public void flush() {
+        synchronized (this) {
+            if (scheduled != null) {
+                scheduled.cancel(false);
+                scheduled = null;
+            }
+        }
+        synchronized (writeLock) {
+            Properties props = pending.getAndSet(null);
+            if (props != null) {
+                write(props);
+            }
+        }
+    }
 
+    private Properties toProperties(AppSettings settings) {
         Properties props = new Properties();
         props.setProperty("gameMode", settings.gameModeProperty().get().name());
         props.setProperty("difficulty", settings.difficultyProperty().get().name());
@@ -71,10 +116,22 @@ public class SettingsPersistenceService {
         props.setProperty("sfxVolume", String.valueOf(settings.sfxVolumeProperty().get()));
         props.setProperty("menuMusicVolume", String.valueOf(settings.menuMusicVolumeProperty().get()));
         props.setProperty("musicVolume", String.valueOf(settings.menuMusicVolumeProperty().get()));
+        return props;
+    }
 
-        try (OutputStream out = Files.newOutputStream(settingsFile)) {
-            props.store(out, "chess Settings");
+    private void write(Properties props) {
+        Path temp = BinaryIo.tempFor(settingsFile);
+        try {
+            Files.createDirectories(settingsFile.getParent());
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                props.store(out, "chess Settings");
+            }
+            BinaryIo.replace(temp, settingsFile);
         } catch (IOException ignored) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException alsoIgnored) {
+            }
         }
     }
 
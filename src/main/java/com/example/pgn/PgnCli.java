@@ -0,0 +1,98 @@
+package com.example.pgn;
+
+import com.example.persistence.GamePersistenceService;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class PgnCli {
+
+    private static final String USAGE = """
+        Usage: PgnCli import|export PGN_FILE [--dir SAVE_DIR] [--threads N] [--batch N]
+        import: streams PGN_FILE, parses SAN on N worker threads and writes every game as a save in SAVE_DIR.
+        export: writes every save in SAVE_DIR to PGN_FILE in save-list order.
+        SAVE_DIR defaults to ~/.chess-studio/saves. Progress is printed to stderr about once a second.
+        """;
+
+    private PgnCli() {
+    }
+
+    public static void main(String[] args) {
+        String command = null;
+        Path pgn = null;
+        Path dir = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int batch = PgnTransfer.DEFAULT_BATCH_SIZE;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--dir" -> dir = Path.of(requireValue(args, ++i));
+                case "--threads" -> threads = Integer.parseInt(requireValue(args, ++i));
+                case "--batch" -> batch = Integer.parseInt(requireValue(args, ++i));
+                case "--help", "-h" -> {
+                    System.out.print(USAGE);
+                    return;
+                }
+                default -> {
+                    if (command == null) {
+                        command = args[i];
+                    } else {
+                        pgn = Path.of(args[i]);
+                    }
+                }
+            }
+        }
+        if (pgn == null || !("import".equals(command) || "export".equals(command))) {
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        GamePersistenceService persistence = dir == null ? new GamePersistenceService() : new GamePersistenceService(dir);
+        AtomicLong lastReport = new AtomicLong(System.nanoTime());
+        boolean importing = command.equals("import");
+        try (persistence; PgnTransfer transfer = new PgnTransfer(threads, batch)) {
+            PgnTransfer.Transfer running = importing
+                ? transfer.importFile(pgn, persistence, progress -> report(progress, lastReport))
+                : transfer.exportSaves(persistence, pgn, progress -> report(progress, lastReport));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                running.cancel();
+                try {
+                    running.completion().get(10, TimeUnit.SECONDS);
+                } catch (Exception ignored) {
+                }
+                persistence.close();
+            }));
+            PgnTransfer.Summary summary = running.join();
+            System.err.printf(
+                "%s %d games (%d failed) on %d threads in %.2f s (%.0f games/s, %.1f MB %s)%s%n",
+                importing ? "Imported" : "Exported",
+                summary.games(),
+                summary.failed(),
+                transfer.workers(),
+                summary.elapsedNanos() / 1_000_000_000.0,
+                summary.gamesPerSecond(),
+                summary.bytes() / (1024.0 * 1024.0),
+                importing ? "read" : "written",
+                summary.cancelled() ? " - cancelled" : ""
+            );
+        }
+    }
+
+    private static void report(PgnTransfer.Progress progress, AtomicLong lastReport) {
+        long now = System.nanoTime();
+        long last = lastReport.get();
+        if (now - last < 1_000_000_000L || !lastReport.compareAndSet(last, now)) {
+            return;
+        }
+        System.err.printf("%5.1f%%  %d games, %d failed%n", progress.fraction() * 100.0, progress.games(), progress.failed());
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1] + "\n" + USAGE);
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.pgn;
+
+import java.util.Map;
+
+public record PgnGame(long number, Map<String, String> tags, String movetext) {
+
+    public String tag(String name) {
+        return tags.get(name);
+    }
+
+    public String tag(String name, String fallback) {
+        String value = tags.get(name);
+        return value == null || value.isBlank() || value.equals("?") ? fallback : value;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class PgnReader implements Closeable {
+
+    public static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final long size;
+    private byte[] line = new byte[256];
+    private long position;
+    private long games;
+    private boolean eof;
+    private boolean firstLine = true;
+    private String pendingLine;
+
+    private PgnReader(FileChannel channel, int bufferBytes) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferBytes).flip();
+        this.size = channel.size();
+    }
+
+    public static PgnReader open(Path file) throws IOException {
+        return open(file, DEFAULT_BUFFER_BYTES);
+    }
+
+    public static PgnReader open(Path file, int bufferBytes) throws IOException {
+        if (bufferBytes < 4096) {
+            throw new IllegalArgumentException("bufferBytes must be at least 4096");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new PgnReader(channel, bufferBytes);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public long games() {
+        return games;
+    }
+
+    public PgnGame next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        StringBuilder movetext = new StringBuilder();
+        String raw;
+        while ((raw = pendingLine != null ? takePendingLine() : readLine()) != null) {
+            String text = raw.strip();
+            if (text.isEmpty()) {
+                if (!movetext.isEmpty()) {
+                    break;
+                }
+                continue;
+            }
+            if (text.charAt(0) == '%') {
+                continue;
+            }
+            if (text.charAt(0) == '[' && text.endsWith("]")) {
+                if (!movetext.isEmpty()) {
+                    pendingLine = raw;
+                    break;
+                }
+                parseTag(text, tags);
+                continue;
+            }
+            movetext.append(text).append('\n');
+        }
+        if (tags.isEmpty() && movetext.isEmpty()) {
+            return null;
+        }
+        return new PgnGame(++games, tags, movetext.toString());
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private String takePendingLine() {
+        String value = pendingLine;
+        pendingLine = null;
+        return value;
+    }
+
+    private String readLine() throws IOException {
+        int length = 0;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (eof || !fill()) {
+                    return length == 0 ? null : decode(length);
+                }
+            }
+            byte[] array = buffer.array();
+            int start = buffer.position();
+            int limit = buffer.limit();
+            int end = start;
+            while (end < limit && array[end] != '\n') {
+                end++;
+            }
+            int chunk = end - start;
+            if (length + chunk > line.length) {
+                line = Arrays.copyOf(line, Math.max(length + chunk, line.length * 2));
+            }
+            System.arraycopy(array, start, line, length, chunk);
+            length += chunk;
+            if (end < limit) {
+                buffer.position(end + 1);
+                position += chunk + 1;
+                return decode(length);
+            }
+            buffer.position(end);
+            position += chunk;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        return true;
+    }
+
+    private String decode(int length) {
+        int start = 0;
+        boolean first = firstLine;
+        firstLine = false;
+        if (first && length >= 3 && (line[0] & 0xFF) == 0xEF && (line[1] & 0xFF) == 0xBB && (line[2] & 0xFF) == 0xBF) {
+            start = 3;
+        }
+        int end = length;
+        if (end > start && line[end - 1] == '\r') {
+            end--;
+        }
+        return new String(line, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private static void parseTag(String text, Map<String, String> tags) {
+        int space = text.indexOf(' ');
+        int open = text.indexOf('"');
+        int close = text.lastIndexOf('"');
+        if (space < 2 || open < space || close <= open) {
+            return;
+        }
+        String name = text.substring(1, space);
+        String value = text.substring(open + 1, close).replace("\\\"", "\"").replace("\\\\", "\\");
+        tags.put(name, value);
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.pgn;
+
+import com.example.config.Difficulty;
+import com.example.config.GameMode;
+import com.example.config.Theme;
+import com.example.persistence.GamePersistenceService;
+import com.example.persistence.GameSaveHeader;
+import com.example.persistence.GameSaveRecord;
+import com.github.bhlangonijr.chesslib.Board;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class PgnTransfer implements AutoCloseable {
+
+    public static final int DEFAULT_BATCH_SIZE = 512;
+
+    private static final int MAX_NAME_LENGTH = 200;
+
+    private final int workers;
+    private final int batchSize;
+    private final ExecutorService executor;
+
+    public PgnTransfer(int workers) {
+        this(workers, DEFAULT_BATCH_SIZE);
+    }
+
+    public PgnTransfer(int workers, int batchSize) {
+        if (workers <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("workers and batchSize must be positive");
+        }
+        this.workers = workers;
+        this.batchSize = batchSize;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "chess-pgn-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int workers() {
+        return workers;
+    }
+
+    public Transfer importFile(Path pgn, GamePersistenceService target, Consumer<Progress> onProgress) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CompletableFuture<Summary> completion = new CompletableFuture<>();
+        Thread.ofPlatform().daemon().name("chess-pgn-import").start(() -> {
+            long startedAt = System.nanoTime();
+            AtomicLong imported = new AtomicLong();
+            AtomicLong failed = new AtomicLong();
+            Semaphore inFlight = new Semaphore(workers * 2);
+            try (PgnReader reader = PgnReader.open(pgn)) {
+                Consumer<List<PgnGame>> submit = games -> {
+                    long position = reader.position();
+                    long size = reader.size();
+                    inFlight.acquireUninterruptibly();
+                    executor.execute(() -> {
+                        try {
+                            if (!cancelled.get()) {
+                                importBatch(games, target, imported, failed);
+                                onProgress.accept(new Progress(position, size, imported.get(), failed.get()));
+                            }
+                        } catch (RuntimeException e) {
+                            cancelled.set(true);
+                            completion.completeExceptionally(e);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                };
+                List<PgnGame> batch = new ArrayList<>(batchSize);
+                PgnGame game;
+                while (!cancelled.get() && (game = reader.next()) != null) {
+                    batch.add(game);
+                    if (batch.size() == batchSize) {
+                        submit.accept(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!cancelled.get() && !batch.isEmpty()) {
+                    submit.accept(batch);
+                }
+                inFlight.acquire(workers * 2);
+                completion.complete(new Summary(imported.get(), failed.get(), reader.position(),
+                    System.nanoTime() - startedAt, cancelled.get()));
+            } catch (IOException e) {
+                completion.completeExceptionally(new UncheckedIOException(e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                completion.completeExceptionally(e);
+            } catch (RuntimeException e) {
+                completion.completeExceptionally(e);
+            }
+        });
+        return new Transfer(completion, cancelled);
+    }
+
+    public Transfer exportSaves(GamePersistenceService source, Path pgn, Consumer<Progress> onProgress) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CompletableFuture<Summary> completion = new CompletableFuture<>();
+        Thread.ofPlatform().daemon().name("chess-pgn-export").start(() -> {
+            long startedAt = System.nanoTime();
+            long exported = 0L;
+            long failed = 0L;
+            ArrayDeque<CompletableFuture<List<String>>> window = new ArrayDeque<>();
+            try (PgnWriter writer = PgnWriter.create(pgn)) {
+                List<GameSaveHeader> headers = source.listHeaders();
+                int next = 0;
+                while (!cancelled.get() && (next < headers.size() || !window.isEmpty())) {
+                    while (next < headers.size() && window.size() < workers * 2) {
+                        List<GameSaveHeader> batch = headers.subList(next, Math.min(headers.size(), next + batchSize));
+                        next += batch.size();
+                        window.add(CompletableFuture.supplyAsync(() -> exportBatch(batch, source), executor));
+                    }
+                    for (String game : window.removeFirst().join()) {
+                        if (game == null) {
+                            failed++;
+                        } else {
+                            writer.write(game);
+                            exported++;
+                        }
+                    }
+                    onProgress.accept(new Progress(exported + failed, headers.size(), exported, failed));
+                }
+                writer.flush();
+                completion.complete(new Summary(exported, failed, writer.position(), System.nanoTime() - startedAt,
+                    cancelled.get()));
+            } catch (IOException e) {
+                completion.completeExceptionally(new UncheckedIOException(e));
+            } catch (RuntimeException e) {
+                completion.completeExceptionally(e);
+            } finally {
+                window.forEach(future -> future.cancel(false));
+            }
+        });
+        return new Transfer(completion, cancelled);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    public static GameSaveRecord toRecord(PgnGame game, Board board) {
+        String startFen = game.tag("FEN", SanParser.START_FEN);
+        board.loadFromFen(startFen);
+        int[] moves = SanParser.parseMovetext(board, game.movetext());
+        return new GameSaveRecord(
+            null,
+            name(game),
+            Instant.now(),
+            board.getFen(),
+            GameMode.TWO_PLAYER,
+            Difficulty.MEDIUM,
+            Theme.SANDSTONE,
+            true,
+            List.of(),
+            null,
+            startFen,
+            moves
+        );
+    }
+
+    private void importBatch(List<PgnGame> games, GamePersistenceService target, AtomicLong imported, AtomicLong failed) {
+        Board board = new Board();
+        List<GameSaveRecord> records = new ArrayList<>(games.size());
+        for (PgnGame game : games) {
+            try {
+                records.add(toRecord(game, board));
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+            }
+        }
+        if (!records.isEmpty()) {
+            imported.addAndGet(target.saveAll(records).size());
+        }
+    }
+
+    private static List<String> exportBatch(List<GameSaveHeader> headers, GamePersistenceService source) {
+        List<String> games = new ArrayList<>(headers.size());
+        for (GameSaveHeader header : headers) {
+            GameSaveRecord record = source.load(header.file());
+            String game = null;
+            if (record != null) {
+                try {
+                    game = PgnWriter.format(record);
+                } catch (RuntimeException ignored) {
+                }
+            }
+            games.add(game);
+        }
+        return games;
+    }
+
+    private static String name(PgnGame game) {
+        String name = game.tag("White", "?") + " vs " + game.tag("Black", "?");
+        String date = game.tag("Date", null);
+        if (date != null && !date.startsWith("????")) {
+            name += ", " + date;
+        }
+        return name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name;
+    }
+
+    public record Transfer(CompletableFuture<Summary> completion, AtomicBoolean cancelFlag) {
+
+        public void cancel() {
+            cancelFlag.set(true);
+        }
+
+        public Summary join() {
+            return completion.join();
+        }
+    }
+
+    public record Progress(long done, long total, long games, long failed) {
+
+        public double fraction() {
+            return total <= 0L ? 0.0 : Math.min(1.0, (double) done / total);
+        }
+    }
+
+    public record Summary(long games, long failed, long bytes, long elapsedNanos, boolean cancelled) {
+
+        public double gamesPerSecond() {
+            return elapsedNanos == 0L ? 0.0 : games * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+}
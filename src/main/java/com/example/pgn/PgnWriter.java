@@ -0,0 +1,167 @@
+package com.example.pgn;
+
+import com.example.game.Moves;
+import com.example.game.SanFormatter;
+import com.example.persistence.GameSaveRecord;
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class PgnWriter implements Closeable, Flushable {
+
+    public static final int DEFAULT_BUFFER_CHARS = 1 << 16;
+
+    private static final int LINE_WIDTH = 79;
+    private static final DateTimeFormatter PGN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd").withZone(ZoneOffset.UTC);
+    private static final List<String> SEVEN_TAG_ROSTER = List.of("Event", "Site", "Date", "Round", "White", "Black", "Result");
+
+    private final FileChannel channel;
+    private final Writer out;
+    private long games;
+
+    private PgnWriter(FileChannel channel) {
+        this.channel = channel;
+        this.out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), DEFAULT_BUFFER_CHARS);
+    }
+
+    public static PgnWriter create(Path file) throws IOException {
+        return new PgnWriter(FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    public long games() {
+        return games;
+    }
+
+    public long position() throws IOException {
+        out.flush();
+        return channel.position();
+    }
+
+    public void write(String game) throws IOException {
+        out.write(game);
+        games++;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    public static String format(GameSaveRecord record) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", record.name() == null || record.name().isBlank() ? "?" : record.name());
+        tags.put("Date", record.savedAt() == null ? "????.??.??" : PGN_DATE.format(record.savedAt()));
+        if (record.hasMoveList()) {
+            return format(tags, record.startFen(), record.moves());
+        }
+        return format(tags, record.fen(), new int[0]);
+    }
+
+    public static String format(Map<String, String> tags, String startFen, int[] moves) {
+        Board board = new Board();
+        String fen = startFen == null || startFen.isBlank() ? SanParser.START_FEN : startFen;
+        board.loadFromFen(fen);
+        int moveNumber = board.getMoveCounter() == null ? 1 : Math.max(1, board.getMoveCounter());
+        StringBuilder movetext = new StringBuilder(moves.length * 7 + 16);
+        int lineStart = 0;
+        List<Move> legal = SanParser.legalMoves(board);
+        for (int ply = 0; ply < moves.length; ply++) {
+            Move move = find(legal, moves[ply]);
+            if (move == null) {
+                throw new IllegalArgumentException("Illegal move " + Moves.toUci(moves[ply]) + " at ply " + ply);
+            }
+            boolean white = board.getSideToMove() == Side.WHITE;
+            String san = SanFormatter.format(board, move, legal);
+            board.doMove(move);
+            legal = SanParser.legalMoves(board);
+            san = SanFormatter.withCheckSuffix(san, board.isKingAttacked(), legal.isEmpty());
+            if (white) {
+                lineStart = appendToken(movetext, lineStart, moveNumber + ".");
+            } else if (ply == 0) {
+                lineStart = appendToken(movetext, lineStart, moveNumber + "...");
+            }
+            lineStart = appendToken(movetext, lineStart, san);
+            if (!white) {
+                moveNumber++;
+            }
+        }
+        String result = tags.getOrDefault("Result", result(board, legal));
+        appendToken(movetext, lineStart, result);
+
+        StringBuilder game = new StringBuilder(movetext.length() + 256);
+        for (String name : SEVEN_TAG_ROSTER) {
+            String value = name.equals("Result") ? result : tags.getOrDefault(name, name.equals("Date") ? "????.??.??" : "?");
+            appendTag(game, name, value);
+        }
+        if (!SanParser.START_FEN.equals(fen)) {
+            appendTag(game, "SetUp", "1");
+            appendTag(game, "FEN", fen);
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (!SEVEN_TAG_ROSTER.contains(tag.getKey()) && !tag.getKey().equals("SetUp") && !tag.getKey().equals("FEN")) {
+                appendTag(game, tag.getKey(), tag.getValue());
+            }
+        }
+        return game.append('\n').append(movetext).append("\n\n").toString();
+    }
+
+    private static Move find(List<Move> legal, int packed) {
+        for (Move move : legal) {
+            if (Moves.pack(move) == packed) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    private static String result(Board board, List<Move> legal) {
+        if (legal.isEmpty()) {
+            if (board.isKingAttacked()) {
+                return board.getSideToMove() == Side.WHITE ? "0-1" : "1-0";
+            }
+            return "1/2-1/2";
+        }
+        return board.isInsufficientMaterial() ? "1/2-1/2" : "*";
+    }
+
+    private static int appendToken(StringBuilder movetext, int lineStart, String token) {
+        if (movetext.length() > lineStart) {
+            if (movetext.length() - lineStart + 1 + token.length() > LINE_WIDTH) {
+                movetext.append('\n');
+                lineStart = movetext.length();
+            } else {
+                movetext.append(' ');
+            }
+        }
+        movetext.append(token);
+        return lineStart;
+    }
+
+    private static void appendTag(StringBuilder game, String name, String value) {
+        game.append('[').append(name).append(" \"")
+            .append(value.replace("\\", "\\\\").replace("\"", "\\\""))
+            .append("\"]\n");
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.pgn;
+
+import com.example.game.Moves;
+import com.example.game.Squares;
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.move.Move;
+import com.github.bhlangonijr.chesslib.move.MoveGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SanParser {
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private SanParser() {
+    }
+
+    public static int[] parseMovetext(Board board, String movetext) {
+        List<Move> played = new ArrayList<>();
+        int length = movetext.length();
+        int i = 0;
+        while (i < length) {
+            char c = movetext.charAt(i);
+            if (Character.isWhitespace(c) || c == ')') {
+                i++;
+            } else if (c == '{') {
+                i = skipComment(movetext, i);
+            } else if (c == ';') {
+                int end = movetext.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (c == '(') {
+                i = skipVariation(movetext, i);
+            } else if (c == '$') {
+                i++;
+                while (i < length && Character.isDigit(movetext.charAt(i))) {
+                    i++;
+                }
+            } else {
+                int start = i;
+                while (i < length && !isDelimiter(movetext.charAt(i))) {
+                    i++;
+                }
+                String token = stripMoveNumber(movetext.substring(start, i));
+                if (token.isEmpty()) {
+                    continue;
+                }
+                if (isResult(token)) {
+                    break;
+                }
+                Move move = parse(board, legalMoves(board), token);
+                board.doMove(move);
+                played.add(move);
+            }
+        }
+        int[] moves = new int[played.size()];
+        for (int ply = 0; ply < moves.length; ply++) {
+            moves[ply] = Moves.pack(played.get(ply));
+        }
+        return moves;
+    }
+
+    public static Move parse(Board board, List<Move> legalMoves, String token) {
+        String san = stripSuffix(token);
+        if (san.isEmpty()) {
+            throw new IllegalArgumentException("Empty move");
+        }
+        if (san.equals("O-O") || san.equals("0-0") || san.equals("O-O-O") || san.equals("0-0-0")) {
+            boolean kingSide = san.length() == 3;
+            for (Move move : legalMoves) {
+                int from = move.getFrom().ordinal();
+                int to = move.getTo().ordinal();
+                if (board.getPiece(move.getFrom()).getPieceType() == PieceType.KING
+                    && Math.abs(Squares.file(to) - Squares.file(from)) == 2
+                    && (Squares.file(to) > Squares.file(from)) == kingSide) {
+                    return move;
+                }
+            }
+            throw new IllegalArgumentException("Illegal castling: " + token);
+        }
+
+        PieceType type = pieceType(san.charAt(0));
+        int index = type == PieceType.PAWN ? 0 : 1;
+        PieceType promotion = PieceType.NONE;
+        int end = san.length();
+        int equals = san.indexOf('=');
+        if (equals > 0 && equals + 1 < end) {
+            promotion = pieceType(san.charAt(equals + 1));
+            end = equals;
+        } else if (type == PieceType.PAWN && end >= 3 && Character.isLetter(san.charAt(end - 1))
+            && Character.isDigit(san.charAt(end - 2))) {
+            promotion = pieceType(Character.toUpperCase(san.charAt(end - 1)));
+            end--;
+        }
+        if (end - index < 2) {
+            throw new IllegalArgumentException("Malformed move: " + token);
+        }
+        int to = Squares.index(san.substring(end - 2, end));
+        if (to == Squares.NONE) {
+            throw new IllegalArgumentException("Malformed move: " + token);
+        }
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int j = index; j < end - 2; j++) {
+            char hint = san.charAt(j);
+            if (hint >= 'a' && hint <= 'h') {
+                fromFile = hint - 'a';
+            } else if (hint >= '1' && hint <= '8') {
+                fromRank = hint - '1';
+            } else if (hint != 'x' && hint != ':' && hint != '-') {
+                throw new IllegalArgumentException("Malformed move: " + token);
+            }
+        }
+
+        Move match = null;
+        for (Move move : legalMoves) {
+            int from = move.getFrom().ordinal();
+            if (move.getTo().ordinal() != to
+                || board.getPiece(move.getFrom()).getPieceType() != type
+                || (fromFile >= 0 && Squares.file(from) != fromFile)
+                || (fromRank >= 0 && Squares.rank(from) != fromRank)
+                || promotionType(move.getPromotion()) != promotion) {
+                continue;
+            }
+            if (match != null) {
+                throw new IllegalArgumentException("Ambiguous move: " + token);
+            }
+            match = move;
+        }
+        if (match == null) {
+            throw new IllegalArgumentException("Illegal move: " + token);
+        }
+        return match;
+    }
+
+    public static List<Move> legalMoves(Board board) {
+        try {
+            return MoveGenerator.generateLegalMoves(board);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Unable to generate moves for " + board.getFen(), e);
+        }
+    }
+
+    private static PieceType pieceType(char symbol) {
+        return switch (symbol) {
+            case 'N' -> PieceType.KNIGHT;
+            case 'B' -> PieceType.BISHOP;
+            case 'R' -> PieceType.ROOK;
+            case 'Q' -> PieceType.QUEEN;
+            case 'K' -> PieceType.KING;
+            default -> PieceType.PAWN;
+        };
+    }
+
+    private static PieceType promotionType(Piece promotion) {
+        return promotion == null || promotion == Piece.NONE ? PieceType.NONE : promotion.getPieceType();
+    }
+
+    private static String stripSuffix(String token) {
+        int end = token.length();
+        while (end > 0) {
+            char c = token.charAt(end - 1);
+            if (c != '+' && c != '#' && c != '!' && c != '?') {
+                break;
+            }
+            end--;
+        }
+        return token.substring(0, end);
+    }
+
+    private static String stripMoveNumber(String token) {
+        int i = 0;
+        while (i < token.length() && Character.isDigit(token.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || i == token.length() || token.charAt(i) != '.') {
+            return i == token.length() ? "" : token;
+        }
+        while (i < token.length() && token.charAt(i) == '.') {
+            i++;
+        }
+        return token.substring(i);
+    }
+
+    private static boolean isResult(String token) {
+        return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*");
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '{' || c == '(' || c == ')' || c == ';' || c == '$';
+    }
+
+    private static int skipComment(String text, int start) {
+        int end = text.indexOf('}', start + 1);
+        return end < 0 ? text.length() : end + 1;
+    }
+
+    private static int skipVariation(String text, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '{') {
+                i = skipComment(text, i);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+}
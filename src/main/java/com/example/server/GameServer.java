@@ -0,0 +1,410 @@
+package com.example.server;
+
+import com.example.ai.AnalysisResult;
+import com.example.ai.ChessAiService;
+import com.example.ai.SearchLimits;
+import com.example.broadcast.GameBroadcaster;
+import com.example.config.Difficulty;
+import com.example.config.TimeControl;
+import com.example.game.GameClock;
+import com.example.game.GameState;
+import com.example.game.LegalMoveTable;
+import com.example.game.MoveOutcome;
+import com.example.game.Moves;
+import com.example.game.Squares;
+import com.example.session.GameSession;
+import com.example.session.GameSessionManager;
+import com.github.bhlangonijr.chesslib.Side;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class GameServer implements AutoCloseable {
+
+    private static final int BACKLOG = 4_096;
+    private static final SearchLimits HINT_LIMITS = SearchLimits.analysis(6, 50_000L, 500L);
+    private static final int WATCH_BATCH = 64;
+    private static final long MIN_ACCEPT_BACKOFF_MILLIS = 10L;
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1_000L;
+    private static final System.Logger LOG = System.getLogger(GameServer.class.getName());
+
+    private final GameSessionManager sessions;
+    private final BlockingQueue<ChessAiService> hintEngines;
+    private final ConcurrentHashMap<Long, GameBroadcaster> broadcasts = new ConcurrentHashMap<>();
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private volatile boolean closed;
+
+    public GameServer(int port, int aiWorkers, Supplier<ChessAiService> engineFactory) throws IOException {
+        this.sessions = new GameSessionManager(aiWorkers, engineFactory);
+        this.hintEngines = new ArrayBlockingQueue<>(aiWorkers);
+        for (int i = 0; i < aiWorkers; i++) {
+            hintEngines.add(engineFactory.get());
+        }
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int openConnections() {
+        return openConnections.get();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public GameSessionManager sessions() {
+        return sessions;
+    }
+
+    public GameBroadcaster broadcaster(long sessionId) {
+        return broadcasts.get(sessionId);
+    }
+
+    public void start() {
+        Thread.ofVirtual().name("chess-server-accept").start(this::acceptLoop);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        connections.shutdownNow();
+        broadcasts.values().forEach(GameBroadcaster::close);
+        broadcasts.clear();
+        sessions.close();
+    }
+
+    private void acceptLoop() {
+        long backoffMillis = 0L;
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (closed) {
+                    return;
+                }
+                backoffMillis = backoffMillis == 0L
+                    ? MIN_ACCEPT_BACKOFF_MILLIS
+                    : Math.min(MAX_ACCEPT_BACKOFF_MILLIS, backoffMillis * 2);
+                LOG.log(System.Logger.Level.WARNING, "Accept failed, retrying in " + backoffMillis + " ms: " + e.getMessage());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                continue;
+            }
+            backoffMillis = 0L;
+            try {
+                socket.setTcpNoDelay(true);
+            } catch (SocketException ignored) {
+            }
+            connections.execute(() -> serve(socket));
+        }
+    }
+
+    private void serve(Socket socket) {
+        openConnections.incrementAndGet();
+        Connection connection = new Connection();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                requests.incrementAndGet();
+                String reply;
+                try {
+                    reply = connection.handle(line.trim());
+                } catch (RuntimeException e) {
+                    reply = "ERR " + e.getMessage();
+                }
+                out.write((reply + "\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                if (connection.watching != null) {
+                    stream(connection.watching, out);
+                    break;
+                }
+                if (connection.quit) {
+                    break;
+                }
+            }
+        } catch (SocketException ignored) {
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.WARNING, "Connection failed: " + e.getMessage());
+        } finally {
+            connection.release();
+            openConnections.decrementAndGet();
+        }
+    }
+
+    private void stream(GameBroadcaster.Subscription subscription, OutputStream out) throws IOException {
+        while (!closed && !subscription.isDropped()) {
+            try {
+                if (!subscription.await(1, TimeUnit.SECONDS)) {
+                    if (subscription.isClosed()) {
+                        break;
+                    }
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            while (subscription.poll((sequence, frame) -> out.write(frame), WATCH_BATCH) > 0) {
+                out.flush();
+            }
+        }
+        if (subscription.isDropped()) {
+            out.write("DROPPED\n".getBytes(StandardCharsets.UTF_8));
+        } else {
+            out.write("END\n".getBytes(StandardCharsets.UTF_8));
+        }
+        out.flush();
+    }
+
+    private final class Connection {
+
+        private GameSession session;
+        private GameClock clock;
+        private GameBroadcaster broadcaster;
+        private GameBroadcaster.Subscription watching;
+        private boolean quit;
+
+        String handle(String line) {
+            if (line.isEmpty()) {
+                return "ERR empty request";
+            }
+            String[] parts = line.split("\\s+");
+            return switch (parts[0].toUpperCase(Locale.ROOT)) {
+                case "PING" -> "OK pong";
+                case "NEW" -> newGame(parts);
+                case "MOVE" -> move(parts);
+                case "MOVES" -> legalMoves();
+                case "TARGETS" -> targets(parts);
+                case "HINT" -> hint();
+                case "CLOCK" -> clock();
+                case "STATE" -> state();
+                case "WATCH" -> watch(parts);
+                case "QUIT" -> {
+                    quit = true;
+                    yield "OK bye";
+                }
+                default -> "ERR unknown command " + parts[0];
+            };
+        }
+
+        void release() {
+            if (session != null) {
+                sessions.remove(session.id());
+                broadcasts.remove(session.id(), broadcaster);
+            }
+            if (broadcaster != null) {
+                broadcaster.close();
+                broadcaster = null;
+            }
+            if (clock != null) {
+                clock.pause();
+            }
+        }
+
+        private String newGame(String[] parts) {
+            Side human = parts.length > 1 && parts[1].equalsIgnoreCase("black") ? Side.BLACK : Side.WHITE;
+            Difficulty difficulty = parts.length > 2 ? Difficulty.valueOf(parts[2].toUpperCase(Locale.ROOT)) : Difficulty.EASY;
+            TimeControl timeControl = parts.length > 3 ? TimeControl.valueOf(parts[3].toUpperCase(Locale.ROOT)) : TimeControl.NONE;
+
+            release();
+            session = sessions.create(difficulty, human.flip());
+            clock = new GameClock(side -> {
+            });
+            clock.reset(timeControl, Side.WHITE);
+            clock.start();
+            broadcaster = new GameBroadcaster(session.snapshot().fen());
+            broadcasts.put(session.id(), broadcaster);
+
+            String reply = "";
+            if (session.isAiTurn()) {
+                reply = " " + aiReply();
+            }
+            return "OK id=" + session.id() + reply + " fen=" + session.snapshot().fen();
+        }
+
+        private String move(String[] parts) {
+            GameSession game = requireGame();
+            if (parts.length < 2) {
+                return "ERR usage: MOVE <uci>";
+            }
+            if (game.isAiTurn()) {
+                return "ERR not your turn";
+            }
+            Side fallen = fallenSide();
+            if (fallen != null) {
+                return "OK" + timeout(fallen);
+            }
+            int move = Moves.parseUci(parts[1], game.snapshot().turn());
+            if (move == Moves.NONE) {
+                return "ERR bad move " + parts[1];
+            }
+            MoveOutcome outcome = game.game().playMove(move, true);
+            if (!outcome.valid()) {
+                return "ERR " + outcome.message();
+            }
+            broadcaster.publishMove(outcome, game.snapshot());
+            StringBuilder reply = new StringBuilder("OK san=").append(outcome.message());
+            if (!clock.switchTurn()) {
+                return reply.append(timeout(clock.flaggedSide())).toString();
+            }
+            publishClock();
+
+            if (game.isAiTurn()) {
+                reply.append(' ').append(aiReply());
+            }
+            if (clock.flaggedSide() != null) {
+                return reply.append(timeout(clock.flaggedSide())).toString();
+            }
+            GameState state = game.snapshot();
+            return reply.append(" result=").append(state.result().name()).toString();
+        }
+
+        private Side fallenSide() {
+            Side flagged = clock.flaggedSide();
+            if (flagged == null && clock.timeControl().isEnabled() && clock.isRunning()
+                && clock.remainingMillis(clock.toMove()) <= 0L) {
+                flagged = clock.toMove();
+            }
+            return flagged;
+        }
+
+        private String timeout(Side fallen) {
+            return " result=TIMEOUT flagged=" + fallen.name();
+        }
+
+        private String aiReply() {
+            MoveOutcome reply = sessions.requestAiMove(session).join();
+            if (!reply.valid()) {
+                return "reply=none";
+            }
+            broadcaster.publishMove(reply, session.snapshot());
+            if (!clock.switchTurn()) {
+                return "reply=" + Moves.toUci(reply.move()) + " replySan=" + reply.message();
+            }
+            publishClock();
+            return "reply=" + Moves.toUci(reply.move()) + " replySan=" + reply.message();
+        }
+
+        private void publishClock() {
+            broadcaster.publishClock(clock.remainingMillis(Side.WHITE), clock.remainingMillis(Side.BLACK), clock.toMove());
+        }
+
+        private String watch(String[] parts) {
+            if (parts.length < 2) {
+                return "ERR usage: WATCH <id>";
+            }
+            GameBroadcaster target = broadcasts.get(Long.parseLong(parts[1]));
+            if (target == null) {
+                return "ERR unknown game " + parts[1];
+            }
+            release();
+            session = null;
+            watching = target.subscribe();
+            return "OK watching id=" + parts[1] + " capacity=" + target.capacity();
+        }
+
+        private String legalMoves() {
+            LegalMoveTable legalMoves = requireGame().snapshot().legalMoves();
+            StringBuilder reply = new StringBuilder(8 + legalMoves.size() * 6).append("OK moves=");
+            for (int i = 0; i < legalMoves.size(); i++) {
+                if (i > 0) {
+                    reply.append(',');
+                }
+                reply.append(Moves.toUci(legalMoves.move(i)));
+            }
+            return reply.toString();
+        }
+
+        private String targets(String[] parts) {
+            if (parts.length < 2 || Squares.index(parts[1]) == Squares.NONE) {
+                return "ERR usage: TARGETS <square>";
+            }
+            long targets = requireGame().snapshot().legalTargets(Squares.index(parts[1]));
+            StringBuilder reply = new StringBuilder("OK targets=");
+            boolean first = true;
+            while (targets != 0L) {
+                if (!first) {
+                    reply.append(',');
+                }
+                reply.append(Squares.name(Long.numberOfTrailingZeros(targets)));
+                targets &= targets - 1;
+                first = false;
+            }
+            return reply.toString();
+        }
+
+        private String hint() {
+            GameSession game = requireGame();
+            ChessAiService engine;
+            try {
+                engine = hintEngines.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return "ERR interrupted";
+            }
+            try {
+                AnalysisResult result = engine.analyze(game.game().copyBoard(), HINT_LIMITS);
+                return "OK move=" + result.bestMove() + " score=" + result.score() + " depth=" + result.depth();
+            } finally {
+                hintEngines.add(engine);
+            }
+        }
+
+        private String clock() {
+            requireGame();
+            return "OK white=" + clock.remainingMillis(Side.WHITE)
+                + " black=" + clock.remainingMillis(Side.BLACK)
+                + " toMove=" + clock.toMove().name()
+                + " control=" + clock.timeControl().name();
+        }
+
+        private String state() {
+            GameState state = requireGame().snapshot();
+            return "OK turn=" + state.turn().name()
+                + " ply=" + state.ply()
+                + " result=" + state.result().name()
+                + " check=" + state.inCheck()
+                + " fen=" + state.fen();
+        }
+
+        private GameSession requireGame() {
+            if (session == null) {
+                throw new IllegalStateException("no game, send NEW first");
+            }
+            return session;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.server;
+
+import com.example.ai.HybridChessAiService;
+
+import java.io.IOException;
+
+public final class GameServerCli {
+
+    private static final String USAGE = """
+        Usage: GameServerCli [--port N] [--ai-threads N]
+        Serves the line protocol on the loopback interface. Commands, one per line:
+          NEW [white|black] [EASY|MEDIUM|HARD] [TIME_CONTROL]   start a game (AI moves first when you play black)
+          MOVE <uci>     play a move; the AI reply is included in the response
+                         after a flag falls moves are refused with OK result=TIMEOUT flagged=<SIDE>
+          MOVES          list legal moves in UCI
+          TARGETS <sq>   legal target squares of the piece on <sq>
+          HINT           best move suggestion for the side to move
+          CLOCK          remaining milliseconds per side
+          STATE          turn, ply, result and FEN
+          WATCH <id>     turn this connection into a spectator stream of MOVE/CLOCK/SYNC lines for game <id>
+          PING | QUIT
+        Responses are a single line starting with OK or ERR.
+        """;
+
+    private GameServerCli() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = 7878;
+        int aiThreads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(requireValue(args, ++i));
+                case "--ai-threads" -> aiThreads = Integer.parseInt(requireValue(args, ++i));
+                case "--help", "-h" -> {
+                    System.out.print(USAGE);
+                    return;
+                }
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i] + "\n" + USAGE);
+            }
+        }
+
+        GameServer server = new GameServer(port, aiThreads, HybridChessAiService::new);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException ignored) {
+            }
+        }));
+        server.start();
+        System.err.printf("Chess server listening on 127.0.0.1:%d with %d AI workers%n", server.port(), aiThreads);
+        Thread.currentThread().join();
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1] + "\n" + USAGE);
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.server;
+
+import com.example.ai.HybridChessAiService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class LoadGenerator {
+
+    private static final String USAGE = """
+        Usage: LoadGenerator [--port N] [--connections N] [--seconds N] [--move-ratio F] [--embedded]
+        Opens N loopback connections, each playing its own game, and issues a mix of STATE/TARGETS/MOVES
+        (cheap) and MOVE (AI reply) requests for the given duration. Reports requests/s and latency percentiles.
+        --embedded starts a server in-process on an ephemeral port instead of connecting to --port.
+        """;
+
+    private static final String[] PROBE_SQUARES = {"e2", "d2", "g1", "b1", "e7", "d7", "g8", "b8"};
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = 7878;
+        int connections = 1_000;
+        int seconds = 20;
+        double moveRatio = 0.1;
+        boolean embedded = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(requireValue(args, ++i));
+                case "--connections" -> connections = Integer.parseInt(requireValue(args, ++i));
+                case "--seconds" -> seconds = Integer.parseInt(requireValue(args, ++i));
+                case "--move-ratio" -> moveRatio = Double.parseDouble(requireValue(args, ++i));
+                case "--embedded" -> embedded = true;
+                case "--help", "-h" -> {
+                    System.out.print(USAGE);
+                    return;
+                }
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i] + "\n" + USAGE);
+            }
+        }
+
+        GameServer server = null;
+        if (embedded) {
+            server = new GameServer(0, Runtime.getRuntime().availableProcessors(), HybridChessAiService::new);
+            server.start();
+            port = server.port();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors = new AtomicLong();
+        List<Client> clients = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            clients.add(new Client(port, new SplittableRandom(i), moveRatio, deadline, errors));
+        }
+
+        long startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Client client : clients) {
+                executor.execute(client);
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+        long total = 0L;
+        for (Client client : clients) {
+            total += client.count;
+        }
+        long[] all = new long[(int) total];
+        int offset = 0;
+        for (Client client : clients) {
+            long[] latencies = client.latencies();
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+        Arrays.sort(all);
+
+        System.out.printf("Connections: %d, duration %.1f s, errors %d%n", connections, elapsedSeconds, errors.get());
+        System.out.printf("Requests: %,d (%.0f req/s)%n", total, total / elapsedSeconds);
+        System.out.printf("Latency p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+            percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999), percentile(all, 1.0));
+
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1] + "\n" + USAGE);
+        }
+        return args[index];
+    }
+
+    private static final class Client implements Runnable {
+
+        private final int port;
+        private final SplittableRandom random;
+        private final double moveRatio;
+        private final long deadline;
+        private final AtomicLong errors;
+        private long[] latencies = new long[1_024];
+        private int count;
+
+        Client(int port, SplittableRandom random, double moveRatio, long deadline, AtomicLong errors) {
+            this.port = port;
+            this.random = random;
+            this.moveRatio = moveRatio;
+            this.deadline = deadline;
+            this.errors = errors;
+        }
+
+        long[] latencies() {
+            return Arrays.copyOf(latencies, count);
+        }
+
+        @Override
+        public void run() {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                socket.setTcpNoDelay(true);
+                request(in, out, "NEW white EASY");
+                while (System.nanoTime() < deadline) {
+                    if (random.nextDouble() < moveRatio) {
+                        playRandomMove(in, out);
+                    } else {
+                        switch (random.nextInt(3)) {
+                            case 0 -> request(in, out, "STATE");
+                            case 1 -> request(in, out, "TARGETS " + PROBE_SQUARES[random.nextInt(PROBE_SQUARES.length)]);
+                            default -> request(in, out, "CLOCK");
+                        }
+                    }
+                }
+                request(in, out, "QUIT");
+            } catch (IOException e) {
+                errors.incrementAndGet();
+            }
+        }
+
+        private void playRandomMove(BufferedReader in, BufferedWriter out) throws IOException {
+            String moves = request(in, out, "MOVES");
+            int start = moves.indexOf("moves=");
+            if (start < 0 || start + 6 >= moves.length()) {
+                request(in, out, "NEW white EASY");
+                return;
+            }
+            String[] candidates = moves.substring(start + 6).split(",");
+            String reply = request(in, out, "MOVE " + candidates[random.nextInt(candidates.length)]);
+            if (!reply.contains("result=IN_PROGRESS")) {
+                request(in, out, "NEW white EASY");
+            }
+        }
+
+        private String request(BufferedReader in, BufferedWriter out, String command) throws IOException {
+            long sentAt = System.nanoTime();
+            out.write(command);
+            out.write('\n');
+            out.flush();
+            String reply = in.readLine();
+            if (reply == null) {
+                throw new IOException("Connection closed");
+            }
+            record(System.nanoTime() - sentAt);
+            if (reply.startsWith("ERR")) {
+                errors.incrementAndGet();
+            }
+            return reply;
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.session;
+
+public final class CpuBudget {
+
+    private final long refillNanosPerSecond;
+    private final long burstNanos;
+    private long available;
+    private long lastRefillAt;
+
+    public CpuBudget(double coreShare, long burstNanos) {
+        if (coreShare <= 0.0 || burstNanos <= 0L) {
+            throw new IllegalArgumentException("coreShare and burstNanos must be positive");
+        }
+        this.refillNanosPerSecond = (long) (coreShare * 1_000_000_000L);
+        this.burstNanos = burstNanos;
+        this.available = burstNanos;
+        this.lastRefillAt = System.nanoTime();
+    }
+
+    public synchronized long available() {
+        refill();
+        return available;
+    }
+
+    public synchronized void charge(long cpuNanos) {
+        refill();
+        available -= cpuNanos;
+    }
+
+    public synchronized long nanosUntilAvailable(long amount) {
+        refill();
+        if (available >= amount) {
+            return 0L;
+        }
+        double seconds = (double) (amount - available) / refillNanosPerSecond;
+        return (long) Math.ceil(seconds * 1_000_000_000L);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long elapsed = now - lastRefillAt;
+        if (elapsed <= 0L) {
+            return;
+        }
+        long granted = (long) ((double) elapsed * refillNanosPerSecond / 1_000_000_000L);
+        if (granted > 0L) {
+            available = Math.min(burstNanos, available + granted);
+            lastRefillAt = now;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.session;
+
+import com.example.ai.SearchLimits;
+import com.example.game.ChessGameService;
+import com.example.game.GameState;
+import com.example.game.MoveOutcome;
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Side;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+public class GameSession {
+
+    private static final int[] NO_MOVES = new int[0];
+    private static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private final long id;
+    private final Side aiSide;
+    private final SearchLimits limits;
+    private final CpuBudget budget;
+    private final Supplier<ChessGameService> gameFactory;
+    private final AtomicBoolean aiQueued = new AtomicBoolean();
+    private ChessGameService game;
+    private String hibernatedStartFen;
+    private int[] hibernatedMoves = NO_MOVES;
+    private volatile long lastActivityNanos = System.nanoTime();
+    private long aiMoves;
+    private long aiCpuNanos;
+
+    GameSession(long id, Side aiSide, SearchLimits limits, CpuBudget budget, Supplier<ChessGameService> gameFactory) {
+        this.id = id;
+        this.aiSide = aiSide;
+        this.limits = limits;
+        this.budget = budget;
+        this.gameFactory = gameFactory;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public Side aiSide() {
+        return aiSide;
+    }
+
+    public SearchLimits limits() {
+        return limits;
+    }
+
+    public CpuBudget budget() {
+        return budget;
+    }
+
+    public synchronized ChessGameService game() {
+        lastActivityNanos = System.nanoTime();
+        if (game == null) {
+            game = gameFactory.get();
+            if (hibernatedStartFen != null) {
+                game.load(hibernatedStartFen, hibernatedMoves);
+            }
+            hibernatedStartFen = null;
+            hibernatedMoves = NO_MOVES;
+        }
+        return game;
+    }
+
+    public GameState snapshot() {
+        return game().snapshot();
+    }
+
+    public boolean isAiTurn() {
+        GameState state = snapshot();
+        return !state.gameOver() && state.turn() == aiSide;
+    }
+
+    public synchronized boolean isHibernated() {
+        return game == null;
+    }
+
+    public long idleNanos() {
+        return System.nanoTime() - lastActivityNanos;
+    }
+
+    public synchronized long aiMoves() {
+        return aiMoves;
+    }
+
+    public synchronized long aiCpuNanos() {
+        return aiCpuNanos;
+    }
+
+    synchronized boolean hibernate() {
+        if (game == null || aiQueued.get()) {
+            return false;
+        }
+        int[] moves = game.moves();
+        if (moves.length > 0 || !START_FEN.equals(game.startFen())) {
+            hibernatedStartFen = game.startFen();
+            hibernatedMoves = moves;
+        }
+        game = null;
+        return true;
+    }
+
+    synchronized Board boardForSearch() {
+        return game().copyBoard();
+    }
+
+    synchronized MoveOutcome applyAiMove(long expectedPositionKey, String uciMove, long cpuNanos) {
+        aiCpuNanos += cpuNanos;
+        GameState state = snapshot();
+        if (state.positionKey() != expectedPositionKey || state.turn() != aiSide) {
+            return MoveOutcome.invalid("Position changed while the AI was thinking.");
+        }
+        MoveOutcome outcome = game().playAiMove(uciMove);
+        if (outcome.valid()) {
+            aiMoves++;
+        }
+        return outcome;
+    }
+
+    boolean markAiQueued() {
+        return aiQueued.compareAndSet(false, true);
+    }
+
+    void clearAiQueued() {
+        aiQueued.set(false);
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.session;
+
+import com.example.ai.ChessAiService;
+import com.example.ai.SearchLimits;
+import com.example.audio.SilentAudioService;
+import com.example.config.AppSettings;
+import com.example.config.Difficulty;
+import com.example.game.ChessGameService;
+import com.example.game.MoveOutcome;
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Side;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class GameSessionManager implements AutoCloseable {
+
+    public static final double DEFAULT_CORE_SHARE = 0.25;
+    public static final long DEFAULT_BURST_MILLIS = 2_000L;
+
+    private static final long MIN_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final LinkedBlockingQueue<AiTask> ready = new LinkedBlockingQueue<>();
+    private final Supplier<ChessAiService> engineFactory;
+    private final Supplier<ChessGameService> gameFactory;
+    private final double coreShare;
+    private final long burstNanos;
+    private final int workers;
+    private final ExecutorService workerPool;
+    private final ScheduledExecutorService deferrals;
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final AtomicLong aiMoves = new AtomicLong();
+    private final AtomicLong aiCpuNanos = new AtomicLong();
+    private final AtomicLong deferredRequests = new AtomicLong();
+    private volatile boolean closed;
+
+    public GameSessionManager(int workers, Supplier<ChessAiService> engineFactory) {
+        this(workers, engineFactory, DEFAULT_CORE_SHARE, DEFAULT_BURST_MILLIS);
+    }
+
+    public GameSessionManager(int workers, Supplier<ChessAiService> engineFactory, double coreShare, long burstMillis) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        this.workers = workers;
+        this.engineFactory = engineFactory;
+        this.coreShare = coreShare;
+        this.burstNanos = TimeUnit.MILLISECONDS.toNanos(burstMillis);
+
+        AppSettings sharedSettings = AppSettings.defaultSettings();
+        SilentAudioService silentAudio = new SilentAudioService();
+        this.gameFactory = () -> new ChessGameService(sharedSettings, silentAudio);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workerPool = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "chess-session-ai-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Math.max(Thread.MIN_PRIORITY, Thread.NORM_PRIORITY - 1));
+            return thread;
+        });
+        this.deferrals = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "chess-session-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (threadBean.isCurrentThreadCpuTimeSupported() && !threadBean.isThreadCpuTimeEnabled()) {
+            threadBean.setThreadCpuTimeEnabled(true);
+        }
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::workerLoop);
+        }
+    }
+
+    public GameSession create(Difficulty difficulty, Side aiSide) {
+        return create(SearchLimits.of(difficulty), aiSide);
+    }
+
+    public GameSession create(SearchLimits limits, Side aiSide) {
+        if (closed) {
+            throw new IllegalStateException("Session manager is closed");
+        }
+        long id = nextId.incrementAndGet();
+        GameSession session = new GameSession(id, aiSide, limits, new CpuBudget(coreShare, burstNanos), gameFactory);
+        sessions.put(id, session);
+        return session;
+    }
+
+    public GameSession get(long id) {
+        return sessions.get(id);
+    }
+
+    public boolean remove(long id) {
+        return sessions.remove(id) != null;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public int workers() {
+        return workers;
+    }
+
+    public MoveOutcome playHumanMove(long id, int from, int to) {
+        GameSession session = require(id);
+        if (session.isAiTurn()) {
+            return MoveOutcome.invalid("It is the AI's turn.");
+        }
+        MoveOutcome outcome = session.game().playHumanMove(from, to);
+        if (outcome.valid() && session.isAiTurn()) {
+            requestAiMove(session);
+        }
+        return outcome;
+    }
+
+    public CompletableFuture<MoveOutcome> requestAiMove(GameSession session) {
+        CompletableFuture<MoveOutcome> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new IllegalStateException("Session manager is closed"));
+            return future;
+        }
+        if (!session.isAiTurn()) {
+            future.complete(MoveOutcome.invalid("It is not the AI's turn."));
+            return future;
+        }
+        if (!session.markAiQueued()) {
+            future.complete(MoveOutcome.invalid("AI move already pending."));
+            return future;
+        }
+        ready.offer(new AiTask(session, future));
+        return future;
+    }
+
+    public int hibernateIdle(long idleMillis) {
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        int hibernated = 0;
+        for (GameSession session : sessions.values()) {
+            if (session.idleNanos() >= idleNanos && session.hibernate()) {
+                hibernated++;
+            }
+        }
+        return hibernated;
+    }
+
+    public Stats stats() {
+        int hibernated = 0;
+        for (GameSession session : sessions.values()) {
+            if (session.isHibernated()) {
+                hibernated++;
+            }
+        }
+        return new Stats(sessions.size(), hibernated, ready.size(), aiMoves.get(), aiCpuNanos.get(), deferredRequests.get());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        workerPool.shutdownNow();
+        deferrals.shutdownNow();
+        AiTask task;
+        while ((task = ready.poll()) != null) {
+            task.session().clearAiQueued();
+            task.future().completeExceptionally(new IllegalStateException("Session manager is closed"));
+        }
+    }
+
+    private GameSession require(long id) {
+        GameSession session = sessions.get(id);
+        if (session == null) {
+            throw new IllegalArgumentException("Unknown session: " + id);
+        }
+        return session;
+    }
+
+    private void workerLoop() {
+        ChessAiService engine = engineFactory.get();
+        while (!closed) {
+            AiTask task;
+            try {
+                task = ready.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            run(engine, task);
+        }
+    }
+
+    private void run(ChessAiService engine, AiTask task) {
+        GameSession session = task.session();
+        long wait = session.budget().nanosUntilAvailable(MIN_SLICE_NANOS);
+        if (wait > 0L) {
+            deferredRequests.incrementAndGet();
+            deferrals.schedule(() -> ready.offer(task), wait, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        try {
+            long positionKey = session.snapshot().positionKey();
+            Board board = session.boardForSearch();
+            long sliceMillis = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(session.budget().available()));
+            SearchLimits limits = session.limits().withTimeLimit(sliceMillis);
+
+            long cpuBefore = cpuTime();
+            String uciMove = engine.chooseMove(board, limits);
+            long cpuNanos = cpuTime() - cpuBefore;
+            session.budget().charge(cpuNanos);
+            aiCpuNanos.addAndGet(cpuNanos);
+
+            MoveOutcome outcome = session.applyAiMove(positionKey, uciMove, cpuNanos);
+            if (outcome.valid()) {
+                aiMoves.incrementAndGet();
+            }
+            session.clearAiQueued();
+            task.future().complete(outcome);
+        } catch (RuntimeException e) {
+            session.clearAiQueued();
+            task.future().completeExceptionally(e);
+        }
+    }
+
+    private long cpuTime() {
+        return threadBean.isCurrentThreadCpuTimeSupported() ? threadBean.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private record AiTask(GameSession session, CompletableFuture<MoveOutcome> future) {
+    }
+
+    public record Stats(int sessions, int hibernated, int queuedAiRequests, long aiMoves, long aiCpuNanos, long deferredRequests) {
+    }
+}
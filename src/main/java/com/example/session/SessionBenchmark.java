@@ -0,0 +1,160 @@
+package com.example.session;
+
+import com.example.ai.HybridChessAiService;
+import com.example.config.Difficulty;
+import com.example.game.GameState;
+import com.example.game.LegalMoveTable;
+import com.example.game.MoveOutcome;
+import com.example.game.Moves;
+import com.github.bhlangonijr.chesslib.Side;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+public final class SessionBenchmark {
+
+    private static final String USAGE = """
+        Usage: SessionBenchmark [--sessions N] [--active N] [--threads N] [--seconds N] [--difficulty EASY|MEDIUM|HARD] [--core-share F]
+        Creates N idle sessions to measure heap per session, then plays random human moves against the AI
+        in the first `active` sessions for the given duration and reports AI throughput and reply latency.
+        """;
+
+    private SessionBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int sessionCount = 5_000;
+        int active = 200;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int seconds = 20;
+        Difficulty difficulty = Difficulty.EASY;
+        double coreShare = GameSessionManager.DEFAULT_CORE_SHARE;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--sessions" -> sessionCount = Integer.parseInt(requireValue(args, ++i));
+                case "--active" -> active = Integer.parseInt(requireValue(args, ++i));
+                case "--threads" -> threads = Integer.parseInt(requireValue(args, ++i));
+                case "--seconds" -> seconds = Integer.parseInt(requireValue(args, ++i));
+                case "--difficulty" -> difficulty = Difficulty.valueOf(requireValue(args, ++i).toUpperCase(Locale.ROOT));
+                case "--core-share" -> coreShare = Double.parseDouble(requireValue(args, ++i));
+                case "--help", "-h" -> {
+                    System.out.print(USAGE);
+                    return;
+                }
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i] + "\n" + USAGE);
+            }
+        }
+
+        try (GameSessionManager manager = new GameSessionManager(threads, HybridChessAiService::new, coreShare,
+            GameSessionManager.DEFAULT_BURST_MILLIS)) {
+            List<GameSession> sessions = new ArrayList<>(sessionCount);
+            long baseline = usedHeap();
+            for (int i = 0; i < sessionCount; i++) {
+                sessions.add(manager.create(difficulty, Side.BLACK));
+            }
+            long lazy = usedHeap();
+            for (GameSession session : sessions) {
+                session.game();
+            }
+            long materialized = usedHeap();
+            manager.hibernateIdle(0L);
+            long hibernated = usedHeap();
+
+            System.out.printf("Sessions: %d%n", sessionCount);
+            System.out.printf("  heap per idle session (never started):   %,d bytes%n", (lazy - baseline) / sessionCount);
+            System.out.printf("  heap per idle session (game allocated): %,d bytes%n", (materialized - baseline) / sessionCount);
+            System.out.printf("  heap per idle session (hibernated):     %,d bytes%n", (hibernated - baseline) / sessionCount);
+
+            int playing = Math.min(active, sessions.size());
+            ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            long startedAt = System.nanoTime();
+            for (int i = 0; i < playing; i++) {
+                play(manager, sessions.get(i), new SplittableRandom(i), deadline, latencies);
+            }
+            Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+            long elapsedNanos = System.nanoTime() - startedAt;
+
+            GameSessionManager.Stats stats = manager.stats();
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+            System.out.printf("Concurrent games: %d on %d AI workers (%s, core share %.2f)%n",
+                playing, manager.workers(), difficulty, coreShare);
+            System.out.printf("  AI moves: %,d (%.1f moves/s)%n", stats.aiMoves(), stats.aiMoves() / elapsedSeconds);
+            System.out.printf("  AI CPU per move: %.2f ms%n",
+                stats.aiMoves() == 0 ? 0.0 : stats.aiCpuNanos() / 1_000_000.0 / stats.aiMoves());
+            System.out.printf("  reply latency p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+            System.out.printf("  budget deferrals: %,d%n", stats.deferredRequests());
+        }
+    }
+
+    private static void play(
+        GameSessionManager manager,
+        GameSession session,
+        SplittableRandom random,
+        long deadline,
+        ConcurrentLinkedQueue<Long> latencies
+    ) {
+        if (System.nanoTime() >= deadline) {
+            return;
+        }
+        GameState state = session.snapshot();
+        if (state.gameOver()) {
+            session.game().resetGame();
+            state = session.snapshot();
+        }
+        LegalMoveTable legalMoves = state.legalMoves();
+        if (legalMoves.isEmpty()) {
+            return;
+        }
+        int move = legalMoves.move(random.nextInt(legalMoves.size()));
+        MoveOutcome outcome = session.game().playHumanMove(Moves.from(move), Moves.to(move));
+        if (!outcome.valid()) {
+            return;
+        }
+        if (!session.isAiTurn()) {
+            play(manager, session, random, deadline, latencies);
+            return;
+        }
+        long requestedAt = System.nanoTime();
+        manager.requestAiMove(session).whenComplete((reply, error) -> {
+            if (error != null) {
+                return;
+            }
+            latencies.add(System.nanoTime() - requestedAt);
+            play(manager, session, random, deadline, latencies);
+        });
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50L);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1] + "\n" + USAGE);
+        }
+        return args[index];
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.ui;
 
 import com.example.config.PieceStyle;
+import com.example.game.BoardSnapshot;
+import com.example.game.Squares;
 import com.github.bhlangonijr.chesslib.Piece;
 import com.github.bhlangonijr.chesslib.Side;
 import javafx.animation.Interpolator;
 import javafx.animation.TranslateTransition;
+import javafx.collections.ObservableList;
 import javafx.geometry.Point2D;
 import javafx.geometry.Pos;
 import javafx.scene.CacheHint;
@@ -19,10 +22,7 @@ import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
-import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public class ChessBoardView extends StackPane {
 
@@ -32,11 +32,15 @@ public class ChessBoardView extends StackPane {
     private final GridPane grid = new GridPane();
     private final Pane animationLayer = new Pane();
     private final Label movingPieceNode = createMovingPieceNode();
-    private final Map<String, Button> cells = new HashMap<>();
-    private final Map<String, CellVisualState> cellStates = new HashMap<>();
+    private final Button[] cells = new Button[64];
     private PieceStyle pieceStyle = PieceStyle.CLASSIC;
+    private PieceStyle renderedStyle;
+    private BoardSnapshot renderedPosition;
+    private int renderedSelected = Squares.NONE;
+    private long renderedTargets;
+    private long renderedPremoves;
 
-    public ChessBoardView(Consumer<String> squareClickHandler) {
+    public ChessBoardView(IntConsumer squareClickHandler) {
         getStyleClass().add("board-host");
 
         frame.getStyleClass().add("board-frame");
@@ -63,55 +67,75 @@ public class ChessBoardView extends StackPane {
         animationLayer.resizeRelocate(0, 0, getWidth(), getHeight());
     }
 
-    public void render(Map<String, Piece> position, String selectedSquare, Set<String> legalTargets) {
-        for (Map.Entry<String, Button> entry : cells.entrySet()) {
-            String square = entry.getKey();
-            Button cell = entry.getValue();
-            Piece piece = position.getOrDefault(square, Piece.NONE);
-            String pieceGlyph = glyph(piece);
-            String pieceColorClass = piece == Piece.NONE ? null : (piece.getPieceSide() == Side.WHITE ? "piece-white" : "piece-black");
-            String pieceStyleClass = piece == Piece.NONE ? null : styleClassFor(pieceStyle);
-            boolean selected = square.equals(selectedSquare);
-            boolean target = legalTargets.contains(square);
-
-            CellVisualState nextState = new CellVisualState(pieceGlyph, pieceColorClass, pieceStyleClass, selected, target);
-            CellVisualState previousState = cellStates.get(square);
-            if (nextState.equals(previousState)) {
-                continue;
-            }
-            cellStates.put(square, nextState);
-
-            cell.setText(pieceGlyph);
-            cell.getStyleClass().removeAll("selected-square", "target-square");
-            cell.getStyleClass().removeAll(
-                "piece-white",
-                "piece-black",
-                "piece-style-classic",
-                "piece-style-minimal",
-                "piece-style-tournament"
-            );
-
-            if (pieceColorClass != null && pieceStyleClass != null) {
-                cell.getStyleClass().add(pieceColorClass);
-                cell.getStyleClass().add(pieceStyleClass);
-            }
+    public void render(BoardSnapshot position, int selectedSquare, long targetSquares) {
+        render(position, selectedSquare, targetSquares, 0L);
+    }
 
-            if (selected) {
-                cell.getStyleClass().add("selected-square");
-            }
-            if (target) {
-                cell.getStyleClass().add("target-square");
-            }
+    public void render(BoardSnapshot position, int selectedSquare, long targetSquares, long premoveSquares) {
+        long dirty = position.changedSince(renderedPosition);
+        if (pieceStyle != renderedStyle) {
+            dirty = -1L;
+        }
+        if (selectedSquare != renderedSelected) {
+            dirty |= squareBit(selectedSquare) | squareBit(renderedSelected);
+        }
+        dirty |= targetSquares ^ renderedTargets;
+        dirty |= premoveSquares ^ renderedPremoves;
+
+        while (dirty != 0L) {
+            int square = Long.numberOfTrailingZeros(dirty);
+            dirty &= dirty - 1;
+            long bit = 1L << square;
+            updateCell(cells[square], position.pieceAt(square), square == selectedSquare,
+                (targetSquares & bit) != 0L, (premoveSquares & bit) != 0L);
+        }
+
+        renderedPosition = position;
+        renderedStyle = pieceStyle;
+        renderedSelected = selectedSquare;
+        renderedTargets = targetSquares;
+        renderedPremoves = premoveSquares;
+    }
+
+    private void updateCell(Button cell, Piece piece, boolean selected, boolean target, boolean premove) {
+        cell.setText(glyph(piece));
+
+        ObservableList<String> styleClasses = cell.getStyleClass();
+        styleClasses.remove("selected-square");
+        styleClasses.remove("target-square");
+        styleClasses.remove("premove-square");
+        styleClasses.remove("piece-white");
+        styleClasses.remove("piece-black");
+        styleClasses.remove("piece-style-classic");
+        styleClasses.remove("piece-style-minimal");
+        styleClasses.remove("piece-style-tournament");
+
+        if (piece != Piece.NONE) {
+            styleClasses.add(piece.getPieceSide() == Side.WHITE ? "piece-white" : "piece-black");
+            styleClasses.add(styleClassFor(pieceStyle));
+        }
+        if (selected) {
+            styleClasses.add("selected-square");
+        }
+        if (target) {
+            styleClasses.add("target-square");
+        }
+        if (premove) {
+            styleClasses.add("premove-square");
         }
     }
 
-    public boolean animateMove(String fromSquare, String toSquare, Piece movedPiece, Runnable onFinished) {
-        if (fromSquare == null || toSquare == null || movedPiece == Piece.NONE) {
+    private static long squareBit(int square) {
+        return square == Squares.NONE ? 0L : 1L << square;
+    }
+
+    public boolean animateMove(int fromSquare, int toSquare, Piece movedPiece, Runnable onFinished) {
+        if (fromSquare == Squares.NONE || toSquare == Squares.NONE || movedPiece == Piece.NONE) {
             return false;
         }
 
-        Button from = cells.get(fromSquare);
-        Button to = cells.get(toSquare);
+        Button from = cells[fromSquare];
+        Button to = cells[toSquare];
         if (from == null || to == null || getScene() == null) {
             return false;
         }
@@ -198,10 +222,10 @@ public class ChessBoardView extends StackPane {
         return label;
     }
 
-    private void buildGrid(Consumer<String> squareClickHandler) {
+    private void buildGrid(IntConsumer squareClickHandler) {
         for (int rank = 8; rank >= 1; rank--) {
             for (int file = 0; file < 8; file++) {
-                String square = String.valueOf((char) ('a' + file)) + rank;
+                int index = Squares.index(file, rank - 1);
                 Button cell = new Button();
                 cell.setFocusTraversable(false);
                 cell.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
@@ -209,10 +233,10 @@ public class ChessBoardView extends StackPane {
                 cell.setPrefSize(82, 82);
                 cell.getStyleClass().add((rank + file) % 2 == 0 ? "square-light" : "square-dark");
                 cell.getStyleClass().add("square-cell");
-                cell.setOnAction(event -> squareClickHandler.accept(square));
+                cell.setOnAction(event -> squareClickHandler.accept(index));
 
                 grid.add(cell, file, 8 - rank);
-                cells.put(square, cell);
+                cells[index] = cell;
             }
         }
     }
@@ -306,13 +330,4 @@ public class ChessBoardView extends StackPane {
             default -> "";
         };
     }
-
-    private record CellVisualState(
-        String glyph,
-        String pieceColorClass,
-        String pieceStyleClass,
-        boolean selected,
-        boolean target
-    ) {
-    }
 }
@@ -0,0 +1,321 @@
+package com.example.ui;
+
+import com.example.persistence.GameSaveHeader;
+import com.example.persistence.SaveCatalog;
+import com.example.persistence.SaveCatalogChange;
+import com.example.persistence.SaveDelta;
+import com.example.persistence.SavePage;
+import com.example.persistence.SaveQuery;
+import com.example.persistence.SaveSort;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class SavePageList extends ObservableListBase<GameSaveHeader> {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_CACHED_PAGES = 8;
+
+    private final Function<SaveQuery, SavePage> fetcher;
+    private final Executor executor;
+    private final int pageSize;
+    private final Map<Integer, SavePage> pages;
+    private final Set<Integer> inFlight = new HashSet<>();
+    private Consumer<SavePageList> onPageLoaded = list -> {
+    };
+    private Consumer<RuntimeException> onError = error -> {
+    };
+    private SaveQuery query = new SaveQuery(0, 0, SaveSort.NEWEST, null);
+    private long generation;
+    private long version = -1L;
+    private int total;
+
+    public SavePageList(Function<SaveQuery, SavePage> fetcher, Executor executor) {
+        this(fetcher, executor, DEFAULT_PAGE_SIZE, DEFAULT_CACHED_PAGES);
+    }
+
+    public SavePageList(Function<SaveQuery, SavePage> fetcher, Executor executor, int pageSize, int cachedPages) {
+        if (pageSize <= 0 || cachedPages <= 0) {
+            throw new IllegalArgumentException("pageSize and cachedPages must be positive");
+        }
+        this.fetcher = fetcher;
+        this.executor = executor;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(cachedPages * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, SavePage> eldest) {
+                return size() > cachedPages;
+            }
+        };
+    }
+
+    public void setOnPageLoaded(Consumer<SavePageList> onPageLoaded) {
+        this.onPageLoaded = onPageLoaded == null ? list -> {
+        } : onPageLoaded;
+    }
+
+    public void setOnError(Consumer<RuntimeException> onError) {
+        this.onError = onError == null ? error -> {
+        } : onError;
+    }
+
+    public SaveQuery query() {
+        return query;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public boolean isLoaded() {
+        return version >= 0L;
+    }
+
+    public void setQuery(SaveSort sort, String namePrefix) {
+        query = new SaveQuery(0, 0, sort, namePrefix);
+        reload();
+    }
+
+    public void reload() {
+        generation++;
+        version = -1L;
+        pages.clear();
+        inFlight.clear();
+        request(0);
+    }
+
+    public void apply(SaveCatalogChange change) {
+        if (!isLoaded() || change.version() <= version) {
+            return;
+        }
+        if (change.fromVersion() != version) {
+            reload();
+            return;
+        }
+        TreeMap<Integer, GameSaveHeader> rows = new TreeMap<>();
+        for (SavePage page : pages.values()) {
+            for (int i = 0; i < page.items().size(); i++) {
+                rows.put(page.offset() + i, page.items().get(i));
+            }
+        }
+        TreeMap<Integer, GameSaveHeader> before = new TreeMap<>(rows);
+        Comparator<GameSaveHeader> order = SaveCatalog.order(query.sort());
+        int size = total;
+        for (SaveDelta delta : change.deltas()) {
+            GameSaveHeader header = delta.header();
+            Integer existing = null;
+            for (Map.Entry<Integer, GameSaveHeader> row : rows.entrySet()) {
+                if (row.getValue().file().equals(header.file())) {
+                    existing = row.getKey();
+                    break;
+                }
+            }
+            if (existing != null) {
+                shift(rows, existing, -1);
+                size--;
+            } else if (rows.size() < size && (delta.kind() == SaveDelta.Kind.UPDATED
+                || delta.kind() == SaveDelta.Kind.REMOVED && SaveCatalog.matches(query, header) && position(rows, size, header, order) < 0)) {
+                // The old row may sit on a page that is not loaded, so its index is unknown.
+                reload();
+                return;
+            }
+            if (delta.kind() == SaveDelta.Kind.REMOVED || !SaveCatalog.matches(query, header)) {
+                continue;
+            }
+            int at = position(rows, size, header, order);
+            if (at < 0) {
+                reload();
+                return;
+            }
+            shift(rows, at, 1);
+            rows.put(at, header);
+            size++;
+        }
+
+        generation++;
+        version = change.version();
+        total = size;
+        Set<Integer> requested = new HashSet<>(inFlight);
+        inFlight.clear();
+        Map<Integer, SavePage> patched = new TreeMap<>();
+        for (Integer page : pages.keySet()) {
+            int from = page * pageSize;
+            int to = Math.min(total, from + pageSize);
+            List<GameSaveHeader> items = new ArrayList<>(Math.max(0, to - from));
+            for (int i = from; i < to && rows.containsKey(i); i++) {
+                items.add(rows.get(i));
+            }
+            if (from < to && items.size() == to - from) {
+                patched.put(page, new SavePage(Collections.unmodifiableList(items), from, total, version));
+            } else if (from < to) {
+                requested.add(page);
+            }
+        }
+        pages.clear();
+        pages.putAll(patched);
+        // Reported as removals from the bottom up followed by additions in final order, so rows that stay keep their selection.
+        Set<GameSaveHeader> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        kept.addAll(rows.values());
+        Set<GameSaveHeader> existed = Collections.newSetFromMap(new IdentityHashMap<>());
+        existed.addAll(before.values());
+        beginChange();
+        for (Map.Entry<Integer, GameSaveHeader> row : before.descendingMap().entrySet()) {
+            if (!kept.contains(row.getValue())) {
+                nextRemove(row.getKey(), row.getValue());
+            }
+        }
+        for (Map.Entry<Integer, GameSaveHeader> row : rows.entrySet()) {
+            if (!existed.contains(row.getValue())) {
+                nextAdd(row.getKey(), row.getKey() + 1);
+            }
+        }
+        endChange();
+        for (int page : requested) {
+            request(page);
+        }
+        onPageLoaded.accept(this);
+    }
+
+    @Override
+    public GameSaveHeader get(int index) {
+        if (index < 0 || index >= total) {
+            throw new IndexOutOfBoundsException("index " + index + " outside " + total + " saves");
+        }
+        int page = index / pageSize;
+        SavePage loaded = pages.get(page);
+        if (loaded == null) {
+            request(page);
+            return null;
+        }
+        int offset = index - loaded.offset();
+        return offset < loaded.items().size() ? loaded.items().get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return total;
+    }
+
+    public Supplier<List<GameSaveHeader>> resolver(List<Integer> indices) {
+        SaveQuery captured = query;
+        long capturedVersion = version;
+        TreeMap<Integer, GameSaveHeader> known = new TreeMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (int index : indices) {
+            SavePage loaded = pages.get(index / pageSize);
+            int offset = loaded == null ? -1 : index - loaded.offset();
+            GameSaveHeader header = offset >= 0 && offset < loaded.items().size() ? loaded.items().get(offset) : null;
+            if (header == null) {
+                missing.add(index);
+            } else {
+                known.put(index, header);
+            }
+        }
+        return () -> {
+            Map<Integer, SavePage> fetched = new LinkedHashMap<>();
+            for (int index : missing) {
+                int page = index / pageSize;
+                SavePage loaded = fetched.computeIfAbsent(page,
+                    p -> fetcher.apply(captured.withRange(p * pageSize, pageSize)));
+                if (loaded.version() != capturedVersion) {
+                    throw new IllegalStateException("Save list changed, select the saves again");
+                }
+                int offset = index - loaded.offset();
+                if (offset < loaded.items().size()) {
+                    known.put(index, loaded.items().get(offset));
+                }
+            }
+            return Collections.unmodifiableList(new ArrayList<>(known.values()));
+        };
+    }
+
+    private static void shift(TreeMap<Integer, GameSaveHeader> rows, int from, int by) {
+        Map<Integer, GameSaveHeader> moved = new TreeMap<>(rows.tailMap(from, by > 0));
+        rows.keySet().removeAll(moved.keySet());
+        if (by < 0) {
+            rows.remove(from);
+        }
+        moved.forEach((index, header) -> rows.put(index + by, header));
+    }
+
+    private static int position(TreeMap<Integer, GameSaveHeader> rows, int size, GameSaveHeader header,
+                                Comparator<GameSaveHeader> order) {
+        Map.Entry<Integer, GameSaveHeader> before = null;
+        Map.Entry<Integer, GameSaveHeader> after = null;
+        for (Map.Entry<Integer, GameSaveHeader> row : rows.entrySet()) {
+            if (order.compare(row.getValue(), header) < 0) {
+                before = row;
+            } else {
+                after = row;
+                break;
+            }
+        }
+        int low = before == null ? 0 : before.getKey() + 1;
+        int high = after == null ? size : after.getKey();
+        // Only a slot between two loaded neighbours (or a list end) pins down the index.
+        return low == high ? low : -1;
+    }
+
+    private void request(int page) {
+        if (!inFlight.add(page)) {
+            return;
+        }
+        long requestGeneration = generation;
+        SaveQuery pageQuery = query.withRange(page * pageSize, pageSize);
+        executor.execute(() -> {
+            SavePage loaded;
+            try {
+                loaded = fetcher.apply(pageQuery);
+            } catch (RuntimeException e) {
+                Platform.runLater(() -> {
+                    if (requestGeneration == generation) {
+                        inFlight.remove(page);
+                        onError.accept(e);
+                    }
+                });
+                return;
+            }
+            Platform.runLater(() -> accept(requestGeneration, page, loaded));
+        });
+    }
+
+    private void accept(long requestGeneration, int page, SavePage loaded) {
+        if (requestGeneration != generation) {
+            return;
+        }
+        inFlight.remove(page);
+        if (version >= 0L && loaded.version() != version) {
+            reload();
+            return;
+        }
+        version = loaded.version();
+        pages.put(page, loaded);
+        if (loaded.total() != total) {
+            int previous = total;
+            total = loaded.total();
+            beginChange();
+            if (previous > 0) {
+                nextRemove(0, Collections.nCopies(previous, null));
+            }
+            if (total > 0) {
+                nextAdd(0, total);
+            }
+            endChange();
+        }
+        onPageLoaded.accept(this);
+    }
+}